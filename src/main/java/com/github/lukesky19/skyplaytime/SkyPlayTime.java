@@ -30,10 +30,20 @@ import com.github.lukesky19.skyplaytime.config.manager.locale.LocaleManager;
 import com.github.lukesky19.skyplaytime.config.manager.settings.SettingsManager;
 import com.github.lukesky19.skyplaytime.database.connection.ConnectionManager;
 import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.database.data.DailyPlayTime;
+import com.github.lukesky19.skyplaytime.database.data.SaveResult;
+import com.github.lukesky19.skyplaytime.database.data.SessionRecord;
+import com.github.lukesky19.skyplaytime.database.data.ShutdownResult;
+import com.github.lukesky19.skyplaytime.database.journal.PlayTimeJournal;
+import com.github.lukesky19.skyplaytime.database.queue.ConnectionTask;
 import com.github.lukesky19.skyplaytime.database.queue.QueueManager;
+import com.github.lukesky19.skyplaytime.database.queue.QueueMetrics;
 import com.github.lukesky19.skyplaytime.listener.*;
 import com.github.lukesky19.skyplaytime.placeholderapi.SkyPlayTimeExpansion;
+import com.github.lukesky19.skyplaytime.player.manager.DailyPlayTimeManager;
+import com.github.lukesky19.skyplaytime.player.manager.OfflinePlayTimeManager;
 import com.github.lukesky19.skyplaytime.player.manager.PlayerDataManager;
+import com.github.lukesky19.skyplaytime.player.manager.SessionManager;
 import com.github.lukesky19.skyplaytime.player.manager.TimeManager;
 import com.github.lukesky19.skyplaytime.task.TaskManager;
 import io.papermc.paper.command.brigadier.Commands;
@@ -44,11 +54,16 @@ import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * This is the entry point to the SkyPlayTime plugin.
@@ -57,7 +72,10 @@ public final class SkyPlayTime extends JavaPlugin {
     private SettingsManager settingsManager;
     private LocaleManager localeManager;
     private DatabaseManager databaseManager;
+    private PlayTimeJournal playTimeJournal;
     private PlayerDataManager playerDataManager;
+    private DailyPlayTimeManager dailyPlayTimeManager;
+    private SessionManager sessionManager;
     private LeaderboardManager leaderboardManager;
     private AFKManager afkManager;
     private TaskManager taskManager;
@@ -68,6 +86,14 @@ public final class SkyPlayTime extends JavaPlugin {
      */
     public SkyPlayTime() {}
 
+    /**
+     * Get the {@link SettingsManager}.
+     * @return A {@link SettingsManager} instance.
+     */
+    public @NotNull SettingsManager getSettingsManager() {
+        return settingsManager;
+    }
+
     /**
      * This method initializes the plugin's data when enabled.
      */
@@ -82,26 +108,48 @@ public final class SkyPlayTime extends JavaPlugin {
         localeManager = new LocaleManager(this, settingsManager);
         LeaderboardSnapshotManager leaderboardSnapshotManager = new LeaderboardSnapshotManager(this);
 
+        // The settings are loaded before the database is opened as they contain the SQLite settings.
+        settingsManager.loadSettings();
+
         // Database Classes
         ConnectionManager connectionManager = new ConnectionManager(this);
-        QueueManager queueManager = new QueueManager(connectionManager);
+        QueueMetrics queueMetrics = new QueueMetrics(this, settingsManager);
+        QueueManager queueManager = new QueueManager(connectionManager, queueMetrics);
         databaseManager = new DatabaseManager(this, connectionManager, queueManager);
 
+        // Nothing may read or write the database until all tables are up to date.
+        if(!databaseManager.migrateTables()) {
+            this.getComponentLogger().error(AdventureUtil.deserialize("Failed to migrate the database. The plugin will be disabled."));
+            this.getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+
+        // Play time recorded in the journal was not saved before the server last stopped.
+        playTimeJournal = new PlayTimeJournal(this.getComponentLogger(), this.getDataFolder().toPath().resolve("playtime.journal"));
+        if(!replayPlayTimeJournal()) {
+            this.getComponentLogger().error(AdventureUtil.deserialize("Failed to replay the play time journal. The plugin will be disabled."));
+            this.getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+
         // Manager classes
-        playerDataManager = new PlayerDataManager(this, databaseManager);
-        leaderboardManager = new LeaderboardManager(leaderboardSnapshotManager, playerDataManager, databaseManager);
-        TimeManager timeManager = new TimeManager(this, settingsManager, databaseManager, playerDataManager, leaderboardManager);
-        afkManager = new AFKManager(this, settingsManager, localeManager, playerDataManager, newPlayerPerksAPI);
+        OfflinePlayTimeManager offlinePlayTimeManager = new OfflinePlayTimeManager(databaseManager);
+        playerDataManager = new PlayerDataManager(this, settingsManager, databaseManager, playTimeJournal, offlinePlayTimeManager);
+        dailyPlayTimeManager = new DailyPlayTimeManager(this, settingsManager, databaseManager);
+        sessionManager = new SessionManager(this, databaseManager);
+        leaderboardManager = new LeaderboardManager(this, settingsManager, leaderboardSnapshotManager, playerDataManager, databaseManager);
+        TimeManager timeManager = new TimeManager(this, settingsManager, databaseManager, playerDataManager, offlinePlayTimeManager, leaderboardManager);
+        afkManager = new AFKManager(this, settingsManager, localeManager, playerDataManager, sessionManager, newPlayerPerksAPI);
         ActivityManager activityManager = new ActivityManager(playerDataManager);
-        taskManager = new TaskManager(this, settingsManager, playerDataManager, timeManager, afkManager, leaderboardManager);
+        taskManager = new TaskManager(this, settingsManager, databaseManager, playerDataManager, timeManager, afkManager, leaderboardManager, playTimeJournal, dailyPlayTimeManager, sessionManager);
 
         // Register Listeners
-        this.getServer().getPluginManager().registerEvents(new LoginListener(playerDataManager), this);
-        this.getServer().getPluginManager().registerEvents(new LogoutListener(playerDataManager), this);
+        this.getServer().getPluginManager().registerEvents(new LoginListener(playerDataManager, sessionManager, leaderboardManager), this);
+        this.getServer().getPluginManager().registerEvents(new LogoutListener(playerDataManager, sessionManager, leaderboardManager), this);
         this.getServer().getPluginManager().registerEvents(new ActivityListener(this, settingsManager, afkManager, activityManager), this);
 
         // Create and register the API
-        SkyPlayTimeAPI skyPlayTimeAPI = new SkyPlayTimeAPI(timeManager, afkManager, leaderboardManager);
+        SkyPlayTimeAPI skyPlayTimeAPI = new SkyPlayTimeAPI(timeManager, afkManager, leaderboardManager, dailyPlayTimeManager, sessionManager);
         this.getServer().getServicesManager().register(SkyPlayTimeAPI.class, skyPlayTimeAPI, this, ServicePriority.Lowest);
 
         // Register Commands
@@ -121,13 +169,13 @@ public final class SkyPlayTime extends JavaPlugin {
         // Initialize player data for any online players that joined before the plugin was fully enabled.
         // This is mostly for plugman edge cases, but 99% of the time is not necessary.
         List<CompletableFuture<Void>> futureList = new ArrayList<>();
-        this.getServer().getOnlinePlayers().forEach(player ->
-                futureList.add(playerDataManager.loadPlayerData(player, player.getUniqueId())));
+        this.getServer().getOnlinePlayers().forEach(player -> {
+            futureList.add(playerDataManager.loadPlayerData(player, player.getUniqueId()));
+            sessionManager.startSession(player.getUniqueId());
+        });
 
         CompletableFuture<Void> allFutures = CompletableFuture.allOf(futureList.toArray(new CompletableFuture[0]));
-        allFutures.thenAccept(v1 ->
-                leaderboardManager.updateDatabaseTopTen().thenAccept(v2 ->
-                        leaderboardManager.updateTopTenAllCategories()));
+        allFutures.thenRun(() -> this.getServer().getScheduler().runTask(this, () -> leaderboardManager.rebuildLeaderboards()));
     }
 
     /**
@@ -142,8 +190,7 @@ public final class SkyPlayTime extends JavaPlugin {
         taskManager.restartTasks();
 
         if(!onEnable) {
-            leaderboardManager.updateDatabaseTopTen().thenAccept(v2 ->
-                    leaderboardManager.updateTopTenAllCategories());
+            leaderboardManager.rebuildLeaderboards();
         }
     }
 
@@ -158,21 +205,85 @@ public final class SkyPlayTime extends JavaPlugin {
             taskManager.stopTasks();
         }
 
+        if(databaseManager != null) {
+            shutdownDatabase();
+        }
+    }
+
+    /**
+     * Opens the {@link PlayTimeJournal} and adds any play time in it to the database.
+     * If the journal can't be opened, the plugin will continue without it.
+     * @return true if successful, false if the play time could not be added to the database.
+     */
+    private boolean replayPlayTimeJournal() {
+        try {
+            playTimeJournal.open();
+        } catch (IOException e) {
+            this.getComponentLogger().warn(AdventureUtil.deserialize("Unable to open the play time journal. Play time gained since the last save will be lost if the server crashes."));
+            return true;
+        }
+
+        Map<UUID, Long> playTimeMap = playTimeJournal.readPlayTime();
+        if(playTimeMap.isEmpty()) return true;
+
+        try {
+            int updated = databaseManager.getPlayTimeTable().addPlayTime(playTimeMap).join();
+            playTimeJournal.clear();
+
+            this.getComponentLogger().info(AdventureUtil.deserialize("Recovered unsaved play time for " + updated + " players from the play time journal."));
+            return true;
+        } catch (CompletionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes all unsaved player data, daily play time, and sessions in a single transaction, shuts down the database, and closes the {@link PlayTimeJournal}.
+     * This blocks until the data is written or the shutdown timeout passes, as the server may exit as soon as the plugin is disabled.
+     */
+    private void shutdownDatabase() {
+        @Nullable ConnectionTask<Integer> finalWrite = null;
+        long sequence = 0;
+        int dailyPlayTimeRows = 0;
+        int sessionRows = 0;
+
+        // The managers are only created once the database was migrated and the journal was replayed.
         if(playerDataManager != null) {
-            playerDataManager.savePlayerData().thenAccept(results -> {
-                boolean finalResult = !results.contains(false);
+            sequence = playTimeJournal.getSequence();
+            sessionManager.endAllSessions();
+
+            List<DailyPlayTime> dailyPlayTimes = dailyPlayTimeManager.drain();
+            List<SessionRecord> sessionRecords = sessionManager.drain();
+            dailyPlayTimeRows = dailyPlayTimes.size();
+            sessionRows = sessionRecords.size();
 
-                if (finalResult) {
-                    databaseManager.handlePluginDisable();
+            ConnectionTask<SaveResult> saveTask = playerDataManager.createFinalSaveTask();
+            ConnectionTask<Integer> dailyPlayTimeTask = databaseManager.getDailyPlayTimeTable().createAddPlayTimeTask(dailyPlayTimes);
+            ConnectionTask<Integer> sessionsTask = databaseManager.getSessionsTable().createAddSessionsTask(sessionRecords);
+
+            finalWrite = connection -> saveTask.execute(connection).updated()
+                    + dailyPlayTimeTask.execute(connection)
+                    + sessionsTask.execute(connection);
+        }
+
+        ShutdownResult shutdownResult = databaseManager.shutdown(finalWrite, settingsManager.getShutdownTimeoutSeconds() * 1000L);
+
+        // Daily play time and sessions are not journaled, so they are lost if the final write did not commit.
+        if(finalWrite != null && !shutdownResult.committed() && (dailyPlayTimeRows > 0 || sessionRows > 0)) {
+            this.getComponentLogger().warn(AdventureUtil.deserialize("Abandoned " + dailyPlayTimeRows + " daily play time rows and " + sessionRows + " session rows as the final write did not commit on plugin disable."));
+        }
+
+        if(playTimeJournal != null) {
+            // If the final write did not commit, the journal is kept so the play time is recovered on the next start.
+            if(finalWrite != null) {
+                if(shutdownResult.committed()) {
+                    playTimeJournal.truncate(sequence);
                 } else {
-                    this.getComponentLogger().warn(AdventureUtil.deserialize("Failed to save player data on plugin disable. Data loss will occur."));
-                    databaseManager.handlePluginDisable();
+                    this.getComponentLogger().warn(AdventureUtil.deserialize("Failed to save player data on plugin disable. Play time gained since the last save will be recovered from the play time journal on the next start."));
                 }
-            }).exceptionally(ex -> {
-                this.getComponentLogger().warn(AdventureUtil.deserialize("Failed to save player data on plugin disable. Data loss will occur."));
-                databaseManager.handlePluginDisable();
-                return null;
-            });
+            }
+
+            playTimeJournal.close();
         }
     }
 
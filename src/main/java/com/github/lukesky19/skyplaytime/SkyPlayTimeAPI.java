@@ -17,12 +17,23 @@
 */
 package com.github.lukesky19.skyplaytime;
 
+import com.github.lukesky19.skyplaytime.database.data.SessionRecord;
+import com.github.lukesky19.skyplaytime.leaderboard.data.LeaderboardPage;
+import com.github.lukesky19.skyplaytime.leaderboard.data.PlayTimeSketch;
+import com.github.lukesky19.skyplaytime.leaderboard.data.Position;
+import com.github.lukesky19.skyplaytime.player.data.PlayTimes;
 import com.github.lukesky19.skyplaytime.player.manager.AFKManager;
+import com.github.lukesky19.skyplaytime.player.manager.DailyPlayTimeManager;
+import com.github.lukesky19.skyplaytime.player.manager.SessionManager;
 import com.github.lukesky19.skyplaytime.leaderboard.manager.LeaderboardManager;
 import com.github.lukesky19.skyplaytime.player.manager.TimeManager;
 import com.github.lukesky19.skyplaytime.util.TimeCategory;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -34,17 +45,28 @@ public class SkyPlayTimeAPI {
     private final @NotNull TimeManager timeManager;
     private final @NotNull AFKManager afkManager;
     private final @NotNull LeaderboardManager leaderboardManager;
+    private final @NotNull DailyPlayTimeManager dailyPlayTimeManager;
+    private final @NotNull SessionManager sessionManager;
 
     /**
      * Constructor
      * @param timeManager A {@link TimeManager} instance.
      * @param afkManager A {@link AFKManager} instance.
      * @param leaderboardManager A {@link LeaderboardManager} instance.
-     */
-    public SkyPlayTimeAPI(@NotNull TimeManager timeManager, @NotNull AFKManager afkManager, @NotNull LeaderboardManager leaderboardManager) {
+     * @param dailyPlayTimeManager A {@link DailyPlayTimeManager} instance.
+     * @param sessionManager A {@link SessionManager} instance.
+     */
+    public SkyPlayTimeAPI(
+            @NotNull TimeManager timeManager,
+            @NotNull AFKManager afkManager,
+            @NotNull LeaderboardManager leaderboardManager,
+            @NotNull DailyPlayTimeManager dailyPlayTimeManager,
+            @NotNull SessionManager sessionManager) {
         this.timeManager = timeManager;
         this.afkManager = afkManager;
         this.leaderboardManager = leaderboardManager;
+        this.dailyPlayTimeManager = dailyPlayTimeManager;
+        this.sessionManager = sessionManager;
     }
 
     /**
@@ -56,6 +78,58 @@ public class SkyPlayTimeAPI {
         return afkManager.isPlayerAFK(uuid);
     }
 
+    /**
+     * Get the player's play time in seconds for the provided {@link TimeCategory}, whether they are online or not.
+     * Offline players are read from the database and cached briefly, so repeated lookups of the same player are cheap.
+     * Offline players always have a {@link TimeCategory#SESSION} play time of 0.
+     * This should be called on the main thread.
+     * @param uuid The {@link UUID} of the player.
+     * @param timeCategory The {@link TimeCategory} to get play time for.
+     * @return A {@link CompletableFuture} containing the player's play time in seconds or null if the player has never joined.
+     */
+    public @NotNull CompletableFuture<@Nullable Long> getPlayTimeSecondsAsync(@NotNull UUID uuid, @NotNull TimeCategory timeCategory) {
+        return timeManager.getPlayTimeSecondsAsync(uuid, timeCategory);
+    }
+
+    /**
+     * Get the play time in seconds of multiple players for the provided {@link TimeCategory}, whether they are online or not.
+     * Offline players are read from the database in as few queries as possible instead of one query per player.
+     * Offline players always have a {@link TimeCategory#SESSION} play time of 0.
+     * This should be called on the main thread.
+     * @param uuids The {@link UUID}s of the players.
+     * @param timeCategory The {@link TimeCategory} to get play time for.
+     * @return A {@link CompletableFuture} containing the {@link PlayTimes}. Players who have never joined are not included.
+     */
+    public @NotNull CompletableFuture<@NotNull PlayTimes> getPlayTimes(@NotNull Collection<@NotNull UUID> uuids, @NotNull TimeCategory timeCategory) {
+        return timeManager.getPlayTimesAsync(uuids, timeCategory);
+    }
+
+    /**
+     * Get the play time a player gained between two dates, including both dates, whether they are online or not.
+     * The dates are in the time zone configured in the reset settings.
+     * @param uuid The {@link UUID} of the player.
+     * @param from The first {@link LocalDate}.
+     * @param to The last {@link LocalDate}.
+     * @return A {@link CompletableFuture} containing the play time in seconds. Players who have never joined have 0.
+     */
+    public @NotNull CompletableFuture<@NotNull Long> getPlayTimeBetween(@NotNull UUID uuid, @NotNull LocalDate from, @NotNull LocalDate to) {
+        return dailyPlayTimeManager.getPlayTimeBetween(uuid, from, to);
+    }
+
+    /**
+     * Get the player's sessions that started between two times, newest first.
+     * Sessions are saved when the player leaves, so the current session is not included.
+     * Old sessions may have been merged into one record per day, see {@link SessionRecord#sessions()}.
+     * @param uuid The {@link UUID} of the player.
+     * @param fromMillis The earliest start time in milliseconds since the epoch.
+     * @param toMillis The latest start time in milliseconds since the epoch.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link CompletableFuture} containing a {@link List} of {@link SessionRecord}s.
+     */
+    public @NotNull CompletableFuture<@NotNull List<@NotNull SessionRecord>> getSessions(@NotNull UUID uuid, long fromMillis, long toMillis, int limit) {
+        return sessionManager.getSessions(uuid, fromMillis, toMillis, limit);
+    }
+
     /**
      * Get the player's play time for their current session in seconds.
      * @param uuid The {@link UUID} of the player.
@@ -336,4 +410,76 @@ public class SkyPlayTimeAPI {
     public void markPlayerNotExempt(@NotNull UUID uuid) {
         leaderboardManager.markPlayerNotExempt(uuid);
     }
+
+    /**
+     * Get the rank of the player for the {@link TimeCategory} among all players that are not exempt, where 1 is the player with the most play time.
+     * Players with the same play time share the same rank. Lookups are answered from memory.
+     * @param uuid The {@link UUID} of the player.
+     * @param timeCategory The {@link TimeCategory} to get the rank for.
+     * @return The player's rank, or 0 if the player is exempt or has no play time stored.
+     */
+    public int getRank(@NotNull UUID uuid, @NotNull TimeCategory timeCategory) {
+        return leaderboardManager.getRank(uuid, timeCategory);
+    }
+
+    /**
+     * Get the number of ranked players for the {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory} to get the number of ranked players for.
+     * @return The number of ranked players.
+     */
+    public int getRankedPlayerCount(@NotNull TimeCategory timeCategory) {
+        return leaderboardManager.getRankedPlayerCount(timeCategory);
+    }
+
+    /**
+     * Estimate the percentage of players that are not exempt at or above the player's play time for the {@link TimeCategory}.
+     * For example, 3 means the player is in the top 3% of players. Estimates are answered from memory.
+     * @param uuid The {@link UUID} of the player.
+     * @param timeCategory The {@link TimeCategory} to get the percentage for.
+     * @return The percentage between 0 and 100, or 0 if the player is exempt or has no play time stored.
+     */
+    public double getTopPercent(@NotNull UUID uuid, @NotNull TimeCategory timeCategory) {
+        return leaderboardManager.getTopPercent(uuid, timeCategory);
+    }
+
+    /**
+     * Estimate the play time at the percentile provided for the {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory} to get the play time for.
+     * @param percentile The percentile between 0 and 100. For example, 90 returns the play time needed to be in the top 10% of players.
+     * @return The play time in seconds, or 0 if no players are ranked.
+     */
+    public long getPlayTimeAtPercentile(@NotNull TimeCategory timeCategory, double percentile) {
+        return leaderboardManager.getPlayTimeAtPercentile(timeCategory, percentile);
+    }
+
+    /**
+     * Get a copy of the play time sketch for the {@link TimeCategory}.
+     * The sketch can be encoded with {@link PlayTimeSketch#encode()} and merged with sketches from other servers to estimate network-wide percentiles.
+     * @param timeCategory The {@link TimeCategory} to get the sketch for.
+     * @return A {@link PlayTimeSketch}.
+     */
+    public @NotNull PlayTimeSketch getPlayTimeSketch(@NotNull TimeCategory timeCategory) {
+        return leaderboardManager.getPlayTimeSketch(timeCategory);
+    }
+
+    /**
+     * Get the top positions for the {@link TimeCategory}, highest play time first.
+     * The number of positions is set by the leaderboard depth in settings.yml. Positions are refreshed every second, and reading them never locks.
+     * @param timeCategory The {@link TimeCategory} to get the top positions for.
+     * @return An unmodifiable {@link List} of {@link Position}s.
+     */
+    public @NotNull List<@NotNull Position> getTopPositions(@NotNull TimeCategory timeCategory) {
+        return leaderboardManager.getTopPositions(timeCategory);
+    }
+
+    /**
+     * Get a page of the leaderboard for the {@link TimeCategory}.
+     * Pages past the leaderboard depth are read from the database, so deep pages cost the same as the first page.
+     * @param timeCategory The {@link TimeCategory} to get the page for.
+     * @param page The page number, starting at 1.
+     * @return A {@link CompletableFuture} containing the {@link LeaderboardPage}.
+     */
+    public @NotNull CompletableFuture<@NotNull LeaderboardPage> getLeaderboardPage(@NotNull TimeCategory timeCategory, int page) {
+        return leaderboardManager.getLeaderboardPage(timeCategory, page);
+    }
 }
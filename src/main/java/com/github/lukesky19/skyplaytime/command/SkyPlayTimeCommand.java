@@ -91,7 +91,7 @@ public class SkyPlayTimeCommand {
         AddCommand addCommand = new AddCommand(skyPlayTime, localeManager, timeManager);
         AFKCommand afkCommand = new AFKCommand(skyPlayTime, localeManager, afkManager);
         BackupCommand backupCommand = new BackupCommand(skyPlayTime, localeManager, playerDataManager, databaseManager);
-        DebugCommand debugCommand = new DebugCommand(skyPlayTime, localeManager, playerDataManager, afkManager, activityManager);
+        DebugCommand debugCommand = new DebugCommand(skyPlayTime, localeManager, databaseManager, playerDataManager, afkManager, activityManager);
         ExemptCommand exemptCommand = new ExemptCommand(skyPlayTime, localeManager, leaderboardManager);
         HelpCommand helpCommand = new HelpCommand(localeManager);
         LeaderboardCommand leaderboardCommand = new LeaderboardCommand(skyPlayTime, localeManager, leaderboardManager, leaderboardSnapshotManager);
@@ -22,13 +22,22 @@ import com.github.lukesky19.skyplaytime.SkyPlayTime;
 import com.github.lukesky19.skyplaytime.config.manager.locale.LocaleManager;
 import com.github.lukesky19.skyplaytime.config.data.locale.Locale;
 import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.database.backup.DatabaseBackup;
 import com.github.lukesky19.skyplaytime.player.manager.PlayerDataManager;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import io.papermc.paper.command.brigadier.Commands;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
 
 /**
  * This class is used to create the backup command used to backup the database.
@@ -65,8 +74,8 @@ public class BackupCommand {
                 .executes(ctx -> {
                     Locale locale = localeManager.getLocale();
 
-                    playerDataManager.savePlayerData().thenAccept(results -> {
-                        if(results.contains(false)) {
+                    playerDataManager.savePlayerData().thenAccept(saveResult -> {
+                        if(!saveResult.isSuccessful()) {
                             skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () -> {
                                 if(ctx.getSource().getSender() instanceof Player player) {
                                     player.sendMessage(AdventureUtil.deserialize(locale.prefix() + locale.playTimeSaveError()));
@@ -80,21 +89,21 @@ public class BackupCommand {
                             return;
                         }
 
-                        databaseManager.backupDatabase().thenAccept(result ->
+                        DatabaseBackup backup = databaseManager.backupDatabase();
+                        CommandSender sender = ctx.getSource().getSender();
+
+                        skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () -> startProgressTask(sender, backup));
+
+                        backup.getFuture().thenAccept(result ->
                                 skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () -> {
-                                    if(ctx.getSource().getSender() instanceof Player player) {
-                                        if(result) {
-                                            player.sendMessage(AdventureUtil.deserialize(locale.prefix() + locale.databaseBackupSuccess()));
-                                        } else {
-                                            player.sendMessage(AdventureUtil.deserialize(locale.prefix() + locale.databaseBackupError()));
-                                        }
-                                    } else {
-                                        if(result) {
-                                            logger.info(AdventureUtil.deserialize(locale.databaseBackupSuccess()));
-                                        } else {
-                                            logger.info(AdventureUtil.deserialize(locale.databaseBackupError()));
-                                        }
-                                    }
+                                    List<TagResolver.Single> placeholders = List.of(
+                                            Placeholder.parsed("size", String.valueOf(result.sizeBytes() / 1024)),
+                                            Placeholder.parsed("stored", String.valueOf(result.storedBytes() / 1024)),
+                                            Placeholder.parsed("name", result.name()),
+                                            Placeholder.parsed("time", formatSeconds(result.durationMillis())));
+
+                                    sendMessage(sender, locale.databaseBackupSuccess(), List.of());
+                                    sendMessage(sender, locale.databaseBackupReport(), placeholders);
                         })).exceptionally(ex -> {
                             logger.error(AdventureUtil.deserialize("Failed to backup database: " + ex.getMessage()));
 
@@ -123,6 +132,90 @@ public class BackupCommand {
                     });
 
                     return 1;
-                }).build();
+                })
+
+                .then(Commands.literal("restore")
+                        .requires(ctx -> ctx.getSender().hasPermission("skyplaytime.command.skyplaytime.backup.restore"))
+                        .then(Commands.argument("backup_name", StringArgumentType.word())
+                                .suggests((ctx, suggestionsBuilder) -> {
+                                    List<String> backupNames = databaseManager.getBackupNames();
+                                    backupNames.forEach(suggestionsBuilder::suggest);
+
+                                    return suggestionsBuilder.buildFuture();
+                                })
+
+                                .executes(ctx -> {
+                                    CommandSender sender = ctx.getSource().getSender();
+                                    String backupName = ctx.getArgument("backup_name", String.class);
+
+                                    databaseManager.restoreBackup(backupName).thenAccept(path ->
+                                            skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () -> {
+                                                List<TagResolver.Single> placeholders = List.of(
+                                                        Placeholder.parsed("name", backupName),
+                                                        Placeholder.parsed("file", path.toString()));
+
+                                                sendMessage(sender, localeManager.getLocale().databaseRestoreSuccess(), placeholders);
+                                    })).exceptionally(ex -> {
+                                        logger.error(AdventureUtil.deserialize("Failed to restore backup " + backupName + ": " + ex.getMessage()));
+
+                                        skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () ->
+                                                sendMessage(sender, localeManager.getLocale().databaseRestoreError(), List.of(Placeholder.parsed("name", backupName))));
+
+                                        return null;
+                                    });
+
+                                    return 1;
+                                })
+                        )
+                ).build();
+    }
+
+    /**
+     * Starts a task that sends the progress of the backup to the sender every 2 seconds until the backup has finished.
+     * @param sender The {@link CommandSender} to send progress to.
+     * @param backup The {@link DatabaseBackup} to report progress for.
+     */
+    private void startProgressTask(@NotNull CommandSender sender, @NotNull DatabaseBackup backup) {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                if(backup.isDone()) {
+                    this.cancel();
+                    return;
+                }
+
+                List<TagResolver.Single> placeholders = List.of(
+                        Placeholder.parsed("progress", String.valueOf(backup.getProgress())),
+                        Placeholder.parsed("time", formatSeconds(backup.getElapsedMillis())));
+
+                sendMessage(sender, localeManager.getLocale().databaseBackupProgress(), placeholders);
+            }
+        }.runTaskTimer(skyPlayTime, 40L, 40L);
+    }
+
+    /**
+     * Sends a locale message to a player with the plugin's prefix or logs it if the sender is not a player.
+     * Nothing is sent if the message is not configured.
+     * @param sender The {@link CommandSender} to send the message to.
+     * @param message The message to send.
+     * @param placeholders The {@link List} of {@link TagResolver.Single} placeholders to apply.
+     */
+    private void sendMessage(@NotNull CommandSender sender, @Nullable String message, @NotNull List<TagResolver.Single> placeholders) {
+        if(message == null) return;
+
+        if(sender instanceof Player player) {
+            player.sendMessage(AdventureUtil.deserialize(localeManager.getLocale().prefix() + message, placeholders));
+        } else {
+            logger.info(AdventureUtil.deserialize(message, placeholders));
+        }
+    }
+
+    /**
+     * Formats milliseconds as seconds with one decimal place.
+     * @param millis The time in milliseconds.
+     * @return The formatted seconds.
+     */
+    private @NotNull String formatSeconds(long millis) {
+        return String.format("%.1f", millis / 1000.0);
     }
 }
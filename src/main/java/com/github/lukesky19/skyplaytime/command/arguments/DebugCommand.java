@@ -22,6 +22,9 @@ import com.github.lukesky19.skylib.api.time.TimeUtil;
 import com.github.lukesky19.skyplaytime.SkyPlayTime;
 import com.github.lukesky19.skyplaytime.config.manager.locale.LocaleManager;
 import com.github.lukesky19.skyplaytime.config.data.locale.Locale;
+import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.database.queue.LatencyHistogram;
+import com.github.lukesky19.skyplaytime.database.queue.QueueMetrics;
 import com.github.lukesky19.skyplaytime.player.data.PlayerData;
 import com.github.lukesky19.skyplaytime.player.manager.AFKManager;
 import com.github.lukesky19.skyplaytime.player.manager.ActivityManager;
@@ -33,10 +36,13 @@ import io.papermc.paper.command.brigadier.Commands;
 import io.papermc.paper.command.brigadier.argument.ArgumentTypes;
 import io.papermc.paper.command.brigadier.argument.resolvers.selector.PlayerSelectorArgumentResolver;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -47,6 +53,7 @@ public class DebugCommand {
     private final @NotNull SkyPlayTime skyPlayTime;
     private final @NotNull ComponentLogger logger;
     private final @NotNull LocaleManager localeManager;
+    private final @NotNull DatabaseManager databaseManager;
     private final @NotNull PlayerDataManager playerDataManager;
     private final @NotNull AFKManager afkManager;
     private final @NotNull ActivityManager activityManager;
@@ -55,6 +62,7 @@ public class DebugCommand {
      * Constructor
      * @param skyPlayTime The plugin's main instance.
      * @param localeManager A {@link LocaleManager} instance.
+     * @param databaseManager A {@link DatabaseManager} instance.
      * @param playerDataManager A {@link PlayerDataManager} instance.
      * @param afkManager An {@link AFKManager} instance.
      * @param activityManager An {@link ActivityManager} instance.
@@ -62,12 +70,14 @@ public class DebugCommand {
     public DebugCommand(
             @NotNull SkyPlayTime skyPlayTime,
             @NotNull LocaleManager localeManager,
+            @NotNull DatabaseManager databaseManager,
             @NotNull PlayerDataManager playerDataManager,
             @NotNull AFKManager afkManager,
             @NotNull ActivityManager activityManager) {
         this.skyPlayTime = skyPlayTime;
         this.logger = skyPlayTime.getComponentLogger();
         this.localeManager = localeManager;
+        this.databaseManager = databaseManager;
         this.playerDataManager = playerDataManager;
         this.afkManager = afkManager;
         this.activityManager = activityManager;
@@ -272,6 +282,75 @@ public class DebugCommand {
                 )
         );
 
+        builder.then(Commands.literal("db")
+                .requires(ctx -> ctx.getSender().hasPermission("skyplaytime.command.skyplaytime.debug.db"))
+                .then(Commands.literal("reset")
+                        .executes(ctx -> {
+                            databaseManager.getQueueMetrics().reset();
+                            sendDebugMessages(ctx.getSource().getSender(), List.of("<aqua>The database task latencies have been reset.</aqua>"));
+
+                            return 1;
+                        })
+                )
+
+                .executes(ctx -> {
+                    sendDebugMessages(ctx.getSource().getSender(), createDatabaseMessages(databaseManager.getQueueMetrics()));
+
+                    return 1;
+                })
+        );
+
         return builder.build();
     }
+
+    /**
+     * Creates the messages that display the database queue depth and the latencies of each kind of database task.
+     * @param queueMetrics The {@link QueueMetrics} to display.
+     * @return A {@link List} of messages.
+     */
+    private @NotNull List<@NotNull String> createDatabaseMessages(@NotNull QueueMetrics queueMetrics) {
+        List<String> messages = new ArrayList<>();
+        messages.add("<aqua>Pending database tasks: <yellow>" + queueMetrics.getPendingWrites() + "</yellow> on the write thread, <yellow>" + queueMetrics.getPendingReads() + "</yellow> on the read threads.</aqua>");
+
+        Map<String, QueueMetrics.TaskMetrics> taskMetricsMap = queueMetrics.getTaskMetrics();
+        if(taskMetricsMap.isEmpty()) {
+            messages.add("<aqua>No database tasks have run yet.</aqua>");
+            return messages;
+        }
+
+        messages.add("<aqua>Latencies in milliseconds. Wait is the time spent in the queue, run is the time spent executing.</aqua>");
+        taskMetricsMap.forEach((name, taskMetrics) -> {
+            LatencyHistogram wait = taskMetrics.getWait();
+            LatencyHistogram execution = taskMetrics.getExecution();
+
+            messages.add("<yellow>" + name + "</yellow> <white>x" + execution.getCount() +
+                    " | wait p50 " + formatMicros(wait.getValueAtPercentile(50)) + " p99 " + formatMicros(wait.getValueAtPercentile(99)) +
+                    " | run p50 " + formatMicros(execution.getValueAtPercentile(50)) + " p95 " + formatMicros(execution.getValueAtPercentile(95)) +
+                    " p99 " + formatMicros(execution.getValueAtPercentile(99)) + " max " + formatMicros(execution.getMax()) + "</white>");
+        });
+
+        return messages;
+    }
+
+    /**
+     * Formats microseconds as milliseconds with one decimal place.
+     * @param micros The time in microseconds.
+     * @return The formatted time.
+     */
+    private @NotNull String formatMicros(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+
+    /**
+     * Sends the messages to the player, or logs them if the sender is not a player.
+     * @param sender The {@link CommandSender} that ran the command.
+     * @param messages The messages to send.
+     */
+    private void sendDebugMessages(@NotNull CommandSender sender, @NotNull List<@NotNull String> messages) {
+        if(sender instanceof Player player) {
+            messages.forEach(message -> player.sendMessage(AdventureUtil.deserialize(message)));
+        } else {
+            messages.forEach(message -> logger.info(AdventureUtil.deserialize(message)));
+        }
+    }
 }
@@ -25,10 +25,11 @@ import com.github.lukesky19.skyplaytime.leaderboard.data.LeaderboardSnapshot;
 import com.github.lukesky19.skyplaytime.config.data.locale.Locale;
 import com.github.lukesky19.skyplaytime.leaderboard.manager.LeaderboardManager;
 import com.github.lukesky19.skyplaytime.leaderboard.data.Position;
-import com.github.lukesky19.skyplaytime.leaderboard.data.TopTen;
 import com.github.lukesky19.skyplaytime.util.PluginUtils;
 import com.github.lukesky19.skyplaytime.util.TimeCategory;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import io.papermc.paper.command.brigadier.Commands;
@@ -78,203 +79,12 @@ public class LeaderboardCommand {
     public LiteralCommandNode<CommandSourceStack> createCommand() {
         return Commands.literal("leaderboard")
                 .requires(ctx -> ctx.getSender().hasPermission("skyplaytime.command.skyplaytime.leaderboard"))
-                .then(Commands.literal("session")
-                        .executes(ctx -> {
-                            Locale locale = localeManager.getLocale();
-                            CommandSender sender = ctx.getSource().getSender();
-                            @Nullable TopTen topTen = leaderboardManager.getTopTenByTimeCategoryNotExempt(TimeCategory.SESSION);
-                            if(topTen == null) topTen = new TopTen();
-
-                            sender.sendMessage(AdventureUtil.deserialize(locale.sessionLeaderboardTitle()));
-
-                            int positionNumber = 1;
-                            for(Position position : topTen.getPositions()) {
-                                List<TagResolver.Single> placeholders = List.of(
-                                        Placeholder.parsed("position", String.valueOf(positionNumber)),
-                                        Placeholder.parsed("player_name", position.name()),
-                                        Placeholder.parsed("time", formatPlayTimeChat(locale.sessionLeaderboardTimePlaceholder(), position.seconds())));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.sessionLeaderboardPosition(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            while(positionNumber <= 10) {
-                                List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("position", String.valueOf(positionNumber)));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.sessionLeaderboardPositionEmpty(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            return 1;
-                        })
-                )
-
-                .then(Commands.literal("daily")
-                        .executes(ctx -> {
-                            Locale locale = localeManager.getLocale();
-                            CommandSender sender = ctx.getSource().getSender();
-                            @Nullable TopTen topTen = leaderboardManager.getTopTenByTimeCategoryNotExempt(TimeCategory.DAILY);
-                            if(topTen == null) topTen = new TopTen();
-
-                            sender.sendMessage(AdventureUtil.deserialize(locale.dailyLeaderboardTitle()));
-
-                            int positionNumber = 1;
-                            for(Position position : topTen.getPositions()) {
-                                List<TagResolver.Single> placeholders = List.of(
-                                        Placeholder.parsed("position", String.valueOf(positionNumber)),
-                                        Placeholder.parsed("player_name", position.name()),
-                                        Placeholder.parsed("time", formatPlayTimeChat(locale.dailyLeaderboardTimePlaceholder(), position.seconds())));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.dailyLeaderboardPosition(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            while(positionNumber <= 10) {
-                                List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("position", String.valueOf(positionNumber)));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.dailyLeaderboardPositionEmpty(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            return 1;
-                        })
-                )
-
-                .then(Commands.literal("weekly")
-                        .executes(ctx -> {
-                            Locale locale = localeManager.getLocale();
-                            CommandSender sender = ctx.getSource().getSender();
-                            @Nullable TopTen topTen = leaderboardManager.getTopTenByTimeCategoryNotExempt(TimeCategory.WEEKLY);
-                            if(topTen == null) topTen = new TopTen();
-
-                            sender.sendMessage(AdventureUtil.deserialize(locale.weeklyLeaderboardTitle()));
-
-                            int positionNumber = 1;
-                            for(Position position : topTen.getPositions()) {
-                                List<TagResolver.Single> placeholders = List.of(
-                                        Placeholder.parsed("position", String.valueOf(positionNumber)),
-                                        Placeholder.parsed("player_name", position.name()),
-                                        Placeholder.parsed("time", formatPlayTimeChat(locale.weeklyLeaderboardTimePlaceholder(), position.seconds())));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.weeklyLeaderboardPosition(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            while(positionNumber <= 10) {
-                                List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("position", String.valueOf(positionNumber)));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.weeklyLeaderboardPositionEmpty(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            return 1;
-                        })
-                )
-
-                .then(Commands.literal("monthly")
-                        .executes(ctx -> {
-                            Locale locale = localeManager.getLocale();
-                            CommandSender sender = ctx.getSource().getSender();
-                            @Nullable TopTen topTen = leaderboardManager.getTopTenByTimeCategoryNotExempt(TimeCategory.MONTHLY);
-                            if(topTen == null) topTen = new TopTen();
-
-                            sender.sendMessage(AdventureUtil.deserialize(locale.monthlyLeaderboardTitle()));
-
-                            int positionNumber = 1;
-                            for(Position position : topTen.getPositions()) {
-                                List<TagResolver.Single> placeholders = List.of(
-                                        Placeholder.parsed("position", String.valueOf(positionNumber)),
-                                        Placeholder.parsed("player_name", position.name()),
-                                        Placeholder.parsed("time", formatPlayTimeChat(locale.monthlyLeaderboardTimePlaceholder(), position.seconds())));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.monthlyLeaderboardPosition(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            while(positionNumber <= 10) {
-                                List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("position", String.valueOf(positionNumber)));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.monthlyLeaderboardPositionEmpty(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            return 1;
-                        })
-                )
-
-                .then(Commands.literal("yearly")
-                        .executes(ctx -> {
-                            Locale locale = localeManager.getLocale();
-                            CommandSender sender = ctx.getSource().getSender();
-                            @Nullable TopTen topTen = leaderboardManager.getTopTenByTimeCategoryNotExempt(TimeCategory.YEARLY);
-                            if(topTen == null) topTen = new TopTen();
-
-                            sender.sendMessage(AdventureUtil.deserialize(locale.yearlyLeaderboardTitle()));
-
-                            int positionNumber = 1;
-                            for(Position position : topTen.getPositions()) {
-                                List<TagResolver.Single> placeholders = List.of(
-                                        Placeholder.parsed("position", String.valueOf(positionNumber)),
-                                        Placeholder.parsed("player_name", position.name()),
-                                        Placeholder.parsed("time", formatPlayTimeChat(locale.yearlyLeaderboardTimePlaceholder(), position.seconds())));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.yearlyLeaderboardPosition(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            while(positionNumber <= 10) {
-                                List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("position", String.valueOf(positionNumber)));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.yearlyLeaderboardPositionEmpty(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            return 1;
-                        })
-                )
-
-                .then(Commands.literal("total")
-                        .executes(ctx -> {
-                            Locale locale = localeManager.getLocale();
-                            CommandSender sender = ctx.getSource().getSender();
-                            @Nullable TopTen topTen = leaderboardManager.getTopTenByTimeCategoryNotExempt(TimeCategory.TOTAL);
-                            if(topTen == null) topTen = new TopTen();
-
-                            sender.sendMessage(AdventureUtil.deserialize(locale.totalLeaderboardTitle()));
-
-                            int positionNumber = 1;
-                            for(Position position : topTen.getPositions()) {
-                                List<TagResolver.Single> placeholders = List.of(
-                                        Placeholder.parsed("position", String.valueOf(positionNumber)),
-                                        Placeholder.parsed("player_name", position.name()),
-                                        Placeholder.parsed("time", formatPlayTimeChat(locale.totalLeaderboardTimePlaceholder(), position.seconds())));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.totalLeaderboardPosition(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            while(positionNumber <= 10) {
-                                List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("position", String.valueOf(positionNumber)));
-
-                                sender.sendMessage(AdventureUtil.deserialize(locale.totalLeaderboardPositionEmpty(), placeholders));
-
-                                positionNumber++;
-                            }
-
-                            return 1;
-                        })
-                )
+                .then(createCategoryCommand("session", TimeCategory.SESSION))
+                .then(createCategoryCommand("daily", TimeCategory.DAILY))
+                .then(createCategoryCommand("weekly", TimeCategory.WEEKLY))
+                .then(createCategoryCommand("monthly", TimeCategory.MONTHLY))
+                .then(createCategoryCommand("yearly", TimeCategory.YEARLY))
+                .then(createCategoryCommand("total", TimeCategory.TOTAL))
 
                 .then(Commands.literal("history")
                         .requires(ctx -> ctx.getSender().hasPermission("skyplaytime.commands.skyplaytime.leaderboard.historical"))
@@ -330,4 +140,118 @@ public class LeaderboardCommand {
                         )
                 ).build();
     }
+
+    /**
+     * Creates the {@link LiteralArgumentBuilder} for viewing the leaderboard of a {@link TimeCategory}, with an optional page argument.
+     * @param name The name of the command argument.
+     * @param timeCategory The {@link TimeCategory} of the leaderboard.
+     * @return A {@link LiteralArgumentBuilder} of type {@link CommandSourceStack}.
+     */
+    private @NotNull LiteralArgumentBuilder<CommandSourceStack> createCategoryCommand(@NotNull String name, @NotNull TimeCategory timeCategory) {
+        return Commands.literal(name)
+                .executes(ctx -> sendLeaderboardPage(ctx.getSource().getSender(), name, timeCategory, 1))
+                .then(Commands.literal("page")
+                        .then(Commands.argument("page", IntegerArgumentType.integer(1))
+                                .executes(ctx -> sendLeaderboardPage(ctx.getSource().getSender(), name, timeCategory, IntegerArgumentType.getInteger(ctx, "page")))
+                        )
+                );
+    }
+
+    /**
+     * Sends a page of the leaderboard for the {@link TimeCategory} to the {@link CommandSender}.
+     * The page is sent once it is available, as deeper pages are read from the database.
+     * @param sender The {@link CommandSender} to send the page to.
+     * @param categoryName The name of the category used in the command.
+     * @param timeCategory The {@link TimeCategory} of the leaderboard.
+     * @param page The page number, starting at 1.
+     * @return Always 1.
+     */
+    private int sendLeaderboardPage(@NotNull CommandSender sender, @NotNull String categoryName, @NotNull TimeCategory timeCategory, int page) {
+        Locale locale = localeManager.getLocale();
+        String title;
+        String positionMessage;
+        String positionEmptyMessage;
+        Locale.TimeFormat timeFormat;
+        switch(timeCategory) {
+            case SESSION -> {
+                title = locale.sessionLeaderboardTitle();
+                positionMessage = locale.sessionLeaderboardPosition();
+                positionEmptyMessage = locale.sessionLeaderboardPositionEmpty();
+                timeFormat = locale.sessionLeaderboardTimePlaceholder();
+            }
+            case DAILY -> {
+                title = locale.dailyLeaderboardTitle();
+                positionMessage = locale.dailyLeaderboardPosition();
+                positionEmptyMessage = locale.dailyLeaderboardPositionEmpty();
+                timeFormat = locale.dailyLeaderboardTimePlaceholder();
+            }
+            case WEEKLY -> {
+                title = locale.weeklyLeaderboardTitle();
+                positionMessage = locale.weeklyLeaderboardPosition();
+                positionEmptyMessage = locale.weeklyLeaderboardPositionEmpty();
+                timeFormat = locale.weeklyLeaderboardTimePlaceholder();
+            }
+            case MONTHLY -> {
+                title = locale.monthlyLeaderboardTitle();
+                positionMessage = locale.monthlyLeaderboardPosition();
+                positionEmptyMessage = locale.monthlyLeaderboardPositionEmpty();
+                timeFormat = locale.monthlyLeaderboardTimePlaceholder();
+            }
+            case YEARLY -> {
+                title = locale.yearlyLeaderboardTitle();
+                positionMessage = locale.yearlyLeaderboardPosition();
+                positionEmptyMessage = locale.yearlyLeaderboardPositionEmpty();
+                timeFormat = locale.yearlyLeaderboardTimePlaceholder();
+            }
+            default -> {
+                title = locale.totalLeaderboardTitle();
+                positionMessage = locale.totalLeaderboardPosition();
+                positionEmptyMessage = locale.totalLeaderboardPositionEmpty();
+                timeFormat = locale.totalLeaderboardTimePlaceholder();
+            }
+        }
+
+        leaderboardManager.getLeaderboardPage(timeCategory, page)
+                .thenAccept(leaderboardPage -> {
+                    sender.sendMessage(AdventureUtil.deserialize(title));
+
+                    int positionNumber = leaderboardPage.firstPosition();
+                    for(Position position : leaderboardPage.positions()) {
+                        List<TagResolver.Single> placeholders = List.of(
+                                Placeholder.parsed("position", String.valueOf(positionNumber)),
+                                Placeholder.parsed("player_name", position.name()),
+                                Placeholder.parsed("time", formatPlayTimeChat(timeFormat, position.seconds())));
+
+                        sender.sendMessage(AdventureUtil.deserialize(positionMessage, placeholders));
+
+                        positionNumber++;
+                    }
+
+                    while(positionNumber < leaderboardPage.firstPosition() + leaderboardPage.pageSize()) {
+                        List<TagResolver.Single> placeholders = List.of(Placeholder.parsed("position", String.valueOf(positionNumber)));
+
+                        sender.sendMessage(AdventureUtil.deserialize(positionEmptyMessage, placeholders));
+
+                        positionNumber++;
+                    }
+
+                    List<TagResolver.Single> pagePlaceholders = List.of(
+                            Placeholder.parsed("category", categoryName),
+                            Placeholder.parsed("page", String.valueOf(page)),
+                            Placeholder.parsed("next_page", String.valueOf(page + 1)));
+
+                    sender.sendMessage(AdventureUtil.deserialize(locale.leaderboardPage(), pagePlaceholders));
+                })
+                .exceptionally(ex -> {
+                    if(sender instanceof Player) {
+                        sender.sendMessage(AdventureUtil.deserialize(locale.prefix() + locale.leaderboardPageError()));
+                    } else {
+                        logger.error(AdventureUtil.deserialize(locale.leaderboardPageError()));
+                    }
+
+                    return null;
+                });
+
+        return 1;
+    }
 }
@@ -61,16 +61,16 @@ public class SaveCommand {
                 .executes(ctx -> {
                     Locale locale = localeManager.getLocale();
 
-                    playerDataManager.savePlayerData().thenAccept(results -> {
+                    playerDataManager.savePlayerData().thenAccept(result -> {
                         skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () -> {
                             if(ctx.getSource().getSender() instanceof Player player) {
-                                if(!results.contains(false)) {
+                                if(result.isSuccessful()) {
                                     player.sendMessage(AdventureUtil.deserialize(locale.prefix() + locale.playTimeSaveSuccess()));
                                 } else {
                                     player.sendMessage(AdventureUtil.deserialize(locale.prefix() + locale.playTimeSaveError()));
                                 }
                             } else {
-                                if(!results.contains(false)) {
+                                if(result.isSuccessful()) {
                                     logger.error(AdventureUtil.deserialize(locale.playTimeSaveSuccess()));
                                 } else {
                                     logger.error(AdventureUtil.deserialize(locale.playTimeSaveError()));
@@ -62,6 +62,8 @@ import java.util.List;
  * @param historicalLeaderboardPositionEmpty The historical leaderboard position empty text.
  * @param historicalLeaderboardTimePlaceholder The {@link TimeFormat} configuration to create the text that replaces a {@literal <time>} placeholder.
  * @param historicalLeaderboardLoadError The message sent when the historical leaderboard fails to load.
+ * @param leaderboardPage The message sent after a page of a leaderboard, showing the page number and how to view the next page.
+ * @param leaderboardPageError The message sent when a page of a leaderboard fails to load.
  * @param afkMessage The message sent to a player that is marked AFK.
  * @param noLongerAfkMessage The message sent to a player that is marked no longer AFK.
  * @param playerAfkMessage The message sent to all other players when another player goes AFK.
@@ -72,6 +74,10 @@ import java.util.List;
  * @param databaseError The message sent when an error with the database occurs.
  * @param databaseBackupSuccess The message sent when the database backs up successfully.
  * @param databaseBackupError The message sent when the database fails to be backed up.
+ * @param databaseBackupProgress The message sent periodically while the database is being backed up.
+ * @param databaseBackupReport The message sent with the size, name, and duration of a completed backup.
+ * @param databaseRestoreSuccess The message sent when a backup is restored successfully.
+ * @param databaseRestoreError The message sent when a backup fails to be restored.
  * @param playTimeSaveSuccess The message sent when play time saves successfully.
  * @param playTimeSaveError The message sent when play time fails to be saved.
  * @param sessionPlayTime The message sent to a player viewing their own session play time.
@@ -195,6 +201,8 @@ public record Locale(
         String historicalLeaderboardPositionEmpty,
         TimeFormat historicalLeaderboardTimePlaceholder,
         String historicalLeaderboardLoadError,
+        String leaderboardPage,
+        String leaderboardPageError,
         String sessionPlayTime,
         String playerSessionPlayTime,
         TimeFormat sessionPlayTimeTimePlaceholder,
@@ -269,6 +277,10 @@ public record Locale(
         String databaseError,
         String databaseBackupSuccess,
         String databaseBackupError,
+        String databaseBackupProgress,
+        String databaseBackupReport,
+        String databaseRestoreSuccess,
+        String databaseRestoreError,
         String playTimeSaveSuccess,
         String playTimeSaveError,
         String playerExempt,
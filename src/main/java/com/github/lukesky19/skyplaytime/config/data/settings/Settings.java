@@ -18,6 +18,7 @@
 package com.github.lukesky19.skyplaytime.config.data.settings;
 
 import com.github.lukesky19.skylib.libs.configurate.objectmapping.ConfigSerializable;
+import com.github.lukesky19.skyplaytime.util.SaveMode;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -27,11 +28,14 @@ import org.jetbrains.annotations.Nullable;
  * @param locale The locale file to use.
  * @param saveIntervalSeconds How often to save play time to the database.
  * @param backupOnReset Should the database be backed up when any play time category is reset?
- * @param leaderboardSnapshotOnReset Should the current top 10 players on the leaderboard be saved to a file when any play time category is reset?
+ * @param backupIntervalSeconds How often the database is backed up in seconds. 0 or less to disable.
+ * @param leaderboardSnapshotOnReset Should the current top players on the leaderboard be saved to a file when any play time category is reset?
  * @param backupsRemoveOlderThan The cut-off where older backups should be deleted for.
  * @param leaderboardRemoveOlderThan The cut-off where older leaderboard snapshots should be deleted for.
  * @param afkSettings The settings that apply to marking players as AFK.
  * @param resetSettings The settings for automatically resetting play time.
+ * @param leaderboardSettings The settings for how leaderboards are kept and displayed.
+ * @param databaseSettings The settings for how play time is stored in the database.
  * @param lastResetTimes These settings store the last time each play time category was last reset.
  */
 @ConfigSerializable
@@ -40,11 +44,14 @@ public record Settings(
         @Nullable String locale,
         int saveIntervalSeconds,
         boolean backupOnReset,
+        int backupIntervalSeconds,
         boolean leaderboardSnapshotOnReset,
         @Nullable String backupsRemoveOlderThan,
         @Nullable String leaderboardRemoveOlderThan,
         @NotNull AfkSettings afkSettings,
         @NotNull ResetSettings resetSettings,
+        @Nullable LeaderboardSettings leaderboardSettings,
+        @Nullable DatabaseSettings databaseSettings,
         @NotNull LastResetTimes lastResetTimes) {
     /**
      * The settings related to marking players as AFK.
@@ -84,6 +91,66 @@ public record Settings(
             String dayOfWeek,
             int resetHour) {}
 
+    /**
+     * The settings related to how leaderboards are kept and displayed.
+     * @param depth The number of top positions kept in memory for each play time category.
+     * @param pageSize The number of positions shown on each page of the leaderboard command.
+     */
+    @ConfigSerializable
+    public record LeaderboardSettings(
+            int depth,
+            int pageSize) {}
+
+    /**
+     * The settings related to how play time is stored in the database.
+     * @param saveMode How play time is written to the database.
+     * @param sqlite The settings applied to every connection to the SQLite database.
+     * @param sessions The settings for how long player sessions are kept.
+     * @param shutdownTimeoutSeconds How long to wait for unsaved data to be written to the database when the plugin is disabled.
+     * @param slowQueryThresholdMillis Database tasks that run for at least this many milliseconds are logged. 0 or less to disable.
+     */
+    @ConfigSerializable
+    public record DatabaseSettings(
+            @Nullable SaveMode saveMode,
+            @Nullable SqliteSettings sqlite,
+            @Nullable SessionSettings sessions,
+            int shutdownTimeoutSeconds,
+            int slowQueryThresholdMillis) {}
+
+    /**
+     * The settings for how long player sessions are kept in the database.
+     * @param removeOlderThan Sessions older than this are deleted. Example: 180d
+     * @param compactOlderThan Sessions older than this are merged into one record per player per day. Example: 30d
+     */
+    @ConfigSerializable
+    public record SessionSettings(
+            @Nullable String removeOlderThan,
+            @Nullable String compactOlderThan) {}
+
+    /**
+     * The settings applied to every connection to the SQLite database and the database maintenance tasks.
+     * @param journalMode The journal mode to use. One of DELETE, TRUNCATE, PERSIST, MEMORY, WAL, or OFF.
+     * @param synchronous How often SQLite syncs data to the disk. One of OFF, NORMAL, FULL, or EXTRA.
+     * @param mmapSize The maximum number of bytes of the database to memory-map. 0 disables memory-mapped I/O.
+     * @param cacheSizeKib The size of the page cache per connection in kibibytes.
+     * @param tempStore Where temporary tables and indices are stored. One of DEFAULT, FILE, or MEMORY.
+     * @param busyTimeoutMillis How long a connection waits for a lock before failing in milliseconds.
+     * @param checkpointIntervalSeconds How often the write-ahead log is checkpointed and truncated. 0 or less to disable.
+     * @param optimizeIntervalSeconds How often the query planner statistics are optimized. 0 or less to disable.
+     * @param readConnections The number of read-only connections used for lookups and leaderboards. Only used with WAL. 0 to read using the write connection.
+     */
+    @ConfigSerializable
+    public record SqliteSettings(
+            @Nullable String journalMode,
+            @Nullable String synchronous,
+            long mmapSize,
+            int cacheSizeKib,
+            @Nullable String tempStore,
+            int busyTimeoutMillis,
+            int checkpointIntervalSeconds,
+            int optimizeIntervalSeconds,
+            int readConnections) {}
+
     /**
      * This record stores the last time in milliseconds since the epoch that each play time category was reset at.
      * @param daily When was the daily play time category reset in milliseconds since the epoch.
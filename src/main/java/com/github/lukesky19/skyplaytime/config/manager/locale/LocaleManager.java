@@ -59,6 +59,7 @@ public class LocaleManager {
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>reload</yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>help</yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>time <player name> <session | daily | weely | monthly | yearly | total></yellow>",
+                    "<white>/</white><aqua>skyplaytime</aqua> <yellow>leaderboard <session | daily | weekly | monthly | yearly | total> [page <page>]</yellow>",
                     "<white>/</white><aqua>afk</aqua> <yellow>afk [player name]</yellow>",
                     "<white>/</white><aqua>list</aqua>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>add <session | daily | weely | monthly | yearly | total> <player name> <time></yellow>",
@@ -66,12 +67,14 @@ public class LocaleManager {
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>set <session | daily | weely | monthly | yearly | total> <player name> <time></yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>reset <session | daily | weely | monthly | yearly | total> [player name]</yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>backup</yellow>",
+                    "<white>/</white><aqua>skyplaytime</aqua> <yellow>backup restore <backup name></yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>exempt <player name></yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>unexempt <player name></yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>debug status</yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>debug last-move</yellow>",
                     "<white>/</white><aqua>skyplaytime</aqua> <yellow>debug last-action</yellow>",
-                    "<white>/</white><aqua>skyplaytime</aqua> <yellow>debug list</yellow>"),
+                    "<white>/</white><aqua>skyplaytime</aqua> <yellow>debug list</yellow>",
+                    "<white>/</white><aqua>skyplaytime</aqua> <yellow>debug db [reset]</yellow>"),
             "<aqua>The plugin has been reloaded.</aqua>",
             "<gray>You are now afk.</gray>",
             "<gray>You are no longer afk.</gray>",
@@ -85,27 +88,27 @@ public class LocaleManager {
             "<gray><player_name></gray>",
             " <gray>[</gray><white>AFK<white><gray>]</gray>",
             "<gray>, </gray>",
-            "<aqua><bold>Top 10 Players by Session Play Time</bold></aqua>",
+            "<aqua><bold>Top Players by Session Play Time</bold></aqua>",
             "<gray>[</gray><aqua><position></aqua><gray>]</gray> <yellow><player></yellow> <time>",
             "<gray>[</gray><aqua><position></aqua><gray>] ----------</gray>",
             TIME_FORMAT,
-            "<aqua><bold>Top 10 Players by Daily Play Time</bold></aqua>",
+            "<aqua><bold>Top Players by Daily Play Time</bold></aqua>",
             "<gray>[</gray><aqua><position></aqua><gray>]</gray> <yellow><player></yellow> <time>",
             "<gray>[</gray><aqua><position></aqua><gray>] ----------</gray>",
             TIME_FORMAT,
-            "<aqua><bold>Top 10 Players by Weekly Play Time</bold></aqua>",
+            "<aqua><bold>Top Players by Weekly Play Time</bold></aqua>",
             "<gray>[</gray><aqua><position></aqua><gray>]</gray> <yellow><player></yellow> <time>",
             "<gray>[</gray><aqua><position></aqua><gray>] ----------</gray>",
             TIME_FORMAT,
-            "<aqua><bold>Top 10 Players by Monthly Play Time</bold></aqua>",
+            "<aqua><bold>Top Players by Monthly Play Time</bold></aqua>",
             "<gray>[</gray><aqua><position></aqua><gray>]</gray> <yellow><player></yellow> <time>",
             "<gray>[</gray><aqua><position></aqua><gray>] ----------</gray>",
             TIME_FORMAT,
-            "<aqua><bold>Top 10 Players by Yearly Play Time</bold></aqua>",
+            "<aqua><bold>Top Players by Yearly Play Time</bold></aqua>",
             "<gray>[</gray><aqua><position></aqua><gray>]</gray> <yellow><player></yellow> <time>",
             "<gray>[</gray><aqua><position></aqua><gray>] ----------</gray>",
             TIME_FORMAT,
-            "<aqua><bold>Top 10 Players by Total Play Time</bold></aqua>",
+            "<aqua><bold>Top Players by Total Play Time</bold></aqua>",
             "<gray>[</gray><aqua><position></aqua><gray>]</gray> <yellow><player></yellow> <time>",
             "<gray>[</gray><aqua><position></aqua><gray>] ----------</gray>",
             TIME_FORMAT,
@@ -114,6 +117,8 @@ public class LocaleManager {
             "<gray>[</gray><aqua><position></aqua><gray>] ----------</gray>",
             TIME_FORMAT,
             "<red>Failed to load the historical leaderboard from file: <yellow><file_name></yellow></red>",
+            "<gray>Page <yellow><page></yellow>. Use <yellow>/skyplaytime leaderboard <category> page <next_page></yellow> to view the next page.</gray>",
+            "<red>Failed to load the leaderboard page.</red>",
             "<aqua>Your session play time is: <yellow><time></yellow>.</aqua>",
             "<aqua>Player <yellow><player></yellow>'s session play time is: <yellow><time></yellow>.</aqua>",
             TIME_FORMAT,
@@ -188,6 +193,10 @@ public class LocaleManager {
             "<red>The plugin failed to read or write to the database.</red>",
             "<aqua>The database has been successfully backed up!</aqua>",
             "<red>The database failed to be backed up!</red>",
+            "<aqua>Backing up the database... <yellow><progress>%</yellow> after <yellow><time></yellow> seconds.</aqua>",
+            "<aqua>Backed up <yellow><size></yellow> KiB as <yellow><name></yellow> in <yellow><time></yellow> seconds. <yellow><stored></yellow> KiB of new data was stored.</aqua>",
+            "<aqua>Restored backup <yellow><name></yellow> to <yellow><file></yellow>. Stop the server and replace database.db with it to use it.</aqua>",
+            "<red>Failed to restore backup <yellow><name></yellow>.</red>",
             "<aqua>Successfully saved in-memory play-time to the database.</aqua>",
             "<red>Failed to save in-memory play-time to the database.</red>",
             "<aqua>Player <yellow><player></yellow> is now exempt from top playtime placeholders.<aqua>",
@@ -301,6 +310,8 @@ public class LocaleManager {
                 || locale.historicalLeaderboardPositionEmpty() == null
                 || isTimeFormatInvalid(locale.historicalLeaderboardTimePlaceholder())
                 || locale.historicalLeaderboardLoadError() == null
+                || locale.leaderboardPage() == null
+                || locale.leaderboardPageError() == null
                 || locale.sessionPlayTime() == null
                 || locale.playerSessionPlayTime() == null
                 || isTimeFormatInvalid(locale.sessionPlayTimeTimePlaceholder())
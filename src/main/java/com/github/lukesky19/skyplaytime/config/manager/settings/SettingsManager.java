@@ -24,6 +24,7 @@ import com.github.lukesky19.skylib.libs.configurate.ConfigurateException;
 import com.github.lukesky19.skylib.libs.configurate.yaml.YamlConfigurationLoader;
 import com.github.lukesky19.skyplaytime.SkyPlayTime;
 import com.github.lukesky19.skyplaytime.config.data.settings.Settings;
+import com.github.lukesky19.skyplaytime.util.SaveMode;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -33,11 +34,31 @@ import java.nio.file.Path;
 import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.ZoneId;
+import java.util.Set;
 
 /**
  * This class manages the plugin's settings.
  */
 public class SettingsManager {
+    private static final @NotNull Settings.SqliteSettings DEFAULT_SQLITE_SETTINGS = new Settings.SqliteSettings(
+            "WAL",
+            "NORMAL",
+            268435456L,
+            16384,
+            "MEMORY",
+            5000,
+            300,
+            3600,
+            2);
+    private static final @NotNull Settings.SessionSettings DEFAULT_SESSION_SETTINGS = new Settings.SessionSettings("180d", "30d");
+    private static final int DEFAULT_SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final int DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS = 1000;
+    private static final int DEFAULT_LEADERBOARD_DEPTH = 10;
+    private static final int DEFAULT_LEADERBOARD_PAGE_SIZE = 10;
+    private static final @NotNull Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final @NotNull Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final @NotNull Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
     private final @NotNull SkyPlayTime skyPlayTime;
     private Settings settings;
 
@@ -57,6 +78,83 @@ public class SettingsManager {
         return settings;
     }
 
+    /**
+     * Get the {@link SaveMode} to write play time to the database with.
+     * Defaults to {@link SaveMode#ABSOLUTE} if the settings failed to load.
+     * @return The {@link SaveMode} to use.
+     */
+    public @NotNull SaveMode getSaveMode() {
+        if(settings == null || settings.databaseSettings() == null || settings.databaseSettings().saveMode() == null) return SaveMode.ABSOLUTE;
+
+        return settings.databaseSettings().saveMode();
+    }
+
+    /**
+     * Get the {@link Settings.SqliteSettings} to apply to database connections.
+     * Defaults are returned if the settings failed to load or no SQLite settings are configured.
+     * @return The {@link Settings.SqliteSettings} to use.
+     */
+    public @NotNull Settings.SqliteSettings getSqliteSettings() {
+        if(settings == null || settings.databaseSettings() == null || settings.databaseSettings().sqlite() == null) return DEFAULT_SQLITE_SETTINGS;
+
+        return settings.databaseSettings().sqlite();
+    }
+
+    /**
+     * Get how long to wait for unsaved data to be written to the database when the plugin is disabled.
+     * Defaults to 10 seconds if the settings failed to load or the timeout is 0 or less.
+     * @return The timeout in seconds.
+     */
+    public int getShutdownTimeoutSeconds() {
+        if(settings == null || settings.databaseSettings() == null || settings.databaseSettings().shutdownTimeoutSeconds() <= 0) return DEFAULT_SHUTDOWN_TIMEOUT_SECONDS;
+
+        return settings.databaseSettings().shutdownTimeoutSeconds();
+    }
+
+    /**
+     * Get how long a database task may run for in milliseconds before it is logged as slow.
+     * Defaults to 1000 if the settings failed to load.
+     * @return The threshold in milliseconds. 0 or less if slow tasks should not be logged.
+     */
+    public int getSlowQueryThresholdMillis() {
+        if(settings == null || settings.databaseSettings() == null) return DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS;
+
+        return settings.databaseSettings().slowQueryThresholdMillis();
+    }
+
+    /**
+     * Get the {@link Settings.SessionSettings} for how long player sessions are kept.
+     * Defaults are returned if the settings failed to load or no session settings are configured.
+     * @return The {@link Settings.SessionSettings} to use.
+     */
+    public @NotNull Settings.SessionSettings getSessionSettings() {
+        if(settings == null || settings.databaseSettings() == null || settings.databaseSettings().sessions() == null) return DEFAULT_SESSION_SETTINGS;
+
+        return settings.databaseSettings().sessions();
+    }
+
+    /**
+     * Get the number of top positions kept in memory for each play time category.
+     * Defaults to 10 if the settings failed to load or the depth is 0 or less.
+     * @return The leaderboard depth.
+     */
+    public int getLeaderboardDepth() {
+        if(settings == null || settings.leaderboardSettings() == null || settings.leaderboardSettings().depth() <= 0) return DEFAULT_LEADERBOARD_DEPTH;
+
+        return settings.leaderboardSettings().depth();
+    }
+
+    /**
+     * Get the number of positions shown on each page of the leaderboard command.
+     * Defaults to 10 if the settings failed to load or the page size is 0 or less.
+     * @return The leaderboard page size.
+     */
+    public int getLeaderboardPageSize() {
+        if(settings == null || settings.leaderboardSettings() == null || settings.leaderboardSettings().pageSize() <= 0) return DEFAULT_LEADERBOARD_PAGE_SIZE;
+
+        return settings.leaderboardSettings().pageSize();
+    }
+
     /**
      * (Re-)loads the plugin's settings
      */
@@ -141,6 +239,41 @@ public class SettingsManager {
         } catch (IllegalArgumentException e) {
             settings = null;
             logger.error(AdventureUtil.deserialize("Invalid day of week provided in settings.yml. " + e));
+            return;
+        }
+
+        if(settings.leaderboardSettings() != null && (settings.leaderboardSettings().depth() <= 0 || settings.leaderboardSettings().pageSize() <= 0)) {
+            logger.warn(AdventureUtil.deserialize("Invalid leaderboard depth or page size provided in settings.yml. Defaulting to 10."));
+        }
+
+        if(settings.databaseSettings() == null || settings.databaseSettings().saveMode() == null) {
+            logger.warn(AdventureUtil.deserialize("No valid save mode provided in settings.yml. Defaulting to ABSOLUTE."));
+        }
+
+        if(settings.databaseSettings() == null || settings.databaseSettings().sqlite() == null) return;
+        Settings.SqliteSettings sqliteSettings = settings.databaseSettings().sqlite();
+
+        if(sqliteSettings.journalMode() == null || !JOURNAL_MODES.contains(sqliteSettings.journalMode().toUpperCase())) {
+            settings = null;
+            logger.error(AdventureUtil.deserialize("Invalid journal mode provided in settings.yml."));
+            return;
+        }
+
+        if(sqliteSettings.synchronous() == null || !SYNCHRONOUS_MODES.contains(sqliteSettings.synchronous().toUpperCase())) {
+            settings = null;
+            logger.error(AdventureUtil.deserialize("Invalid synchronous mode provided in settings.yml."));
+            return;
+        }
+
+        if(sqliteSettings.tempStore() == null || !TEMP_STORES.contains(sqliteSettings.tempStore().toUpperCase())) {
+            settings = null;
+            logger.error(AdventureUtil.deserialize("Invalid temp store provided in settings.yml."));
+            return;
+        }
+
+        if(sqliteSettings.mmapSize() < 0 || sqliteSettings.cacheSizeKib() <= 0 || sqliteSettings.busyTimeoutMillis() < 0 || sqliteSettings.readConnections() < 0) {
+            settings = null;
+            logger.error(AdventureUtil.deserialize("Invalid mmap size, cache size, busy timeout, or read connections provided in settings.yml."));
         }
     }
 }
@@ -17,24 +17,51 @@
 */
 package com.github.lukesky19.skyplaytime.database;
 
+import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
 import com.github.lukesky19.skylib.api.database.AbstractDatabaseManager;
 import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.database.backup.BackupManager;
+import com.github.lukesky19.skyplaytime.database.backup.DatabaseBackup;
 import com.github.lukesky19.skyplaytime.database.connection.ConnectionManager;
+import com.github.lukesky19.skyplaytime.database.data.ShutdownResult;
+import com.github.lukesky19.skyplaytime.database.migration.MigrationManager;
+import com.github.lukesky19.skyplaytime.database.queue.ConnectionTask;
 import com.github.lukesky19.skyplaytime.database.queue.QueueManager;
+import com.github.lukesky19.skyplaytime.database.queue.QueueMetrics;
+import com.github.lukesky19.skyplaytime.database.table.DailyPlayTimeTable;
 import com.github.lukesky19.skyplaytime.database.table.PlayTimeTable;
+import com.github.lukesky19.skyplaytime.database.table.SessionsTable;
 import com.github.lukesky19.skyplaytime.database.table.VersionsTable;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * This class manages access to database tables, in this case just {@link PlayTimeTable}, and backing up the database.
  */
 public class DatabaseManager extends AbstractDatabaseManager {
-    private final SkyPlayTime skyPlayTime;
+    // How long a final write that already started may run past the shutdown deadline before it is abandoned.
+    private static final long FINAL_WRITE_GRACE_MILLIS = 5000;
+
+    private final ComponentLogger logger;
+    private final ConnectionManager connectionManager;
+    private final QueueManager queueManager;
+    private final BackupManager backupManager;
+    private final MigrationManager migrationManager;
     private final PlayTimeTable playTimeTable;
+    private final DailyPlayTimeTable dailyPlayTimeTable;
+    private final SessionsTable sessionsTable;
 
     /**
      * Get the {@link PlayTimeTable} table.
@@ -44,9 +71,26 @@ public class DatabaseManager extends AbstractDatabaseManager {
         return playTimeTable;
     }
 
+    /**
+     * Get the {@link DailyPlayTimeTable} table.
+     * @return A {@link DailyPlayTimeTable}
+     */
+    public @NotNull DailyPlayTimeTable getDailyPlayTimeTable() {
+        return dailyPlayTimeTable;
+    }
+
+    /**
+     * Get the {@link SessionsTable} table.
+     * @return A {@link SessionsTable}
+     */
+    public @NotNull SessionsTable getSessionsTable() {
+        return sessionsTable;
+    }
+
     /**
      * Constructor
      * Initializes the {@link ConnectionManager}, {@link QueueManager}, and all tables.
+     * The tables must be migrated using {@link #migrateTables()} before they are used.
      * @param skyPlayTime The main plugin's instance.
      * @param connectionManager A {@link ConnectionManager} instance.
      * @param queueManager A {@link QueueManager} instance.
@@ -54,32 +98,180 @@ public class DatabaseManager extends AbstractDatabaseManager {
     public DatabaseManager(@NotNull SkyPlayTime skyPlayTime, @NotNull ConnectionManager connectionManager, @NotNull QueueManager queueManager) {
         super(connectionManager, queueManager);
 
-        this.skyPlayTime = skyPlayTime;
+        this.logger = skyPlayTime.getComponentLogger();
+        this.connectionManager = connectionManager;
+        this.queueManager = queueManager;
+        this.backupManager = new BackupManager(skyPlayTime, connectionManager);
 
         VersionsTable versionsTable = new VersionsTable(queueManager);
-        versionsTable.createTable();
+        migrationManager = new MigrationManager(skyPlayTime, connectionManager, versionsTable);
+
+        playTimeTable = new PlayTimeTable(queueManager);
+        dailyPlayTimeTable = new DailyPlayTimeTable(queueManager);
+        sessionsTable = new SessionsTable(queueManager);
+    }
+
+    /**
+     * Get the {@link QueueMetrics} that record the database queue depth and task latencies.
+     * @return A {@link QueueMetrics} instance.
+     */
+    public @NotNull QueueMetrics getQueueMetrics() {
+        return queueManager.getQueueMetrics();
+    }
 
-        playTimeTable = new PlayTimeTable(queueManager, versionsTable);
-        playTimeTable.createTable();
+    /**
+     * Creates and migrates all tables to their latest version, then loads the current play time periods.
+     * This blocks until all migrations have completed.
+     * @return true if successful, false if any migration failed or the periods could not be loaded.
+     */
+    public boolean migrateTables() {
+        if(!migrationManager.migrate(List.of(playTimeTable, dailyPlayTimeTable, sessionsTable))) return false;
+
+        try {
+            playTimeTable.loadPeriods().join();
+            return true;
+        } catch (CompletionException e) {
+            logger.error(AdventureUtil.deserialize("Failed to load the play time periods: " + e.getMessage()));
+            return false;
+        }
     }
 
     /**
-     * Attempts to back up the database.
-     * @return A {@link CompletableFuture} containing a {@link Boolean} containing true if it succeeds, and false if not.
+     * Starts a backup of the database in the background. The backup is stored as compressed, deduplicated chunks.
+     * Saves continue to be written while the backup is running.
+     * @return The {@link DatabaseBackup} tracking the backup.
      */
-    public @NotNull CompletableFuture<Boolean> backupDatabase() {
-        CompletableFuture<Boolean> resultFuture = new CompletableFuture<>();
+    public @NotNull DatabaseBackup backupDatabase() {
+        return backupManager.backup();
+    }
 
-        // Define the source file path
-        Path sourcePath = Paths.get(skyPlayTime.getDataFolder().toString(), "database.db");
+    /**
+     * Get the names of all stored backups, sorted from oldest to newest.
+     * @return A {@link List} of backup names.
+     */
+    public @NotNull List<@NotNull String> getBackupNames() {
+        return backupManager.getBackupNames();
+    }
+
+    /**
+     * Restores the backup with the name provided to a separate database file. The running database is not replaced.
+     * @param name The name of the backup.
+     * @return A {@link CompletableFuture} containing the {@link Path} to the restored database file.
+     */
+    public @NotNull CompletableFuture<@NotNull Path> restoreBackup(@NotNull String name) {
+        return backupManager.restore(name);
+    }
 
-        super.backupDatabase(sourcePath)
-                .thenAccept(v -> resultFuture.complete(true))
-                .exceptionally(ex -> {
-                    resultFuture.completeExceptionally(ex);
+    /**
+     * Deletes backups created before the cutoff and any backup data that is no longer used.
+     * @param cutoffMillis The cutoff time in milliseconds since the epoch.
+     * @return A {@link CompletableFuture} containing the number of backups deleted.
+     */
+    public @NotNull CompletableFuture<@NotNull Integer> deleteBackupsOlderThan(long cutoffMillis) {
+        return backupManager.deleteOlderThan(cutoffMillis);
+    }
+
+    /**
+     * Checkpoints the write-ahead log into the database and truncates the log file.
+     * @return A {@link CompletableFuture} containing a {@link Boolean}. true if the checkpoint completed, false if it could not complete because the database was busy.
+     */
+    public @NotNull CompletableFuture<@NotNull Boolean> checkpointDatabase() {
+        // The checkpoint writes to the database file, so it runs on the write thread where it can't race a write transaction.
+        return queueManager.queueMaintenanceTask("wal_checkpoint", connection -> {
+            try(Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+                if(resultSet.next()) {
+                    return resultSet.getInt(1) == 0;
+                }
+
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Runs the final write after all queued tasks, then stops the database queues and closes the connection pool.
+     * Queued tasks, the final write, and a running backup are given until the timeout to finish. Anything that has not started by then is abandoned.
+     * A final write that already started is given a short grace period after the timeout, as closing the connection pool under it rolls it back.
+     * If it still hasn't finished, it is abandoned and the play time it would have written is left in the journal.
+     * This blocks until the database is shut down.
+     * @param finalWrite A {@link ConnectionTask} to run in a single transaction after all queued tasks, returning the number of rows written. May be null.
+     * @param timeoutMillis How long to wait for queued tasks and the final write in milliseconds.
+     * @return A {@link ShutdownResult}.
+     */
+    public @NotNull ShutdownResult shutdown(@Nullable ConnectionTask<@NotNull Integer> finalWrite, long timeoutMillis) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        @Nullable CompletableFuture<Integer> finalWriteFuture = finalWrite != null ? queueManager.queueWriteTask("shutdown_flush", finalWrite) : null;
+        int abandonedTasks = queueManager.shutdownConnectionTasks(getRemainingMillis(deadlineNanos));
+        // The final write is either finished, removed from the queue, or still running. A running write holds a pooled connection until it commits.
+        // It can't be waited for from the write thread, as it only runs after the current task.
+        if(finalWriteFuture != null && !finalWriteFuture.isDone() && !queueManager.isConnectionTaskThread()) {
+            try {
+                finalWriteFuture.get(getRemainingMillis(deadlineNanos) + FINAL_WRITE_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Play time in the final write is still in the journal, as it is only truncated once the write commits.
+                logger.warn(AdventureUtil.deserialize("The final write was still running " + FINAL_WRITE_GRACE_MILLIS + " ms after the shutdown deadline and was abandoned. Unsaved play time will be replayed from the journal on the next start."));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | CancellationException ignored) {
+                // Logged below.
+            }
+        }
+        backupManager.shutdown(getRemainingMillis(deadlineNanos));
+        connectionManager.closeReadOnlyPool();
+        // Shuts down the idle executors QueueManager inherits from SkyLib and closes the write connection pool.
+        handlePluginDisable();
+
+        boolean committed = true;
+        int rowsFlushed = 0;
+        if(finalWriteFuture != null) {
+            committed = finalWriteFuture.isDone() && !finalWriteFuture.isCompletedExceptionally();
+
+            if(committed) {
+                rowsFlushed = finalWriteFuture.join();
+            } else if(finalWriteFuture.isCompletedExceptionally()) {
+                finalWriteFuture.exceptionally(throwable -> {
+                    logger.error(AdventureUtil.deserialize("The final write failed on shutdown: " + throwable.getMessage()));
                     return null;
                 });
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        ShutdownResult shutdownResult = new ShutdownResult(committed, rowsFlushed, elapsedMillis, abandonedTasks);
+
+        if(committed && abandonedTasks == 0) {
+            logger.info(AdventureUtil.deserialize("Flushed " + rowsFlushed + " rows to the database in " + elapsedMillis + " ms on shutdown."));
+        } else {
+            logger.warn(AdventureUtil.deserialize("The database did not finish flushing within " + timeoutMillis + " ms on shutdown. " +
+                    "Final write committed: " + committed + ", rows flushed: " + rowsFlushed + ", queued tasks abandoned: " + abandonedTasks + ", time taken: " + elapsedMillis + " ms."));
+        }
+
+        return shutdownResult;
+    }
+
+    /**
+     * Get the number of milliseconds left until the deadline.
+     * @param deadlineNanos The deadline from {@link System#nanoTime()}.
+     * @return The milliseconds left, or 0 if the deadline has passed.
+     */
+    private long getRemainingMillis(long deadlineNanos) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Runs PRAGMA optimize so that SQLite can update the query planner statistics for tables that need it.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> optimizeDatabase() {
+        return queueManager.queueMaintenanceTask("optimize", connection -> {
+            try(Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA optimize");
+            }
 
-        return resultFuture;
+            return null;
+        });
     }
 }
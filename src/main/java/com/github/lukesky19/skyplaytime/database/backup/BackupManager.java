@@ -0,0 +1,214 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.backup;
+
+import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.database.connection.ConnectionManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class backs up the database on its own thread and connection.
+ * A snapshot of the database is written using VACUUM INTO, which reads a consistent view including changes in the write-ahead log, so the database queue is not blocked while it runs.
+ * The snapshot is then stored in a {@link ChunkStore} and deleted.
+ */
+public class BackupManager {
+    private static final @NotNull DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+
+    private final @NotNull ConnectionManager connectionManager;
+    private final @NotNull Path backupDirectory;
+    private final @NotNull ChunkStore chunkStore;
+    private final @NotNull ExecutorService backupExecutor;
+    private @Nullable DatabaseBackup currentBackup;
+
+    /**
+     * Constructor
+     * @param skyPlayTime The plugin's main instance.
+     * @param connectionManager A {@link ConnectionManager} instance.
+     */
+    public BackupManager(@NotNull SkyPlayTime skyPlayTime, @NotNull ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+        this.backupDirectory = skyPlayTime.getDataFolder().toPath().resolve("backup_store");
+        this.chunkStore = new ChunkStore(backupDirectory);
+        this.backupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SkyPlayTime-Backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a backup of the database in the background.
+     * If a backup is already running, the running {@link DatabaseBackup} is returned instead of starting another.
+     * @return The {@link DatabaseBackup} tracking the backup.
+     */
+    public synchronized @NotNull DatabaseBackup backup() {
+        if(currentBackup != null && !currentBackup.isDone()) return currentBackup;
+
+        String name = "database-" + LocalDateTime.now().format(FILE_NAME_FORMATTER);
+        DatabaseBackup backup = new DatabaseBackup(name, backupDirectory.resolve(name + ".db.tmp"));
+        currentBackup = backup;
+
+        try {
+            backupExecutor.execute(() -> runBackup(backup));
+        } catch (RuntimeException e) {
+            backup.fail(e);
+        }
+
+        return backup;
+    }
+
+    /**
+     * Get the backup that is currently running.
+     * @return The running {@link DatabaseBackup} or null if no backup is running.
+     */
+    public synchronized @Nullable DatabaseBackup getCurrentBackup() {
+        if(currentBackup != null && !currentBackup.isDone()) return currentBackup;
+
+        return null;
+    }
+
+    /**
+     * Get the names of all stored backups, sorted from oldest to newest.
+     * @return A {@link List} of backup names.
+     */
+    public @NotNull List<@NotNull String> getBackupNames() {
+        return chunkStore.getBackupNames();
+    }
+
+    /**
+     * Restores the backup with the name provided to a database file in the restored directory.
+     * The running database is not replaced. The restored file can be swapped in while the server is stopped.
+     * @param name The name of the backup.
+     * @return A {@link CompletableFuture} containing the {@link Path} to the restored database file.
+     */
+    public @NotNull CompletableFuture<@NotNull Path> restore(@NotNull String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            Path target = backupDirectory.resolve("restored").resolve(name + ".db");
+
+            try {
+                chunkStore.restore(name, target);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            return target;
+        }, backupExecutor);
+    }
+
+    /**
+     * Deletes backups created before the cutoff and any chunks that are no longer used.
+     * This runs on the backup thread so that it never deletes chunks used by a backup in progress.
+     * @param cutoffMillis The cutoff time in milliseconds since the epoch.
+     * @return A {@link CompletableFuture} containing the number of backups deleted.
+     */
+    public @NotNull CompletableFuture<@NotNull Integer> deleteOlderThan(long cutoffMillis) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return chunkStore.deleteOlderThan(cutoffMillis);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, backupExecutor);
+    }
+
+    /**
+     * Stops accepting new backups and waits up to the timeout for a running backup to finish.
+     * @param timeoutMillis How long to wait in milliseconds.
+     */
+    public void shutdown(long timeoutMillis) {
+        backupExecutor.shutdown();
+
+        try {
+            if(!backupExecutor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                backupExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            backupExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the database using VACUUM INTO and stores it in the {@link ChunkStore}. This blocks until the backup has finished.
+     * @param backup The {@link DatabaseBackup} to write.
+     */
+    private void runBackup(@NotNull DatabaseBackup backup) {
+        Path snapshotPath = backup.getSnapshotPath();
+
+        try {
+            Files.createDirectories(backupDirectory);
+            Files.deleteIfExists(snapshotPath);
+
+            try(Connection connection = connectionManager.getPooledConnection()) {
+                backup.setExpectedBytes(getDatabaseSize(connection));
+
+                try(PreparedStatement statement = connection.prepareStatement("VACUUM INTO ?")) {
+                    statement.setString(1, snapshotPath.toString());
+                    statement.execute();
+                }
+            }
+
+            backup.setSnapshotBytes(Files.size(snapshotPath));
+            long newBytes = chunkStore.store(snapshotPath, backup.getName(), backup::setStoredBytes);
+
+            backup.complete(newBytes);
+        } catch (IOException | SQLException | RuntimeException e) {
+            backup.fail(e);
+        } finally {
+            try {
+                Files.deleteIfExists(snapshotPath);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    /**
+     * Get the size of the database in bytes using the page count and page size.
+     * @param connection The {@link Connection} to the database.
+     * @return The size of the database in bytes.
+     * @throws SQLException if the size could not be read.
+     */
+    private long getDatabaseSize(@NotNull Connection connection) throws SQLException {
+        try(Statement statement = connection.createStatement()) {
+            long pageCount;
+            try(ResultSet resultSet = statement.executeQuery("PRAGMA page_count")) {
+                pageCount = resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+
+            try(ResultSet resultSet = statement.executeQuery("PRAGMA page_size")) {
+                return resultSet.next() ? pageCount * resultSet.getLong(1) : 0;
+            }
+        }
+    }
+}
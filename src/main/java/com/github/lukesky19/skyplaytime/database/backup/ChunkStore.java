@@ -0,0 +1,323 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.backup;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class stores database backups as deduplicated, compressed chunks.
+ * A database file is split into fixed-size chunks that are identified by their SHA-256 hash.
+ * Each unique chunk is stored once using gzip compression, and each backup is a small manifest listing the hashes of its chunks.
+ * Pages that did not change between backups are not stored again.
+ * <p>
+ * This class is not thread-safe. All calls are made from the {@link BackupManager}'s thread.
+ */
+public class ChunkStore {
+    private static final @NotNull String MANIFEST_HEADER = "skyplaytime-backup 1";
+    private static final @NotNull String MANIFEST_EXTENSION = ".manifest";
+    private static final @NotNull String CHUNK_EXTENSION = ".gz";
+    // A multiple of every SQLite page size so that chunks always contain whole pages.
+    private static final int CHUNK_SIZE = 65536;
+
+    private final @NotNull Path chunksDirectory;
+    private final @NotNull Path manifestsDirectory;
+
+    /**
+     * Constructor
+     * @param directory The {@link Path} to the directory the store is in.
+     */
+    public ChunkStore(@NotNull Path directory) {
+        this.chunksDirectory = directory.resolve("chunks");
+        this.manifestsDirectory = directory.resolve("manifests");
+    }
+
+    /**
+     * Stores the file provided as a backup with the name provided.
+     * @param source The {@link Path} to the file to store.
+     * @param name The name of the backup.
+     * @param progressConsumer A {@link LongConsumer} that is given the number of bytes processed after each chunk.
+     * @return The number of compressed bytes written for chunks that were not already stored.
+     * @throws IOException if the file could not be read or the backup could not be written.
+     */
+    public long store(@NotNull Path source, @NotNull String name, @NotNull LongConsumer progressConsumer) throws IOException {
+        Files.createDirectories(chunksDirectory);
+        Files.createDirectories(manifestsDirectory);
+
+        MessageDigest digest = createDigest();
+        List<String> hashes = new ArrayList<>();
+        byte[] chunk = new byte[CHUNK_SIZE];
+        long size = 0;
+        long storedBytes = 0;
+
+        try(InputStream inputStream = Files.newInputStream(source)) {
+            int length;
+            while((length = inputStream.readNBytes(chunk, 0, CHUNK_SIZE)) > 0) {
+                digest.update(chunk, 0, length);
+                String hash = HexFormat.of().formatHex(digest.digest());
+                hashes.add(hash);
+
+                Path chunkPath = getChunkPath(hash);
+                if(!Files.exists(chunkPath)) {
+                    storedBytes += writeChunk(chunkPath, chunk, length);
+                }
+
+                size += length;
+                progressConsumer.accept(size);
+            }
+        }
+
+        List<String> lines = new ArrayList<>(hashes.size() + 4);
+        lines.add(MANIFEST_HEADER);
+        lines.add("created " + System.currentTimeMillis());
+        lines.add("size " + size);
+        lines.add("chunk-size " + CHUNK_SIZE);
+        lines.addAll(hashes);
+
+        Path manifestPath = getManifestPath(name);
+        Path tempPath = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+        Files.write(tempPath, lines, StandardCharsets.UTF_8);
+        Files.move(tempPath, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return storedBytes;
+    }
+
+    /**
+     * Reassembles the backup with the name provided into a database file.
+     * Every chunk is verified against its hash.
+     * @param name The name of the backup.
+     * @param target The {@link Path} to write the database file to.
+     * @throws IOException if the backup doesn't exist, is corrupted, or the file could not be written.
+     */
+    public void restore(@NotNull String name, @NotNull Path target) throws IOException {
+        if(!hasBackup(name)) throw new IOException("No backup named " + name);
+
+        Manifest manifest = readManifest(name);
+        long size = manifest.size();
+        MessageDigest digest = createDigest();
+
+        Path parent = target.toAbsolutePath().getParent();
+        if(parent != null) Files.createDirectories(parent);
+        Path tempPath = target.resolveSibling(target.getFileName() + ".tmp");
+
+        long written = 0;
+        try(OutputStream outputStream = Files.newOutputStream(tempPath)) {
+            for(String hash : manifest.hashes()) {
+                byte[] chunk;
+                try(InputStream inputStream = new GZIPInputStream(Files.newInputStream(getChunkPath(hash)))) {
+                    chunk = inputStream.readAllBytes();
+                }
+
+                if(!HexFormat.of().formatHex(digest.digest(chunk)).equals(hash)) throw new IOException("Chunk " + hash + " is corrupted.");
+
+                outputStream.write(chunk);
+                written += chunk.length;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+
+        if(written != size) {
+            Files.deleteIfExists(tempPath);
+            throw new IOException("Backup " + name + " is incomplete. Expected " + size + " bytes but restored " + written + " bytes.");
+        }
+
+        Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Get the names of all stored backups, sorted from oldest to newest by name.
+     * @return A {@link List} of backup names.
+     */
+    public @NotNull List<@NotNull String> getBackupNames() {
+        if(!Files.isDirectory(manifestsDirectory)) return List.of();
+
+        try(Stream<Path> paths = Files.list(manifestsDirectory)) {
+            return paths.map(path -> path.getFileName().toString())
+                    .filter(fileName -> fileName.endsWith(MANIFEST_EXTENSION))
+                    .map(fileName -> fileName.substring(0, fileName.length() - MANIFEST_EXTENSION.length()))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Deletes backups created before the cutoff, then deletes any chunks no longer used by a backup.
+     * The creation time is read from the manifest, as file creation times are not available on every file system.
+     * @param cutoffMillis The cutoff time in milliseconds since the epoch.
+     * @return The number of backups that were deleted.
+     * @throws IOException if the store could not be read or a file could not be deleted.
+     */
+    public int deleteOlderThan(long cutoffMillis) throws IOException {
+        if(!Files.isDirectory(manifestsDirectory)) return 0;
+
+        int deleted = 0;
+        Set<String> usedHashes = new HashSet<>();
+        for(String name : getBackupNames()) {
+            Manifest manifest = readManifest(name);
+
+            if(manifest.createdMillis() < cutoffMillis) {
+                Files.delete(getManifestPath(name));
+                deleted++;
+            } else {
+                usedHashes.addAll(manifest.hashes());
+            }
+        }
+
+        if(deleted > 0 && Files.isDirectory(chunksDirectory)) {
+            try(Stream<Path> paths = Files.walk(chunksDirectory)) {
+                for(Path path : paths.filter(Files::isRegularFile).toList()) {
+                    String fileName = path.getFileName().toString();
+                    String hash = fileName.substring(0, fileName.length() - CHUNK_EXTENSION.length());
+
+                    if(!usedHashes.contains(hash)) Files.delete(path);
+                }
+            }
+        }
+
+        return deleted;
+    }
+
+    /**
+     * Checks if a backup with the name provided exists.
+     * @param name The name of the backup.
+     * @return true if it exists, false if not.
+     */
+    public boolean hasBackup(@NotNull String name) {
+        return isValidName(name) && Files.isRegularFile(getManifestPath(name));
+    }
+
+    /**
+     * Checks if the name provided can be used for a backup. Only letters, numbers, dashes, and underscores are allowed.
+     * @param name The name to check.
+     * @return true if valid, false if not.
+     */
+    public static boolean isValidName(@NotNull String name) {
+        return name.matches("[A-Za-z0-9_-]+");
+    }
+
+    /**
+     * Compresses and writes a chunk. It is written to a temporary file first so that a partially written chunk is never used.
+     * @param chunkPath The {@link Path} to write the chunk to.
+     * @param chunk The chunk's bytes.
+     * @param length The number of bytes in the chunk.
+     * @return The number of compressed bytes written.
+     * @throws IOException if the chunk could not be written.
+     */
+    private long writeChunk(@NotNull Path chunkPath, byte[] chunk, int length) throws IOException {
+        Files.createDirectories(chunkPath.getParent());
+        Path tempPath = chunkPath.resolveSibling(chunkPath.getFileName() + ".tmp");
+
+        try(OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(tempPath))) {
+            outputStream.write(chunk, 0, length);
+        }
+
+        long compressedBytes = Files.size(tempPath);
+        Files.move(tempPath, chunkPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return compressedBytes;
+    }
+
+    /**
+     * Get the {@link Path} for a chunk. Chunks are split into directories by the first two characters of their hash.
+     * @param hash The hash of the chunk.
+     * @return The {@link Path} to the chunk.
+     */
+    private @NotNull Path getChunkPath(@NotNull String hash) {
+        return chunksDirectory.resolve(hash.substring(0, 2)).resolve(hash + CHUNK_EXTENSION);
+    }
+
+    /**
+     * Reads the manifest of the backup with the name provided.
+     * @param name The name of the backup.
+     * @return The {@link Manifest}.
+     * @throws IOException if the manifest could not be read or is invalid.
+     */
+    private @NotNull Manifest readManifest(@NotNull String name) throws IOException {
+        List<String> lines = Files.readAllLines(getManifestPath(name), StandardCharsets.UTF_8);
+        if(lines.size() < 4 || !lines.getFirst().equals(MANIFEST_HEADER)) throw new IOException("Invalid backup manifest " + name);
+
+        long createdMillis = parseValue(lines.get(1), "created ", name);
+        long size = parseValue(lines.get(2), "size ", name);
+        // The chunk size line follows the size line.
+        return new Manifest(createdMillis, size, lines.subList(4, lines.size()));
+    }
+
+    /**
+     * Parses the number after the prefix provided in a manifest line.
+     * @param line The manifest line.
+     * @param prefix The prefix before the number.
+     * @param name The name of the backup, used in the error message.
+     * @return The number.
+     * @throws IOException if the line does not start with the prefix or the number is invalid.
+     */
+    private static long parseValue(@NotNull String line, @NotNull String prefix, @NotNull String name) throws IOException {
+        if(!line.startsWith(prefix)) throw new IOException("Invalid backup manifest " + name);
+
+        try {
+            return Long.parseLong(line.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid backup manifest " + name, e);
+        }
+    }
+
+    /**
+     * Get the {@link Path} for a backup's manifest.
+     * @param name The name of the backup.
+     * @return The {@link Path} to the manifest.
+     */
+    private @NotNull Path getManifestPath(@NotNull String name) {
+        return manifestsDirectory.resolve(name + MANIFEST_EXTENSION);
+    }
+
+    /**
+     * Creates a SHA-256 {@link MessageDigest}.
+     * @return A {@link MessageDigest}.
+     */
+    private static @NotNull MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * This record contains the contents of a backup manifest.
+     * @param createdMillis When the backup was created in milliseconds since the epoch.
+     * @param size The size of the database file in bytes.
+     * @param hashes The hashes of the backup's chunks, in order.
+     */
+    private record Manifest(long createdMillis, long size, @NotNull List<@NotNull String> hashes) {}
+}
@@ -0,0 +1,154 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.backup;
+
+import com.github.lukesky19.skyplaytime.database.data.BackupResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class tracks a database backup that is running in the background.
+ * A backup first writes a snapshot of the database, then stores the snapshot in the {@link ChunkStore}.
+ */
+public class DatabaseBackup {
+    private final @NotNull String name;
+    private final @NotNull Path snapshotPath;
+    private final long startMillis = System.currentTimeMillis();
+    private final @NotNull CompletableFuture<@NotNull BackupResult> future = new CompletableFuture<>();
+    private volatile long expectedBytes = 0;
+    private volatile long snapshotBytes = 0;
+    private volatile long storedBytes = 0;
+
+    /**
+     * Constructor
+     * @param name The name of the backup.
+     * @param snapshotPath The {@link Path} the snapshot of the database is written to.
+     */
+    public DatabaseBackup(@NotNull String name, @NotNull Path snapshotPath) {
+        this.name = name;
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Get the name of the backup.
+     * @return The name of the backup.
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Get the {@link Path} the snapshot of the database is written to.
+     * @return The {@link Path} to the snapshot.
+     */
+    public @NotNull Path getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    /**
+     * Get the {@link CompletableFuture} that completes with a {@link BackupResult} once the backup has finished.
+     * It completes exceptionally if the backup fails.
+     * @return A {@link CompletableFuture} containing a {@link BackupResult}.
+     */
+    public @NotNull CompletableFuture<@NotNull BackupResult> getFuture() {
+        return future;
+    }
+
+    /**
+     * Checks if the backup has finished, successfully or not.
+     * @return true if finished, false if not.
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Get how long the backup has been running in milliseconds.
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return System.currentTimeMillis() - startMillis;
+    }
+
+    /**
+     * Get the progress of the backup as a percentage from 0 to 100.
+     * Writing the snapshot is the first half and is estimated from the size of the snapshot compared to the size of the database.
+     * Storing the snapshot's chunks is the second half.
+     * @return The progress of the backup.
+     */
+    public int getProgress() {
+        if(future.isDone()) return 100;
+
+        if(snapshotBytes > 0) {
+            return (int) Math.min(99, 50 + storedBytes * 50 / snapshotBytes);
+        }
+
+        if(expectedBytes <= 0) return 0;
+
+        try {
+            long writtenBytes = Files.exists(snapshotPath) ? Files.size(snapshotPath) : 0;
+            return (int) Math.min(49, writtenBytes * 50 / expectedBytes);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the size of the database being backed up in bytes, used to estimate progress.
+     * @param expectedBytes The size of the database in bytes.
+     */
+    void setExpectedBytes(long expectedBytes) {
+        this.expectedBytes = expectedBytes;
+    }
+
+    /**
+     * Sets the size of the completed snapshot in bytes, which starts the second half of the backup.
+     * @param snapshotBytes The size of the snapshot in bytes.
+     */
+    void setSnapshotBytes(long snapshotBytes) {
+        this.snapshotBytes = snapshotBytes;
+    }
+
+    /**
+     * Sets the number of bytes of the snapshot that have been stored.
+     * @param storedBytes The number of bytes stored.
+     */
+    void setStoredBytes(long storedBytes) {
+        this.storedBytes = storedBytes;
+    }
+
+    /**
+     * Completes the backup.
+     * @param newBytes The number of compressed bytes written for chunks that were not already stored.
+     */
+    void complete(long newBytes) {
+        future.complete(new BackupResult(name, snapshotBytes, newBytes, getElapsedMillis()));
+    }
+
+    /**
+     * Completes the backup exceptionally.
+     * @param throwable The {@link Throwable} that caused the backup to fail.
+     */
+    void fail(@NotNull Throwable throwable) {
+        future.completeExceptionally(throwable);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * This class converts {@link UUID}s to and from the 16-byte BLOBs stored in the database.
+ */
+public final class UUIDCodec {
+    /**
+     * Constructor. This class only has static methods and should not be created.
+     */
+    private UUIDCodec() {}
+
+    /**
+     * Converts a {@link UUID} to 16 bytes in big-endian order.
+     * @param uuid The {@link UUID} to convert.
+     * @return A byte array of length 16.
+     */
+    public static byte @NotNull [] toBytes(@NotNull UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Converts 16 bytes in big-endian order to a {@link UUID}.
+     * @param bytes The byte array to convert.
+     * @return The {@link UUID}.
+     * @throws IllegalArgumentException if the byte array is not 16 bytes long.
+     */
+    public static @NotNull UUID fromBytes(byte @NotNull [] bytes) {
+        if(bytes.length != 16) throw new IllegalArgumentException("A UUID must be 16 bytes, got " + bytes.length + ".");
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Binds a {@link UUID} to a {@link PreparedStatement} parameter as a 16-byte BLOB.
+     * @param statement The {@link PreparedStatement}.
+     * @param index The parameter index, starting at 1.
+     * @param uuid The {@link UUID} to bind.
+     * @throws SQLException if the parameter could not be set.
+     */
+    public static void bind(@NotNull PreparedStatement statement, int index, @NotNull UUID uuid) throws SQLException {
+        statement.setBytes(index, toBytes(uuid));
+    }
+
+    /**
+     * Reads a {@link UUID} stored as a 16-byte BLOB from the current row of a {@link ResultSet}.
+     * @param resultSet The {@link ResultSet}.
+     * @param columnName The name of the column.
+     * @return The {@link UUID}.
+     * @throws SQLException if the column could not be read.
+     */
+    public static @NotNull UUID read(@NotNull ResultSet resultSet, @NotNull String columnName) throws SQLException {
+        return fromBytes(resultSet.getBytes(columnName));
+    }
+}
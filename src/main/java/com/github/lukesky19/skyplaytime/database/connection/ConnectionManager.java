@@ -21,25 +21,57 @@ import com.github.lukesky19.skylib.api.database.connection.AbstractConnectionMan
 import com.github.lukesky19.skylib.libs.hikaricp.HikariConfig;
 import com.github.lukesky19.skylib.libs.hikaricp.HikariDataSource;
 import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.config.data.settings.Settings;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
 
 /**
  * This class is used to manage connections to the database.
+ * In addition to the connection pool used for writes, a separate read-only connection pool is created when the database uses WAL, so reads never wait on writes.
  */
 public class ConnectionManager extends AbstractConnectionManager {
+    // SQLITE_OPEN_READONLY
+    private static final int OPEN_READ_ONLY = 0x00000001;
+
+    // This field has no initializer as it is assigned while the super constructor is running.
+    private @Nullable HikariDataSource dataSource;
+    private final @Nullable HikariDataSource readOnlyDataSource;
+    private final int readOnlyPoolSize;
+
     /**
      * Constructor
      * @param skyPlayTime The plugin's main instance.
      */
     public ConnectionManager(@NotNull SkyPlayTime skyPlayTime) {
         super(skyPlayTime);
+
+        // Without WAL, readers block the writer anyway, so all work uses the pool above.
+        Settings.SqliteSettings sqliteSettings = skyPlayTime.getSettingsManager().getSqliteSettings();
+        if("WAL".equalsIgnoreCase(sqliteSettings.journalMode()) && sqliteSettings.readConnections() > 0) {
+            readOnlyPoolSize = sqliteSettings.readConnections();
+            readOnlyDataSource = createReadOnlyDataSource(skyPlayTime, sqliteSettings, readOnlyPoolSize);
+        } else {
+            readOnlyPoolSize = 0;
+            readOnlyDataSource = null;
+        }
+    }
+
+    /**
+     * Get the number of connections in the read-only connection pool.
+     * @return The number of connections, or 0 if there is no read-only connection pool.
+     */
+    public int getReadOnlyPoolSize() {
+        return readOnlyPoolSize;
     }
 
     /**
      * Creates the required {@link HikariConfig} to access the database and returns the {@link HikariDataSource}.
+     * The configured SQLite pragmas are applied to every pooled connection.
      * @param plugin The {@link Plugin} implementing and making use of this class.
      * @return A {@link HikariDataSource} object.
      */
@@ -48,6 +80,88 @@ public class ConnectionManager extends AbstractConnectionManager {
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl("jdbc:sqlite:" +  plugin.getDataFolder().getAbsolutePath() + File.separator + "database.db");
         config.setAutoCommit(true);
+
+        // This is called from the super constructor, so the settings are retrieved from the plugin instead of a field.
+        if(plugin instanceof SkyPlayTime skyPlayTime) {
+            applySqliteSettings(config, skyPlayTime.getSettingsManager().getSqliteSettings());
+        }
+
+        dataSource = new HikariDataSource(config);
+        return dataSource;
+    }
+
+    /**
+     * Get a {@link Connection} from the connection pool for work that can't be expressed through the {@link com.github.lukesky19.skyplaytime.database.queue.QueueManager}.
+     * The caller is responsible for closing the {@link Connection}, which returns it to the pool.
+     * @return A {@link Connection} to the database.
+     * @throws SQLException if the connection pool has not been created or a connection could not be obtained.
+     */
+    public @NotNull Connection getPooledConnection() throws SQLException {
+        if(dataSource == null) throw new SQLException("The connection pool has not been created.");
+
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Get a read-only {@link Connection} from the read-only connection pool.
+     * The caller is responsible for closing the {@link Connection}, which returns it to the pool.
+     * @return A read-only {@link Connection} to the database.
+     * @throws SQLException if there is no read-only connection pool or a connection could not be obtained.
+     */
+    public @NotNull Connection getReadOnlyConnection() throws SQLException {
+        if(readOnlyDataSource == null) throw new SQLException("The read-only connection pool has not been created.");
+
+        return readOnlyDataSource.getConnection();
+    }
+
+    /**
+     * Closes the read-only connection pool if it was created.
+     */
+    public void closeReadOnlyPool() {
+        if(readOnlyDataSource != null && !readOnlyDataSource.isClosed()) {
+            readOnlyDataSource.close();
+        }
+    }
+
+    /**
+     * Creates the read-only connection pool. Connections are opened with SQLITE_OPEN_READONLY and query_only enabled.
+     * @param plugin The {@link Plugin} implementing and making use of this class.
+     * @param sqliteSettings The {@link Settings.SqliteSettings} to apply.
+     * @param poolSize The number of connections in the pool.
+     * @return A {@link HikariDataSource} object.
+     */
+    private @NotNull HikariDataSource createReadOnlyDataSource(@NotNull Plugin plugin, @NotNull Settings.SqliteSettings sqliteSettings, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("SkyPlayTime-ReadOnly");
+        config.setJdbcUrl("jdbc:sqlite:" +  plugin.getDataFolder().getAbsolutePath() + File.separator + "database.db");
+        config.setAutoCommit(true);
+        config.setReadOnly(true);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+
+        config.addDataSourceProperty("open_mode", String.valueOf(OPEN_READ_ONLY));
+        // The journal mode and synchronous setting can only be changed by the write connections.
+        if(sqliteSettings.tempStore() != null) config.addDataSourceProperty("temp_store", sqliteSettings.tempStore().toUpperCase());
+        config.addDataSourceProperty("mmap_size", String.valueOf(sqliteSettings.mmapSize()));
+        config.addDataSourceProperty("cache_size", String.valueOf(-sqliteSettings.cacheSizeKib()));
+        config.addDataSourceProperty("busy_timeout", String.valueOf(sqliteSettings.busyTimeoutMillis()));
+        config.setConnectionInitSql("PRAGMA query_only = 1");
+
         return new HikariDataSource(config);
     }
+
+    /**
+     * Adds the SQLite pragmas as data source properties so the driver applies them when each connection is opened.
+     * @param config The {@link HikariConfig} to add the properties to.
+     * @param sqliteSettings The {@link Settings.SqliteSettings} to apply.
+     */
+    private void applySqliteSettings(@NotNull HikariConfig config, @NotNull Settings.SqliteSettings sqliteSettings) {
+        if(sqliteSettings.journalMode() != null) config.addDataSourceProperty("journal_mode", sqliteSettings.journalMode().toUpperCase());
+        if(sqliteSettings.synchronous() != null) config.addDataSourceProperty("synchronous", sqliteSettings.synchronous().toUpperCase());
+        if(sqliteSettings.tempStore() != null) config.addDataSourceProperty("temp_store", sqliteSettings.tempStore().toUpperCase());
+        config.addDataSourceProperty("mmap_size", String.valueOf(sqliteSettings.mmapSize()));
+        // A negative cache size is interpreted by SQLite as a size in kibibytes instead of pages.
+        config.addDataSourceProperty("cache_size", String.valueOf(-sqliteSettings.cacheSizeKib()));
+        config.addDataSourceProperty("busy_timeout", String.valueOf(sqliteSettings.busyTimeoutMillis()));
+    }
 }
@@ -0,0 +1,29 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.data;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This record contains the result of a completed database backup.
+ * @param name The name of the backup.
+ * @param sizeBytes The size of the backed up database in bytes.
+ * @param storedBytes The number of compressed bytes written for chunks that were not already stored.
+ * @param durationMillis How long the backup took in milliseconds.
+ */
+public record BackupResult(@NotNull String name, long sizeBytes, long storedBytes, long durationMillis) {}
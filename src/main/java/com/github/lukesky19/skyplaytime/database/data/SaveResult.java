@@ -0,0 +1,40 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This record contains the result of a bulk save of player data.
+ * @param updated The number of rows that were written to the database.
+ * @param skipped The number of players that were skipped because their data did not change since the last save.
+ * @param failed The number of rows that were expected to be written but were not.
+ * @param saved The {@link UUID}s of the players whose rows were written to the database.
+ */
+public record SaveResult(int updated, int skipped, int failed, @NotNull List<@NotNull UUID> saved) {
+    /**
+     * Checks if the save completed without any failed rows.
+     * @return true if no rows failed to save, otherwise false.
+     */
+    public boolean isSuccessful() {
+        return failed == 0;
+    }
+}
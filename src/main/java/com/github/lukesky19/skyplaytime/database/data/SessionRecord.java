@@ -0,0 +1,41 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * This record contains a player's session, from when they joined to when they left.
+ * Sessions that were compacted cover all sessions of the player on the same day.
+ * @param uuid The {@link UUID} of the player.
+ * @param startTime When the session started in milliseconds since the epoch.
+ * @param endTime When the session ended in milliseconds since the epoch.
+ * @param activeSeconds The number of seconds the player was not AFK.
+ * @param afkSeconds The number of seconds the player was AFK.
+ * @param sessions The number of sessions the record covers. 1 unless the record was compacted.
+ */
+public record SessionRecord(
+        @NotNull UUID uuid,
+        long startTime,
+        long endTime,
+        long activeSeconds,
+        long afkSeconds,
+        int sessions) {
+}
@@ -0,0 +1,27 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.data;
+
+/**
+ * This record contains the result of flushing and shutting down the database.
+ * @param committed Whether the final write was committed. true if there was no final write.
+ * @param rowsFlushed The number of rows written by the final write.
+ * @param elapsedMillis How long the flush and shutdown took in milliseconds.
+ * @param abandonedTasks The number of queued database tasks that did not run before the deadline.
+ */
+public record ShutdownResult(boolean committed, int rowsFlushed, long elapsedMillis, int abandonedTasks) {}
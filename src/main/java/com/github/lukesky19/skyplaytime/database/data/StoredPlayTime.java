@@ -0,0 +1,57 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.data;
+
+import com.github.lukesky19.skyplaytime.util.TimeCategory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This record contains the play time of a player as it is stored in the database.
+ * @param name The player's name.
+ * @param daily The daily play time in seconds.
+ * @param weekly The weekly play time in seconds.
+ * @param monthly The monthly play time in seconds.
+ * @param yearly The yearly play time in seconds.
+ * @param total The total play time in seconds.
+ * @param exempt Is the player exempt from leaderboard reporting?
+ */
+public record StoredPlayTime(
+        @NotNull String name,
+        long daily,
+        long weekly,
+        long monthly,
+        long yearly,
+        long total,
+        boolean exempt) {
+    /**
+     * Gets the stored play time in seconds for the provided {@link TimeCategory}.
+     * {@link TimeCategory#SESSION} is always 0 as sessions are not stored.
+     * @param timeCategory The {@link TimeCategory} to get play time for.
+     * @return The play time in seconds.
+     */
+    public long getPlayTime(@NotNull TimeCategory timeCategory) {
+        return switch (timeCategory) {
+            case SESSION -> 0;
+            case DAILY -> daily;
+            case WEEKLY -> weekly;
+            case MONTHLY -> monthly;
+            case YEARLY -> yearly;
+            case TOTAL, ALL -> total;
+        };
+    }
+}
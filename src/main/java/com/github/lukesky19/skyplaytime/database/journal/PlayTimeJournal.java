@@ -0,0 +1,365 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.journal;
+
+import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class manages a memory-mapped ring journal of play time gained between database saves.
+ * Appending a record only writes to the mapped memory, so no system call is made per record.
+ * The operating system writes the mapped pages to disk, so the journal survives the server process being killed.
+ * <p>
+ * The journal starts with a header containing a magic number, the sequence number of the oldest record, and the number of records it can hold.
+ * The record with a sequence number is stored in the slot at that sequence number modulo the capacity, so truncating only moves the oldest sequence number in the header.
+ * Each record is {@value #RECORD_SIZE} bytes: the UUID's most and least significant bits, a value, and a check value that includes the record's sequence number,
+ * so a record left in a slot from an earlier pass around the ring is never read.
+ * A delta record's value is play time in seconds. A saved record's value is the sequence number that a single player save included play time up to.
+ * Reading stops at the first record with an invalid check value, which also covers a record that was only partially written.
+ * <p>
+ * All methods are synchronized as records are appended on the main thread and saves complete on the database thread.
+ */
+public class PlayTimeJournal {
+    private static final long MAGIC = 0x5350544A524E4C32L;
+    private static final long DELTA_SALT = 0x9E3779B97F4A7C15L;
+    private static final long SAVED_SALT = 0xC2B2AE3D27D4EB4FL;
+    private static final int HEADER_SIZE = 32;
+    private static final int HEAD_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int RECORD_SIZE = 32;
+    private static final int INITIAL_CAPACITY = 32768;
+
+    private final @NotNull ComponentLogger logger;
+    private final @NotNull Path path;
+    private @Nullable FileChannel channel;
+    private @Nullable MappedByteBuffer buffer;
+    // The number of records the journal can hold.
+    private int capacity = 0;
+    // The sequence number of the oldest record in the journal.
+    private long head = 0;
+    // The sequence number the next record will be written with.
+    private long tail = 0;
+    // Set when the journal could not grow, so the dropped records are only logged once until it has room again.
+    private boolean full = false;
+
+    /**
+     * Constructor
+     * @param logger The plugin's {@link ComponentLogger}.
+     * @param path The {@link Path} to the journal file.
+     */
+    public PlayTimeJournal(@NotNull ComponentLogger logger, @NotNull Path path) {
+        this.logger = logger;
+        this.path = path;
+    }
+
+    /**
+     * Opens the journal file, creating it if it doesn't exist, and finds the end of the existing records.
+     * @throws IOException if the file could not be opened or mapped.
+     */
+    public synchronized void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), getSize(INITIAL_CAPACITY));
+        if(size > Integer.MAX_VALUE) size = getSize(INITIAL_CAPACITY);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        long storedCapacity = buffer.getLong(CAPACITY_OFFSET);
+        if(buffer.getLong(0) != MAGIC || storedCapacity <= 0 || getSize(storedCapacity) > size) {
+            capacity = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+            clearRecords();
+            buffer.putLong(HEAD_OFFSET, 0);
+            buffer.putLong(CAPACITY_OFFSET, capacity);
+            buffer.putLong(0, MAGIC);
+        } else {
+            capacity = (int) storedCapacity;
+        }
+
+        head = buffer.getLong(HEAD_OFFSET);
+        tail = head;
+        while(tail - head < capacity && getRecordType(tail) != RecordType.INVALID) {
+            tail++;
+        }
+    }
+
+    /**
+     * Checks if the journal is open.
+     * @return true if open, false if not.
+     */
+    public synchronized boolean isOpen() {
+        return buffer != null;
+    }
+
+    /**
+     * Get the sequence number the next record will be written with.
+     * Saves capture this before player data is captured, so that any records appended while the save is running are kept.
+     * @return The next sequence number.
+     */
+    public synchronized long getSequence() {
+        return tail;
+    }
+
+    /**
+     * Appends play time gained by a player.
+     * @param uuid The {@link UUID} of the player.
+     * @param seconds The play time in seconds that was gained.
+     */
+    public synchronized void appendPlayTime(@NotNull UUID uuid, long seconds) {
+        append(uuid, seconds, DELTA_SALT);
+    }
+
+    /**
+     * Records that the play time of a player was saved to the database up to the sequence number provided.
+     * Play time for the player appended before that sequence number will not be replayed.
+     * @param uuid The {@link UUID} of the player.
+     * @param sequence The sequence number from {@link #getSequence()} captured before the save.
+     */
+    public synchronized void markSaved(@NotNull UUID uuid, long sequence) {
+        append(uuid, sequence, SAVED_SALT);
+    }
+
+    /**
+     * Removes all records before the sequence number provided.
+     * Only the oldest sequence number in the header is moved, so this takes the same time no matter how many records are removed,
+     * and the journal is valid if the server is killed at any point.
+     * @param sequence The sequence number from {@link #getSequence()} captured before the save.
+     */
+    public synchronized void truncate(long sequence) {
+        if(buffer == null || sequence <= head) return;
+
+        head = Math.min(sequence, tail);
+        buffer.putLong(HEAD_OFFSET, head);
+    }
+
+    /**
+     * Reads the play time in the journal that has not been saved to the database yet.
+     * @return A {@link Map} mapping {@link UUID}s to the play time in seconds to add for each player.
+     */
+    public synchronized @NotNull Map<@NotNull UUID, @NotNull Long> readPlayTime() {
+        Map<UUID, Long> playTimeMap = new HashMap<>();
+        if(buffer == null) return playTimeMap;
+
+        // Find the sequence number each player's play time was last saved up to.
+        Map<UUID, Long> savedSequences = new HashMap<>();
+        for(long sequence = head; sequence < tail; sequence++) {
+            if(getRecordType(sequence) == RecordType.SAVED) {
+                savedSequences.merge(getUUID(sequence), buffer.getLong(getOffset(sequence) + 16), Math::max);
+            }
+        }
+
+        for(long sequence = head; sequence < tail; sequence++) {
+            if(getRecordType(sequence) != RecordType.DELTA) continue;
+
+            UUID uuid = getUUID(sequence);
+            long savedSequence = savedSequences.getOrDefault(uuid, Long.MIN_VALUE);
+            if(sequence >= savedSequence) {
+                playTimeMap.merge(uuid, buffer.getLong(getOffset(sequence) + 16), Long::sum);
+            }
+        }
+
+        return playTimeMap;
+    }
+
+    /**
+     * Removes all records from the journal.
+     */
+    public synchronized void clear() {
+        truncate(tail);
+    }
+
+    /**
+     * Writes the journal to the disk and closes the file.
+     */
+    public synchronized void close() {
+        if(buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+
+        if(channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+
+            channel = null;
+        }
+    }
+
+    /**
+     * Appends a record, growing the journal if it is full.
+     * If the journal can't grow, the record is dropped and this is logged once until the journal has room again.
+     * @param uuid The {@link UUID} of the player.
+     * @param value The value of the record.
+     * @param salt The salt for the type of record.
+     */
+    private void append(@NotNull UUID uuid, long value, long salt) {
+        if(buffer == null) return;
+        if(tail - head == capacity && !grow()) {
+            if(!full) {
+                full = true;
+                logger.warn(AdventureUtil.deserialize("The play time journal is full and could not grow. Play time gained until the next save will be lost if the server crashes."));
+            }
+
+            return;
+        }
+        full = false;
+
+        long mostSignificantBits = uuid.getMostSignificantBits();
+        long leastSignificantBits = uuid.getLeastSignificantBits();
+        int offset = getOffset(tail);
+
+        buffer.putLong(offset, mostSignificantBits);
+        buffer.putLong(offset + 8, leastSignificantBits);
+        buffer.putLong(offset + 16, value);
+        // The check value is written last so that a partially written record is never read.
+        buffer.putLong(offset + 24, getCheck(mostSignificantBits, leastSignificantBits, value, tail) ^ salt);
+
+        tail++;
+    }
+
+    /**
+     * Doubles the capacity of the journal file and maps the new size.
+     * Records whose slot changes with the new capacity are copied to the new half of the file before the capacity in the header is updated,
+     * so the journal is valid with either capacity if the server is killed while growing.
+     * @return true if the journal grew, false if not.
+     */
+    private boolean grow() {
+        if(channel == null || buffer == null) return false;
+
+        long newCapacity = (long) capacity * 2;
+        if(getSize(newCapacity) > Integer.MAX_VALUE) return false;
+
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, getSize(newCapacity));
+        } catch (IOException e) {
+            return false;
+        }
+
+        for(long sequence = head; sequence < tail; sequence++) {
+            int from = getOffset(sequence);
+            int to = HEADER_SIZE + (int) (sequence % newCapacity) * RECORD_SIZE;
+            if(from == to) continue;
+
+            buffer.putLong(to, buffer.getLong(from));
+            buffer.putLong(to + 8, buffer.getLong(from + 8));
+            buffer.putLong(to + 16, buffer.getLong(from + 16));
+            buffer.putLong(to + 24, buffer.getLong(from + 24));
+        }
+
+        capacity = (int) newCapacity;
+        buffer.putLong(CAPACITY_OFFSET, capacity);
+        return true;
+    }
+
+    /**
+     * Get the size in bytes of a journal file that can hold the number of records provided.
+     * @param capacity The number of records.
+     * @return The size in bytes.
+     */
+    private static long getSize(long capacity) {
+        return HEADER_SIZE + capacity * RECORD_SIZE;
+    }
+
+    /**
+     * Get the offset in bytes of the slot that stores the record with the sequence number provided.
+     * @param sequence The sequence number of the record.
+     * @return The offset in bytes.
+     */
+    private int getOffset(long sequence) {
+        return HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+    }
+
+    /**
+     * Get the check value of a record before its salt is applied.
+     * @param mostSignificantBits The most significant bits of the record's {@link UUID}.
+     * @param leastSignificantBits The least significant bits of the record's {@link UUID}.
+     * @param value The value of the record.
+     * @param sequence The sequence number of the record.
+     * @return The check value.
+     */
+    private static long getCheck(long mostSignificantBits, long leastSignificantBits, long value, long sequence) {
+        return mostSignificantBits ^ leastSignificantBits ^ value ^ sequence;
+    }
+
+    /**
+     * Get the {@link UUID} stored in the record with the sequence number provided.
+     * @param sequence The sequence number of the record.
+     * @return The {@link UUID}.
+     */
+    private @NotNull UUID getUUID(long sequence) {
+        int offset = getOffset(sequence);
+        //noinspection DataFlowIssue
+        return new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+    }
+
+    /**
+     * Get the {@link RecordType} of the record with the sequence number provided using its check value.
+     * A slot holding a record with a different sequence number is invalid.
+     * @param sequence The sequence number of the record.
+     * @return The {@link RecordType}.
+     */
+    private @NotNull RecordType getRecordType(long sequence) {
+        if(buffer == null) return RecordType.INVALID;
+
+        int offset = getOffset(sequence);
+        long value = getCheck(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getLong(offset + 16), sequence);
+        long check = buffer.getLong(offset + 24);
+
+        if(check == (value ^ DELTA_SALT)) return RecordType.DELTA;
+        if(check == (value ^ SAVED_SALT)) return RecordType.SAVED;
+        return RecordType.INVALID;
+    }
+
+    /**
+     * Zeroes every slot in the journal.
+     */
+    private void clearRecords() {
+        if(buffer == null) return;
+
+        for(int offset = HEADER_SIZE; offset < buffer.capacity(); offset += 8) {
+            buffer.putLong(offset, 0L);
+        }
+    }
+
+    /**
+     * The types of records stored in the journal.
+     */
+    private enum RecordType {
+        /**
+         * Play time gained by a player.
+         */
+        DELTA,
+        /**
+         * The play time of a player was saved up to a sequence number.
+         */
+        SAVED,
+        /**
+         * Not a valid record. Marks the end of the journal.
+         */
+        INVALID
+    }
+}
@@ -0,0 +1,40 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * This interface is implemented by tables whose schema is versioned and migrated by the {@link MigrationManager}.
+ */
+public interface MigratableTable {
+    /**
+     * Get the name of the table. This is also used as the table id in the versions table.
+     * @return The name of the table.
+     */
+    @NotNull String getTableName();
+
+    /**
+     * Get the migrations for this table. Each {@link Migration} must have a unique version.
+     * A table with no stored version will have all migrations applied, so the first migration should create the table.
+     * @return A {@link List} of {@link Migration}s.
+     */
+    @NotNull List<@NotNull Migration> getMigrations();
+}
@@ -0,0 +1,81 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * This class represents a single step that migrates a table from the previous version to {@link #getVersion()}.
+ * Migrations are run by the {@link MigrationManager} on a {@link Connection} with auto-commit disabled.
+ * The {@link MigrationManager} commits the migration together with the new table version once {@link #migrate(Connection)} returns.
+ */
+public abstract class Migration {
+    private final int version;
+    private final @NotNull String description;
+
+    /**
+     * Constructor
+     * @param version The version the table will be at after this migration.
+     * @param description A short description of what the migration does, used for logging.
+     */
+    protected Migration(int version, @NotNull String description) {
+        this.version = version;
+        this.description = description;
+    }
+
+    /**
+     * Get the version the table will be at after this migration.
+     * @return The version number.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get a short description of what the migration does.
+     * @return A {@link String} describing the migration.
+     */
+    public @NotNull String getDescription() {
+        return description;
+    }
+
+    /**
+     * Applies the migration.
+     * @param connection The {@link Connection} to use. Auto-commit is disabled.
+     * @throws SQLException if the migration fails. Any uncommitted changes will be rolled back.
+     */
+    public abstract void migrate(@NotNull Connection connection) throws SQLException;
+
+    /**
+     * Executes each of the provided sql statements in order.
+     * @param connection The {@link Connection} to use.
+     * @param sqlStatements The sql statements to execute.
+     * @throws SQLException if any statement fails.
+     */
+    protected void executeStatements(@NotNull Connection connection, @NotNull String... sqlStatements) throws SQLException {
+        try(Statement statement = connection.createStatement()) {
+            for(String sql : sqlStatements) {
+                statement.executeUpdate(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration;
+
+import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
+import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.database.connection.ConnectionManager;
+import com.github.lukesky19.skyplaytime.database.table.VersionsTable;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class migrates tables to their latest version using the versions stored in the {@link VersionsTable}.
+ * Migrations run on the calling thread so that nothing reads or writes a table before it is up to date.
+ */
+public class MigrationManager {
+    private final @NotNull ComponentLogger logger;
+    private final @NotNull ConnectionManager connectionManager;
+    private final @NotNull VersionsTable versionsTable;
+
+    /**
+     * Constructor
+     * @param skyPlayTime The plugin's main instance.
+     * @param connectionManager A {@link ConnectionManager} instance.
+     * @param versionsTable A {@link VersionsTable} instance.
+     */
+    public MigrationManager(
+            @NotNull SkyPlayTime skyPlayTime,
+            @NotNull ConnectionManager connectionManager,
+            @NotNull VersionsTable versionsTable) {
+        this.logger = skyPlayTime.getComponentLogger();
+        this.connectionManager = connectionManager;
+        this.versionsTable = versionsTable;
+    }
+
+    /**
+     * Migrates each of the provided tables to their latest version.
+     * Each {@link Migration} is committed together with the new table version, so a failed migration leaves the table at the last version that completed.
+     * @param tables The {@link MigratableTable}s to migrate.
+     * @return true if all tables are at their latest version, false if a migration failed.
+     */
+    public boolean migrate(@NotNull List<@NotNull MigratableTable> tables) {
+        try(Connection connection = connectionManager.getPooledConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                versionsTable.createTable(connection);
+                connection.commit();
+
+                for(MigratableTable table : tables) {
+                    migrateTable(connection, table);
+                }
+
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                logger.error(AdventureUtil.deserialize("Failed to migrate the database: " + e.getMessage()));
+                return false;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.error(AdventureUtil.deserialize("Failed to get a connection to migrate the database: " + e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Applies any migrations newer than the table's stored version in order.
+     * @param connection The {@link Connection} to use. Auto-commit must be disabled.
+     * @param table The {@link MigratableTable} to migrate.
+     * @throws SQLException if a migration fails.
+     */
+    private void migrateTable(@NotNull Connection connection, @NotNull MigratableTable table) throws SQLException {
+        String tableName = table.getTableName();
+        int currentVersion = versionsTable.getTableVersion(connection, tableName);
+
+        List<Migration> pendingMigrations = table.getMigrations().stream()
+                .filter(migration -> migration.getVersion() > currentVersion)
+                .sorted(Comparator.comparingInt(Migration::getVersion))
+                .toList();
+
+        for(Migration migration : pendingMigrations) {
+            long startTime = System.currentTimeMillis();
+
+            migration.migrate(connection);
+            versionsTable.updateVersion(connection, tableName, migration.getVersion());
+            connection.commit();
+
+            long duration = System.currentTimeMillis() - startTime;
+            logger.info(AdventureUtil.deserialize("Migrated table " + tableName + " to version " + migration.getVersion() + " (" + migration.getDescription() + ") in " + duration + " ms."));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration.daily;
+
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Version 1 of the player_daily table.
+ * Creates the table that stores each player's play time per day, the weekly and monthly rollup tables, and the table that tracks how far the rollups have progressed.
+ */
+public class CreateDailyPlayTimeTablesMigration extends Migration {
+    private final @NotNull String tableName;
+    private final @NotNull String weeklyTableName;
+    private final @NotNull String monthlyTableName;
+    private final @NotNull String rollupsTableName;
+
+    /**
+     * Constructor
+     * @param tableName The name of the player_daily table.
+     * @param weeklyTableName The name of the table that stores weekly rollups.
+     * @param monthlyTableName The name of the table that stores monthly rollups.
+     * @param rollupsTableName The name of the table that stores how far each rollup has progressed.
+     */
+    public CreateDailyPlayTimeTablesMigration(
+            @NotNull String tableName,
+            @NotNull String weeklyTableName,
+            @NotNull String monthlyTableName,
+            @NotNull String rollupsTableName) {
+        super(1, "create daily play time tables");
+        this.tableName = tableName;
+        this.weeklyTableName = weeklyTableName;
+        this.monthlyTableName = monthlyTableName;
+        this.rollupsTableName = rollupsTableName;
+    }
+
+    /**
+     * Creates the daily, weekly, monthly, and rollup progress tables.
+     * @param connection The {@link Connection} to use. Auto-commit is disabled.
+     * @throws SQLException if a table or index could not be created.
+     */
+    @Override
+    public void migrate(@NotNull Connection connection) throws SQLException {
+        executeStatements(connection,
+                "CREATE TABLE IF NOT EXISTS " + tableName + " (" +
+                        "uuid BLOB NOT NULL CHECK (length(uuid) = 16), " +
+                        "day INTEGER NOT NULL, " +
+                        "seconds INTEGER NOT NULL DEFAULT 0, " +
+                        "PRIMARY KEY (uuid, day)" +
+                        ") STRICT, WITHOUT ROWID",
+                // The rollups read every player's rows for a range of days.
+                "CREATE INDEX IF NOT EXISTS idx_player_daily_day ON " + tableName + "(day)",
+                "CREATE TABLE IF NOT EXISTS " + weeklyTableName + " (" +
+                        "uuid BLOB NOT NULL CHECK (length(uuid) = 16), " +
+                        "week INTEGER NOT NULL, " +
+                        "seconds INTEGER NOT NULL DEFAULT 0, " +
+                        "PRIMARY KEY (uuid, week)" +
+                        ") STRICT, WITHOUT ROWID",
+                "CREATE TABLE IF NOT EXISTS " + monthlyTableName + " (" +
+                        "uuid BLOB NOT NULL CHECK (length(uuid) = 16), " +
+                        "month INTEGER NOT NULL, " +
+                        "seconds INTEGER NOT NULL DEFAULT 0, " +
+                        "PRIMARY KEY (uuid, month)" +
+                        ") STRICT, WITHOUT ROWID",
+                "CREATE TABLE IF NOT EXISTS " + rollupsTableName + " (" +
+                        "level TEXT PRIMARY KEY NOT NULL, " +
+                        "rolled_up_until INTEGER NOT NULL DEFAULT 0" +
+                        ") STRICT, WITHOUT ROWID",
+                "INSERT OR IGNORE INTO " + rollupsTableName + " (level, rolled_up_until) VALUES ('weekly', 0), ('monthly', 0)");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration.players;
+
+import com.github.lukesky19.skyplaytime.database.codec.UUIDCodec;
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Version 3 of the players table.
+ * Rewrites the table as a STRICT, WITHOUT ROWID table that stores UUIDs as 16-byte BLOBs and play time as INTEGERs.
+ * The rows are copied in batches into a new table which then replaces the old one, so the migration can be safely re-run if it fails part way through.
+ */
+public class BlobUUIDMigration extends Migration {
+    private static final int BATCH_SIZE = 5000;
+
+    private final @NotNull String tableName;
+    private final @NotNull String newTableName;
+
+    /**
+     * Constructor
+     * @param tableName The name of the players table.
+     */
+    public BlobUUIDMigration(@NotNull String tableName) {
+        super(3, "blob uuids and strict typing");
+        this.tableName = tableName;
+        this.newTableName = tableName + "_v3";
+    }
+
+    /**
+     * Copies all rows into the new table layout and replaces the old table.
+     * @param connection The {@link Connection} to use. Auto-commit is disabled.
+     * @throws SQLException if the table could not be rewritten or a stored UUID is invalid.
+     */
+    @Override
+    public void migrate(@NotNull Connection connection) throws SQLException {
+        executeStatements(connection,
+                "DROP TABLE IF EXISTS " + newTableName,
+                "CREATE TABLE " + newTableName + " (" +
+                        "uuid BLOB PRIMARY KEY NOT NULL CHECK (length(uuid) = 16), " +
+                        "name TEXT NOT NULL, " +
+                        "daily INTEGER NOT NULL DEFAULT 0, " +
+                        "weekly INTEGER NOT NULL DEFAULT 0, " +
+                        "monthly INTEGER NOT NULL DEFAULT 0, " +
+                        "yearly INTEGER NOT NULL DEFAULT 0, " +
+                        "total INTEGER NOT NULL DEFAULT 0, " +
+                        "exempt INTEGER NOT NULL DEFAULT 0, " +
+                        "last_updated INTEGER NOT NULL DEFAULT 0" +
+                        ") STRICT, WITHOUT ROWID");
+        connection.commit();
+
+        copyRows(connection);
+
+        // The indexes are dropped with the old table and are recreated on the new one.
+        executeStatements(connection,
+                "DROP TABLE " + tableName,
+                "ALTER TABLE " + newTableName + " RENAME TO " + tableName,
+                "CREATE INDEX IF NOT EXISTS idx_players_daily_not_exempt ON " + tableName + "(daily DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_weekly_not_exempt ON " + tableName + "(weekly DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_monthly_not_exempt ON " + tableName + "(monthly DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_yearly_not_exempt ON " + tableName + "(yearly DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_total_not_exempt ON " + tableName + "(total DESC) WHERE exempt = 0");
+    }
+
+    /**
+     * Copies the rows of the old table into the new table in batches, converting the UUIDs from text to bytes.
+     * The conversion is done in Java so that it does not depend on the SQLite version.
+     * @param connection The {@link Connection} to use.
+     * @throws SQLException if a batch fails or a stored UUID is invalid.
+     */
+    private void copyRows(@NotNull Connection connection) throws SQLException {
+        String selectSql = "SELECT rowid, uuid, name, daily, weekly, monthly, yearly, total, exempt, last_updated FROM " + tableName + " WHERE rowid > ? ORDER BY rowid LIMIT ?";
+        String insertSql = "INSERT INTO " + newTableName + " (uuid, name, daily, weekly, monthly, yearly, total, exempt, last_updated) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try(PreparedStatement selectStatement = connection.prepareStatement(selectSql);
+            PreparedStatement insertStatement = connection.prepareStatement(insertSql)) {
+            long lastRowId = Long.MIN_VALUE;
+
+            while(true) {
+                int rowsInBatch = 0;
+
+                selectStatement.setLong(1, lastRowId);
+                selectStatement.setInt(2, BATCH_SIZE);
+
+                try(ResultSet resultSet = selectStatement.executeQuery()) {
+                    while(resultSet.next()) {
+                        lastRowId = resultSet.getLong("rowid");
+                        String uuidString = resultSet.getString("uuid");
+
+                        UUID uuid;
+                        try {
+                            uuid = UUID.fromString(uuidString);
+                        } catch (IllegalArgumentException e) {
+                            throw new SQLException("Invalid UUID " + uuidString + " stored in the " + tableName + " table.", e);
+                        }
+
+                        UUIDCodec.bind(insertStatement, 1, uuid);
+                        insertStatement.setString(2, resultSet.getString("name"));
+                        insertStatement.setLong(3, resultSet.getLong("daily"));
+                        insertStatement.setLong(4, resultSet.getLong("weekly"));
+                        insertStatement.setLong(5, resultSet.getLong("monthly"));
+                        insertStatement.setLong(6, resultSet.getLong("yearly"));
+                        insertStatement.setLong(7, resultSet.getLong("total"));
+                        insertStatement.setInt(8, resultSet.getInt("exempt"));
+                        insertStatement.setLong(9, resultSet.getLong("last_updated"));
+                        insertStatement.addBatch();
+
+                        rowsInBatch++;
+                    }
+                }
+
+                if(rowsInBatch == 0) break;
+
+                insertStatement.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration.players;
+
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Version 1 of the players table. Creates the table with the original layout.
+ */
+public class CreatePlayersTableMigration extends Migration {
+    private final @NotNull String tableName;
+
+    /**
+     * Constructor
+     * @param tableName The name of the players table.
+     */
+    public CreatePlayersTableMigration(@NotNull String tableName) {
+        super(1, "create table");
+        this.tableName = tableName;
+    }
+
+    /**
+     * Creates the players table if it doesn't exist.
+     * @param connection The {@link Connection} to use. Auto-commit is disabled.
+     * @throws SQLException if the table could not be created.
+     */
+    @Override
+    public void migrate(@NotNull Connection connection) throws SQLException {
+        executeStatements(connection, "CREATE TABLE IF NOT EXISTS " + tableName + " (" +
+                "uuid TEXT PRIMARY KEY NOT NULL UNIQUE, " +
+                "name TEXT NOT NULL, " +
+                "daily LONG NOT NULL DEFAULT 0, " +
+                "weekly LONG NOT NULL DEFAULT 0, " +
+                "monthly LONG NOT NULL DEFAULT 0, " +
+                "yearly LONG NOT NULL DEFAULT 0, " +
+                "total LONG NOT NULL DEFAULT 0, " +
+                "exempt INTEGER NOT NULL DEFAULT 0, " +
+                "last_updated LONG NOT NULL DEFAULT 0)");
+    }
+}
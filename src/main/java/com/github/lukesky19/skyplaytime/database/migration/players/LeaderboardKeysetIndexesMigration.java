@@ -0,0 +1,62 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration.players;
+
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Version 5 of the players table.
+ * The leaderboard indexes are recreated with the uuid column as a tie-breaker in the same order as the leaderboard queries,
+ * so pages can be read by seeking past the last position of the previous page instead of using an offset.
+ */
+public class LeaderboardKeysetIndexesMigration extends Migration {
+    private final @NotNull String tableName;
+
+    /**
+     * Constructor
+     * @param tableName The name of the players table.
+     */
+    public LeaderboardKeysetIndexesMigration(@NotNull String tableName) {
+        super(5, "leaderboard keyset indexes");
+        this.tableName = tableName;
+    }
+
+    /**
+     * Recreates the leaderboard indexes.
+     * @param connection The {@link Connection} to use. Auto-commit is disabled.
+     * @throws SQLException if an index could not be dropped or created.
+     */
+    @Override
+    public void migrate(@NotNull Connection connection) throws SQLException {
+        executeStatements(connection,
+                "DROP INDEX IF EXISTS idx_players_daily_not_exempt",
+                "DROP INDEX IF EXISTS idx_players_weekly_not_exempt",
+                "DROP INDEX IF EXISTS idx_players_monthly_not_exempt",
+                "DROP INDEX IF EXISTS idx_players_yearly_not_exempt",
+                "DROP INDEX IF EXISTS idx_players_total_not_exempt",
+                "CREATE INDEX IF NOT EXISTS idx_players_daily_not_exempt ON " + tableName + "(daily_period, daily DESC, uuid DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_weekly_not_exempt ON " + tableName + "(weekly_period, weekly DESC, uuid DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_monthly_not_exempt ON " + tableName + "(monthly_period, monthly DESC, uuid DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_yearly_not_exempt ON " + tableName + "(yearly_period, yearly DESC, uuid DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_total_not_exempt ON " + tableName + "(total_period, total DESC, uuid DESC) WHERE exempt = 0");
+    }
+}
@@ -0,0 +1,77 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration.players;
+
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Version 4 of the players table.
+ * Each play time column gets a period column that stores which period its value belongs to, and the current period of each column is stored in a separate table.
+ * A reset then only advances the current period, and values from an older period are read as 0 and replaced on the next save.
+ * The leaderboard indexes are recreated to lead with the period column so that only values from the current period are read.
+ */
+public class PlayTimePeriodsMigration extends Migration {
+    private final @NotNull String tableName;
+    private final @NotNull String periodsTableName;
+
+    /**
+     * Constructor
+     * @param tableName The name of the players table.
+     * @param periodsTableName The name of the table that stores the current periods.
+     */
+    public PlayTimePeriodsMigration(@NotNull String tableName, @NotNull String periodsTableName) {
+        super(4, "play time periods");
+        this.tableName = tableName;
+        this.periodsTableName = periodsTableName;
+    }
+
+    /**
+     * Adds the period columns, creates the periods table, and recreates the leaderboard indexes.
+     * @param connection The {@link Connection} to use. Auto-commit is disabled.
+     * @throws SQLException if a column, table, or index could not be created.
+     */
+    @Override
+    public void migrate(@NotNull Connection connection) throws SQLException {
+        executeStatements(connection,
+                "ALTER TABLE " + tableName + " ADD COLUMN daily_period INTEGER NOT NULL DEFAULT 0",
+                "ALTER TABLE " + tableName + " ADD COLUMN weekly_period INTEGER NOT NULL DEFAULT 0",
+                "ALTER TABLE " + tableName + " ADD COLUMN monthly_period INTEGER NOT NULL DEFAULT 0",
+                "ALTER TABLE " + tableName + " ADD COLUMN yearly_period INTEGER NOT NULL DEFAULT 0",
+                "ALTER TABLE " + tableName + " ADD COLUMN total_period INTEGER NOT NULL DEFAULT 0",
+                "CREATE TABLE IF NOT EXISTS " + periodsTableName + " (" +
+                        "category TEXT PRIMARY KEY NOT NULL, " +
+                        "period INTEGER NOT NULL DEFAULT 0" +
+                        ") STRICT, WITHOUT ROWID",
+                "INSERT OR IGNORE INTO " + periodsTableName + " (category, period) VALUES " +
+                        "('daily', 0), ('weekly', 0), ('monthly', 0), ('yearly', 0), ('total', 0)",
+                "DROP INDEX IF EXISTS idx_players_daily_not_exempt",
+                "DROP INDEX IF EXISTS idx_players_weekly_not_exempt",
+                "DROP INDEX IF EXISTS idx_players_monthly_not_exempt",
+                "DROP INDEX IF EXISTS idx_players_yearly_not_exempt",
+                "DROP INDEX IF EXISTS idx_players_total_not_exempt",
+                "CREATE INDEX IF NOT EXISTS idx_players_daily_not_exempt ON " + tableName + "(daily_period, daily DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_weekly_not_exempt ON " + tableName + "(weekly_period, weekly DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_monthly_not_exempt ON " + tableName + "(monthly_period, monthly DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_yearly_not_exempt ON " + tableName + "(yearly_period, yearly DESC) WHERE exempt = 0",
+                "CREATE INDEX IF NOT EXISTS idx_players_total_not_exempt ON " + tableName + "(total_period, total DESC) WHERE exempt = 0");
+    }
+}
@@ -0,0 +1,61 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.migration.sessions;
+
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Version 1 of the sessions table.
+ */
+public class CreateSessionsTableMigration extends Migration {
+    private final @NotNull String tableName;
+
+    /**
+     * Constructor
+     * @param tableName The name of the sessions table.
+     */
+    public CreateSessionsTableMigration(@NotNull String tableName) {
+        super(1, "create sessions table");
+        this.tableName = tableName;
+    }
+
+    /**
+     * Creates the sessions table and its indexes.
+     * @param connection The {@link Connection} to use. Auto-commit is disabled.
+     * @throws SQLException if the table or an index could not be created.
+     */
+    @Override
+    public void migrate(@NotNull Connection connection) throws SQLException {
+        executeStatements(connection,
+                "CREATE TABLE IF NOT EXISTS " + tableName + " (" +
+                        "id INTEGER PRIMARY KEY, " +
+                        "uuid BLOB NOT NULL CHECK (length(uuid) = 16), " +
+                        "start_time INTEGER NOT NULL, " +
+                        "end_time INTEGER NOT NULL, " +
+                        "active_seconds INTEGER NOT NULL DEFAULT 0, " +
+                        "afk_seconds INTEGER NOT NULL DEFAULT 0, " +
+                        "sessions INTEGER NOT NULL DEFAULT 1" +
+                        ") STRICT",
+                "CREATE INDEX IF NOT EXISTS idx_sessions_uuid_start ON " + tableName + "(uuid, start_time)",
+                "CREATE INDEX IF NOT EXISTS idx_sessions_start ON " + tableName + "(start_time)");
+    }
+}
@@ -0,0 +1,38 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.queue;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A unit of database work that is given a {@link Connection} by the {@link QueueManager}.
+ * @param <T> The type of the result.
+ */
+@FunctionalInterface
+public interface ConnectionTask<T> {
+    /**
+     * Executes the task.
+     * @param connection The {@link Connection} to use. The task must not close it.
+     * @return The result of the task.
+     * @throws SQLException if the task fails.
+     */
+    T execute(@NotNull Connection connection) throws SQLException;
+}
@@ -0,0 +1,113 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.queue;
+
+import com.github.lukesky19.skyplaytime.util.LogLinearBuckets;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram of latencies in microseconds, similar to HdrHistogram.
+ * Values below 16 are counted exactly, and larger values are counted in 8 buckets per power of two, so percentiles are within 12.5% of the real value.
+ * Recording a value is a few bit operations and one atomic increment, with no allocation.
+ */
+public class LatencyHistogram {
+    private static final LogLinearBuckets BUCKETS = new LogLinearBuckets(3, 4);
+    private static final int BUCKET_COUNT = BUCKETS.getBucketCount();
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructor
+     */
+    public LatencyHistogram() {}
+
+    /**
+     * Records a latency.
+     * @param micros The latency in microseconds. Negative values are recorded as 0.
+     */
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+
+        counts.incrementAndGet(BUCKETS.getIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Get the number of latencies recorded.
+     * @return The number of latencies recorded.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the highest latency recorded.
+     * @return The highest latency in microseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the mean of the latencies recorded.
+     * @return The mean latency in microseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : (double) sum.get() / recorded;
+    }
+
+    /**
+     * Get the latency at the percentile provided.
+     * @param percentile The percentile between 0 and 100.
+     * @return The highest latency in microseconds in the bucket containing the percentile, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long recorded = count.get();
+        if(recorded == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(recorded * (percentile / 100.0)));
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if(seen >= target) return Math.min(BUCKETS.getUpperBound(i), max.get());
+        }
+
+        return max.get();
+    }
+
+    /**
+     * Removes all recorded latencies.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+}
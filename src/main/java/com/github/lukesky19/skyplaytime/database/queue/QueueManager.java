@@ -17,19 +17,300 @@
 */
 package com.github.lukesky19.skyplaytime.database.queue;
 
-import com.github.lukesky19.skylib.api.database.connection.AbstractConnectionManager;
 import com.github.lukesky19.skylib.api.database.queue.MultiThreadQueueManager;
+import com.github.lukesky19.skyplaytime.database.connection.ConnectionManager;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * This class handles reads and writes to the database.
+ * Every write runs as a {@link ConnectionTask} in order on a single thread, so writes never contend for the SQLite write lock.
+ * The transaction queues inherited from {@link MultiThreadQueueManager} are not used, as they would write from a second thread.
+ * They are only inherited because SkyLib's {@link com.github.lukesky19.skylib.api.database.AbstractDatabaseManager} requires a SkyLib queue manager.
+ * Their executors stay idle and are shut down by {@link com.github.lukesky19.skylib.api.database.AbstractDatabaseManager#handlePluginDisable()},
+ * which must be called after {@link #shutdownConnectionTasks(long)}.
+ * Read {@link ConnectionTask}s run on their own threads using the read-only connection pool when it is available, so they never wait behind writes.
+ * {@link ConnectionTask}s have direct access to a {@link Connection}, which allows binding values such as byte arrays and batching statements.
  */
 public class QueueManager extends MultiThreadQueueManager {
+    private final @NotNull ConnectionManager connectionManager;
+    private final @NotNull QueueMetrics queueMetrics;
+    private final @NotNull ExecutorService connectionTaskExecutor;
+    private final @Nullable ExecutorService readTaskExecutor;
+    private @Nullable Thread connectionTaskThread;
+
     /**
      * Constructor.
-     * @param connectionManager An {@link AbstractConnectionManager} instance.
+     * @param connectionManager A {@link ConnectionManager} instance.
+     * @param queueMetrics A {@link QueueMetrics} instance.
      */
-    public QueueManager(@NotNull AbstractConnectionManager connectionManager) {
+    public QueueManager(@NotNull ConnectionManager connectionManager, @NotNull QueueMetrics queueMetrics) {
         super(connectionManager);
+
+        this.connectionManager = connectionManager;
+        this.queueMetrics = queueMetrics;
+        this.connectionTaskExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SkyPlayTime-Database");
+            thread.setDaemon(true);
+            connectionTaskThread = thread;
+            return thread;
+        });
+
+        int readOnlyPoolSize = connectionManager.getReadOnlyPoolSize();
+        if(readOnlyPoolSize > 0) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.readTaskExecutor = Executors.newFixedThreadPool(readOnlyPoolSize, runnable -> {
+                Thread thread = new Thread(runnable, "SkyPlayTime-Database-Read-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.readTaskExecutor = null;
+        }
+    }
+
+    /**
+     * Queues a {@link ConnectionTask} that only reads from the database.
+     * The task runs on a read-only connection alongside writes, so it may not see writes that are still queued.
+     * Use {@link #queueOrderedReadTask(String, ConnectionTask)} if the task must see every write queued before it.
+     * @param name The name of the kind of task, used for {@link QueueMetrics}.
+     * @param task The {@link ConnectionTask} to run.
+     * @return A {@link CompletableFuture} containing the result of the task.
+     * @param <T> The type of the result.
+     */
+    public <T> @NotNull CompletableFuture<T> queueReadTask(@NotNull String name, @NotNull ConnectionTask<T> task) {
+        if(readTaskExecutor == null) return queueOrderedReadTask(name, task);
+
+        return submit(name, false, readTaskExecutor, () -> {
+            try(Connection connection = connectionManager.getReadOnlyConnection()) {
+                return task.execute(connection);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Queues a {@link ConnectionTask} that only reads from the database, in order with write tasks.
+     * The task sees every write queued before it, but waits behind those writes.
+     * @param name The name of the kind of task, used for {@link QueueMetrics}.
+     * @param task The {@link ConnectionTask} to run.
+     * @return A {@link CompletableFuture} containing the result of the task.
+     * @param <T> The type of the result.
+     */
+    public <T> @NotNull CompletableFuture<T> queueOrderedReadTask(@NotNull String name, @NotNull ConnectionTask<T> task) {
+        return submit(name, true, connectionTaskExecutor, () -> {
+            try(Connection connection = connectionManager.getPooledConnection()) {
+                return task.execute(connection);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Queues a {@link ConnectionTask} that writes to the database inside a single transaction.
+     * The transaction is committed if the task completes and rolled back if it throws.
+     * @param name The name of the kind of task, used for {@link QueueMetrics}.
+     * @param task The {@link ConnectionTask} to run.
+     * @return A {@link CompletableFuture} containing the result of the task.
+     * @param <T> The type of the result.
+     */
+    public <T> @NotNull CompletableFuture<T> queueWriteTask(@NotNull String name, @NotNull ConnectionTask<T> task) {
+        return submit(name, true, connectionTaskExecutor, () -> {
+            try(Connection connection = connectionManager.getPooledConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+
+                try {
+                    T result = task.execute(connection);
+                    connection.commit();
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Queues a {@link ConnectionTask} that writes to the database outside a transaction, in order with other write tasks.
+     * This is used for statements that can't run inside a transaction, such as PRAGMA wal_checkpoint.
+     * @param name The name of the kind of task, used for {@link QueueMetrics}.
+     * @param task The {@link ConnectionTask} to run.
+     * @return A {@link CompletableFuture} containing the result of the task.
+     * @param <T> The type of the result.
+     */
+    public <T> @NotNull CompletableFuture<T> queueMaintenanceTask(@NotNull String name, @NotNull ConnectionTask<T> task) {
+        return submit(name, true, connectionTaskExecutor, () -> {
+            try(Connection connection = connectionManager.getPooledConnection()) {
+                return task.execute(connection);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Checks if the current thread is the thread that runs write {@link ConnectionTask}s.
+     * @return true if called from a write {@link ConnectionTask} or its callbacks, false if not.
+     */
+    public boolean isConnectionTaskThread() {
+        return Thread.currentThread() == connectionTaskThread;
+    }
+
+    /**
+     * Get the {@link QueueMetrics} that record the queue depth and task latencies.
+     * @return A {@link QueueMetrics} instance.
+     */
+    public @NotNull QueueMetrics getQueueMetrics() {
+        return queueMetrics;
+    }
+
+    /**
+     * Stops accepting new {@link ConnectionTask}s and waits up to the timeout for queued tasks to finish.
+     * Tasks that have not started by the timeout are removed from the queue and never run.
+     * This only stops the executors created by this class. The executors inherited from {@link MultiThreadQueueManager} are shut down by
+     * {@link com.github.lukesky19.skylib.api.database.AbstractDatabaseManager#handlePluginDisable()}.
+     * If called from a {@link ConnectionTask} callback, it does not wait as the queue can't finish while it is blocked.
+     * @param timeoutMillis How long to wait in milliseconds.
+     * @return The number of queued tasks that were removed without running.
+     */
+    public int shutdownConnectionTasks(long timeoutMillis) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        connectionTaskExecutor.shutdown();
+        if(readTaskExecutor != null) readTaskExecutor.shutdown();
+        if(Thread.currentThread() == connectionTaskThread) return 0;
+
+        int abandoned = awaitTermination(connectionTaskExecutor, deadlineNanos);
+        if(readTaskExecutor != null) abandoned += awaitTermination(readTaskExecutor, deadlineNanos);
+
+        return abandoned;
+    }
+
+    /**
+     * Runs the task on the {@link ExecutorService} and records how long it waited and ran for in the {@link QueueMetrics}.
+     * @param name The name of the kind of task.
+     * @param write Whether the task runs on the write thread.
+     * @param executorService The {@link ExecutorService} to run the task on.
+     * @param supplier The task.
+     * @return A {@link CompletableFuture} containing the result of the task.
+     * @param <T> The type of the result.
+     */
+    private <T> @NotNull CompletableFuture<T> submit(@NotNull String name, boolean write, @NotNull ExecutorService executorService, @NotNull Supplier<T> supplier) {
+        QueuedTask<T> queuedTask = new QueuedTask<>(name, write, supplier);
+        queueMetrics.queued(write);
+
+        try {
+            executorService.execute(queuedTask);
+        } catch (RejectedExecutionException e) {
+            queueMetrics.started(write);
+            throw e;
+        }
+
+        return queuedTask.future;
+    }
+
+    /**
+     * Waits until the deadline for the {@link ExecutorService} to finish, then removes any tasks that have not started.
+     * @param executorService The {@link ExecutorService} that was shut down.
+     * @param deadlineNanos The deadline from {@link System#nanoTime()}.
+     * @return The number of queued tasks that were removed without running.
+     */
+    private int awaitTermination(@NotNull ExecutorService executorService, long deadlineNanos) {
+        try {
+            if(!executorService.awaitTermination(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return abandon(executorService.shutdownNow());
+            }
+
+            return 0;
+        } catch (InterruptedException e) {
+            int abandoned = abandon(executorService.shutdownNow());
+            Thread.currentThread().interrupt();
+            return abandoned;
+        }
+    }
+
+    /**
+     * Completes the futures of tasks that were removed from the queue without running, so callers waiting on them are not left waiting forever.
+     * @param runnables The tasks returned by {@link ExecutorService#shutdownNow()}.
+     * @return The number of tasks that were removed.
+     */
+    private int abandon(@NotNull List<@NotNull Runnable> runnables) {
+        for(Runnable runnable : runnables) {
+            if(runnable instanceof QueuedTask<?> queuedTask) {
+                queueMetrics.started(queuedTask.write);
+                queuedTask.future.completeExceptionally(new RejectedExecutionException("The database queue was shut down before the " + queuedTask.name + " task ran."));
+            }
+        }
+
+        return runnables.size();
+    }
+
+    /**
+     * A task waiting in a queue, along with the {@link CompletableFuture} for its result.
+     * @param <T> The type of the result.
+     */
+    private final class QueuedTask<T> implements Runnable {
+        private final @NotNull String name;
+        private final boolean write;
+        private final @NotNull Supplier<T> supplier;
+        private final @NotNull CompletableFuture<T> future = new CompletableFuture<>();
+        private final long queuedNanos = System.nanoTime();
+
+        /**
+         * Constructor
+         * @param name The name of the kind of task.
+         * @param write Whether the task runs on the write thread.
+         * @param supplier The task.
+         */
+        private QueuedTask(@NotNull String name, boolean write, @NotNull Supplier<T> supplier) {
+            this.name = name;
+            this.write = write;
+            this.supplier = supplier;
+        }
+
+        /**
+         * Runs the task, records how long it waited and ran for in the {@link QueueMetrics}, and completes the {@link CompletableFuture}.
+         */
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            queueMetrics.started(write);
+
+            @Nullable T result = null;
+            @Nullable Throwable failure = null;
+            try {
+                result = supplier.get();
+            } catch (Throwable throwable) {
+                failure = throwable;
+            }
+
+            // Recorded before the future is completed, as dependent callbacks run inside complete and are not part of the task.
+            queueMetrics.finished(name, startNanos - queuedNanos, System.nanoTime() - startNanos);
+
+            if(failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
     }
 }
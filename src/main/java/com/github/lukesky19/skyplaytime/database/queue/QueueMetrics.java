@@ -0,0 +1,154 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.queue;
+
+import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
+import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.config.manager.settings.SettingsManager;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class records how many {@link ConnectionTask}s are waiting in the {@link QueueManager}, and how long each kind of task waited and ran for.
+ * Tasks that run for longer than the slow query threshold in the settings are logged.
+ */
+public class QueueMetrics {
+    private final @NotNull ComponentLogger logger;
+    private final @NotNull SettingsManager settingsManager;
+    private final @NotNull AtomicInteger pendingWrites = new AtomicInteger();
+    private final @NotNull AtomicInteger pendingReads = new AtomicInteger();
+    private final @NotNull Map<@NotNull String, @NotNull TaskMetrics> taskMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     * @param skyPlayTime The plugin's main instance.
+     * @param settingsManager A {@link SettingsManager} instance.
+     */
+    public QueueMetrics(@NotNull SkyPlayTime skyPlayTime, @NotNull SettingsManager settingsManager) {
+        this.logger = skyPlayTime.getComponentLogger();
+        this.settingsManager = settingsManager;
+    }
+
+    /**
+     * Get the number of tasks waiting to run on the write thread, including ordered reads.
+     * @return The number of tasks waiting.
+     */
+    public int getPendingWrites() {
+        return pendingWrites.get();
+    }
+
+    /**
+     * Get the number of tasks waiting to run on the read threads.
+     * @return The number of tasks waiting.
+     */
+    public int getPendingReads() {
+        return pendingReads.get();
+    }
+
+    /**
+     * Get the {@link TaskMetrics} for each kind of task, sorted by name.
+     * @return A {@link Map} mapping task names to {@link TaskMetrics}.
+     */
+    public @NotNull Map<@NotNull String, @NotNull TaskMetrics> getTaskMetrics() {
+        return new TreeMap<>(taskMetrics);
+    }
+
+    /**
+     * Removes all recorded latencies. The pending counts are not changed.
+     */
+    public void reset() {
+        taskMetrics.values().forEach(TaskMetrics::reset);
+    }
+
+    /**
+     * Records that a task was queued.
+     * @param write Whether the task was queued on the write thread.
+     */
+    void queued(boolean write) {
+        (write ? pendingWrites : pendingReads).incrementAndGet();
+    }
+
+    /**
+     * Records that a task started running.
+     * @param write Whether the task was queued on the write thread.
+     */
+    void started(boolean write) {
+        (write ? pendingWrites : pendingReads).decrementAndGet();
+    }
+
+    /**
+     * Records how long a task waited and ran for, and logs it if it ran for longer than the slow query threshold.
+     * @param name The name of the kind of task.
+     * @param waitNanos How long the task waited in the queue in nanoseconds.
+     * @param executionNanos How long the task ran for in nanoseconds.
+     */
+    void finished(@NotNull String name, long waitNanos, long executionNanos) {
+        TaskMetrics metrics = taskMetrics.computeIfAbsent(name, key -> new TaskMetrics());
+        metrics.getWait().record(TimeUnit.NANOSECONDS.toMicros(waitNanos));
+        metrics.getExecution().record(TimeUnit.NANOSECONDS.toMicros(executionNanos));
+
+        int slowQueryThresholdMillis = settingsManager.getSlowQueryThresholdMillis();
+        long executionMillis = TimeUnit.NANOSECONDS.toMillis(executionNanos);
+        if(slowQueryThresholdMillis > 0 && executionMillis >= slowQueryThresholdMillis) {
+            logger.warn(AdventureUtil.deserialize("Slow database task " + name + " ran for " + executionMillis + " ms after waiting " + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms."));
+        }
+    }
+
+    /**
+     * The wait and execution latencies of one kind of task.
+     */
+    public static final class TaskMetrics {
+        private final @NotNull LatencyHistogram wait = new LatencyHistogram();
+        private final @NotNull LatencyHistogram execution = new LatencyHistogram();
+
+        /**
+         * Constructor
+         */
+        private TaskMetrics() {}
+
+        /**
+         * Get the {@link LatencyHistogram} of how long tasks waited in the queue.
+         * @return A {@link LatencyHistogram} in microseconds.
+         */
+        public @NotNull LatencyHistogram getWait() {
+            return wait;
+        }
+
+        /**
+         * Get the {@link LatencyHistogram} of how long tasks ran for.
+         * @return A {@link LatencyHistogram} in microseconds.
+         */
+        public @NotNull LatencyHistogram getExecution() {
+            return execution;
+        }
+
+        /**
+         * Removes all recorded latencies.
+         */
+        private void reset() {
+            wait.reset();
+            execution.reset();
+        }
+    }
+}
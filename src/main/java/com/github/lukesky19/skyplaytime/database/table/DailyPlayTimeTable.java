@@ -0,0 +1,321 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.table;
+
+import com.github.lukesky19.skyplaytime.database.codec.UUIDCodec;
+import com.github.lukesky19.skyplaytime.database.data.DailyPlayTime;
+import com.github.lukesky19.skyplaytime.database.migration.MigratableTable;
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import com.github.lukesky19.skyplaytime.database.migration.daily.CreateDailyPlayTimeTablesMigration;
+import com.github.lukesky19.skyplaytime.database.queue.ConnectionTask;
+import com.github.lukesky19.skyplaytime.database.queue.QueueManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class handles the player_daily table that stores each player's play time per day, and the weekly and monthly rollups of it.
+ * Days are stored as the number of days since the epoch. Weeks start on Monday and are stored as the day they start on, and months are stored as their first day.
+ * A week or month is only rolled up once it has ended, so date range queries use the rollups for every complete week or month and the daily rows for the rest.
+ */
+public class DailyPlayTimeTable implements MigratableTable {
+    // Rollups wait this many days after a week or month ends, so that play time saved late is still included.
+    private static final int ROLLUP_DELAY_DAYS = 2;
+
+    private final @NotNull QueueManager queueManager;
+    private final @NotNull String tableName = "player_daily";
+    private final @NotNull String weeklyTableName = "player_weekly";
+    private final @NotNull String monthlyTableName = "player_monthly";
+    private final @NotNull String rollupsTableName = "play_time_rollups";
+
+    /**
+     * Constructor
+     * @param queueManager A {@link QueueManager} instance.
+     */
+    public DailyPlayTimeTable(@NotNull QueueManager queueManager) {
+        this.queueManager = queueManager;
+    }
+
+    /**
+     * Get the name of the table.
+     * @return The name of the table.
+     */
+    @Override
+    public @NotNull String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Get the migrations for the player_daily table.
+     * @return A {@link List} of {@link Migration}s.
+     */
+    @Override
+    public @NotNull List<@NotNull Migration> getMigrations() {
+        return List.of(new CreateDailyPlayTimeTablesMigration(tableName, weeklyTableName, monthlyTableName, rollupsTableName));
+    }
+
+    /**
+     * Adds the play time provided to each player's play time for the day it was gained on, in a single batch.
+     * @param dailyPlayTimes A {@link List} of {@link DailyPlayTime} to add.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> addPlayTime(@NotNull List<@NotNull DailyPlayTime> dailyPlayTimes) {
+        if(dailyPlayTimes.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        return queueManager.queueWriteTask("add_daily_play_time", createAddPlayTimeTask(dailyPlayTimes)).thenRun(() -> {});
+    }
+
+    /**
+     * Creates a {@link ConnectionTask} that adds the play time provided in a single batch, without queuing it.
+     * @param dailyPlayTimes A {@link List} of {@link DailyPlayTime} to add.
+     * @return A {@link ConnectionTask} containing the number of rows written.
+     */
+    public @NotNull ConnectionTask<@NotNull Integer> createAddPlayTimeTask(@NotNull List<@NotNull DailyPlayTime> dailyPlayTimes) {
+        String upsertSql = "INSERT INTO " + tableName + " (uuid, day, seconds) VALUES (?, ?, ?) " +
+                "ON CONFLICT (uuid, day) DO UPDATE SET seconds = seconds + excluded.seconds";
+
+        return connection -> {
+            if(dailyPlayTimes.isEmpty()) return 0;
+
+            try(PreparedStatement statement = connection.prepareStatement(upsertSql)) {
+                for(DailyPlayTime dailyPlayTime : dailyPlayTimes) {
+                    UUIDCodec.bind(statement, 1, dailyPlayTime.uuid());
+                    statement.setLong(2, dailyPlayTime.day());
+                    statement.setLong(3, dailyPlayTime.seconds());
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+            }
+
+            return dailyPlayTimes.size();
+        };
+    }
+
+    /**
+     * Gets the play time a player gained between two days, including both days.
+     * Complete months and weeks that have been rolled up are read from the rollups, and only the remaining days are read from the daily rows.
+     * @param uuid The {@link UUID} of the player.
+     * @param fromDay The first day as the number of days since the epoch.
+     * @param toDay The last day as the number of days since the epoch.
+     * @return A {@link CompletableFuture} containing the play time in seconds.
+     */
+    public @NotNull CompletableFuture<@NotNull Long> getPlayTimeBetween(@NotNull UUID uuid, long fromDay, long toDay) {
+        if(fromDay > toDay) return CompletableFuture.completedFuture(0L);
+
+        // Ordered with writes, so play time that was just flushed is included.
+        return queueManager.queueOrderedReadTask("get_play_time_between", connection -> {
+            long weeklyRolledUpUntil = getRolledUpUntil(connection, "weekly");
+            long monthlyRolledUpUntil = getRolledUpUntil(connection, "monthly");
+
+            // Each list contains the ranges of days covered by that table, as pairs of the first and last day.
+            List<long[]> dailyRanges = new ArrayList<>();
+            List<long[]> weeklyRanges = new ArrayList<>();
+            List<long[]> monthlyRanges = new ArrayList<>();
+
+            long day = fromDay;
+            while(day <= toDay) {
+                LocalDate date = LocalDate.ofEpochDay(day);
+
+                if(date.getDayOfMonth() == 1) {
+                    long monthEnd = date.plusMonths(1).toEpochDay() - 1;
+                    if(monthEnd <= toDay && monthEnd < monthlyRolledUpUntil) {
+                        addRange(monthlyRanges, day, monthEnd);
+                        day = monthEnd + 1;
+                        continue;
+                    }
+                }
+
+                if(date.getDayOfWeek() == DayOfWeek.MONDAY) {
+                    long weekEnd = day + 6;
+                    if(weekEnd <= toDay && weekEnd < weeklyRolledUpUntil) {
+                        addRange(weeklyRanges, day, weekEnd);
+                        day = weekEnd + 1;
+                        continue;
+                    }
+                }
+
+                addRange(dailyRanges, day, day);
+                day++;
+            }
+
+            return sumRanges(connection, uuid, monthlyTableName, "month", monthlyRanges)
+                    + sumRanges(connection, uuid, weeklyTableName, "week", weeklyRanges)
+                    + sumRanges(connection, uuid, tableName, "day", dailyRanges);
+        });
+    }
+
+    /**
+     * Rolls up every week and month that ended at least {@value #ROLLUP_DELAY_DAYS} days before the day provided and has not been rolled up yet.
+     * @param today The current day as the number of days since the epoch.
+     * @return A {@link CompletableFuture} containing the number of weeks and months that were rolled up.
+     */
+    public @NotNull CompletableFuture<@NotNull Integer> rollUp(long today) {
+        long lastCompleteDay = today - ROLLUP_DELAY_DAYS;
+
+        return queueManager.queueWriteTask("roll_up", connection -> {
+            long firstDay;
+            try(PreparedStatement statement = connection.prepareStatement("SELECT MIN(day) FROM " + tableName);
+                ResultSet resultSet = statement.executeQuery()) {
+                if(!resultSet.next()) return 0;
+
+                firstDay = resultSet.getLong(1);
+                if(resultSet.wasNull()) return 0;
+            }
+
+            String weeklySql = "INSERT INTO " + weeklyTableName + " (uuid, week, seconds) " +
+                    "SELECT uuid, ?, SUM(seconds) FROM " + tableName + " WHERE day BETWEEN ? AND ? GROUP BY uuid " +
+                    "ON CONFLICT (uuid, week) DO UPDATE SET seconds = excluded.seconds";
+            String monthlySql = "INSERT INTO " + monthlyTableName + " (uuid, month, seconds) " +
+                    "SELECT uuid, ?, SUM(seconds) FROM " + tableName + " WHERE day BETWEEN ? AND ? GROUP BY uuid " +
+                    "ON CONFLICT (uuid, month) DO UPDATE SET seconds = excluded.seconds";
+
+            int rolledUp = 0;
+
+            long weekStart = getRolledUpUntil(connection, "weekly");
+            if(weekStart == 0) weekStart = LocalDate.ofEpochDay(firstDay).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+            try(PreparedStatement statement = connection.prepareStatement(weeklySql)) {
+                while(weekStart + 6 <= lastCompleteDay) {
+                    rollUpPeriod(statement, weekStart, weekStart + 6);
+                    weekStart += 7;
+                    rolledUp++;
+                }
+            }
+            setRolledUpUntil(connection, "weekly", weekStart);
+
+            long monthStart = getRolledUpUntil(connection, "monthly");
+            if(monthStart == 0) monthStart = LocalDate.ofEpochDay(firstDay).withDayOfMonth(1).toEpochDay();
+            try(PreparedStatement statement = connection.prepareStatement(monthlySql)) {
+                long monthEnd = LocalDate.ofEpochDay(monthStart).plusMonths(1).toEpochDay() - 1;
+                while(monthEnd <= lastCompleteDay) {
+                    rollUpPeriod(statement, monthStart, monthEnd);
+                    monthStart = monthEnd + 1;
+                    monthEnd = LocalDate.ofEpochDay(monthStart).plusMonths(1).toEpochDay() - 1;
+                    rolledUp++;
+                }
+            }
+            setRolledUpUntil(connection, "monthly", monthStart);
+
+            return rolledUp;
+        });
+    }
+
+    /**
+     * Adds a range of days to the list of ranges, merging it with the last range if they are adjacent.
+     * @param ranges The {@link List} of ranges.
+     * @param start The first day of the range.
+     * @param end The last day of the range.
+     */
+    private void addRange(@NotNull List<long[]> ranges, long start, long end) {
+        if(!ranges.isEmpty()) {
+            long[] last = ranges.getLast();
+            if(last[1] + 1 == start) {
+                last[1] = end;
+                return;
+            }
+        }
+
+        ranges.add(new long[] {start, end});
+    }
+
+    /**
+     * Sums a player's play time in the table provided for each range of days.
+     * @param connection The {@link Connection} to use.
+     * @param uuid The {@link UUID} of the player.
+     * @param table The name of the table to read.
+     * @param keyColumn The column that stores the day, week, or month of each row.
+     * @param ranges The ranges of days to sum.
+     * @return The play time in seconds.
+     * @throws SQLException if the table could not be read.
+     */
+    private long sumRanges(@NotNull Connection connection, @NotNull UUID uuid, @NotNull String table, @NotNull String keyColumn, @NotNull List<long[]> ranges) throws SQLException {
+        if(ranges.isEmpty()) return 0;
+        String selectSql = "SELECT COALESCE(SUM(seconds), 0) FROM " + table + " WHERE uuid = ? AND " + keyColumn + " BETWEEN ? AND ?";
+
+        long seconds = 0;
+        try(PreparedStatement statement = connection.prepareStatement(selectSql)) {
+            for(long[] range : ranges) {
+                UUIDCodec.bind(statement, 1, uuid);
+                statement.setLong(2, range[0]);
+                statement.setLong(3, range[1]);
+
+                try(ResultSet resultSet = statement.executeQuery()) {
+                    if(resultSet.next()) seconds += resultSet.getLong(1);
+                }
+            }
+        }
+
+        return seconds;
+    }
+
+    /**
+     * Writes the sum of each player's daily play time between two days as the rollup for the period starting on the first day.
+     * @param statement The {@link PreparedStatement} for the rollup table.
+     * @param start The first day of the period.
+     * @param end The last day of the period.
+     * @throws SQLException if the rollup could not be written.
+     */
+    private void rollUpPeriod(@NotNull PreparedStatement statement, long start, long end) throws SQLException {
+        statement.setLong(1, start);
+        statement.setLong(2, start);
+        statement.setLong(3, end);
+        statement.executeUpdate();
+    }
+
+    /**
+     * Get the first day that has not been rolled up for the level provided.
+     * @param connection The {@link Connection} to use.
+     * @param level The rollup level, either weekly or monthly.
+     * @return The day as the number of days since the epoch, or 0 if nothing was rolled up yet.
+     * @throws SQLException if the table could not be read.
+     */
+    private long getRolledUpUntil(@NotNull Connection connection, @NotNull String level) throws SQLException {
+        try(PreparedStatement statement = connection.prepareStatement("SELECT rolled_up_until FROM " + rollupsTableName + " WHERE level = ?")) {
+            statement.setString(1, level);
+
+            try(ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Sets the first day that has not been rolled up for the level provided.
+     * @param connection The {@link Connection} to use.
+     * @param level The rollup level, either weekly or monthly.
+     * @param day The day as the number of days since the epoch.
+     * @throws SQLException if the table could not be updated.
+     */
+    private void setRolledUpUntil(@NotNull Connection connection, @NotNull String level, long day) throws SQLException {
+        try(PreparedStatement statement = connection.prepareStatement("UPDATE " + rollupsTableName + " SET rolled_up_until = ? WHERE level = ?")) {
+            statement.setLong(1, day);
+            statement.setString(2, level);
+            statement.executeUpdate();
+        }
+    }
+}
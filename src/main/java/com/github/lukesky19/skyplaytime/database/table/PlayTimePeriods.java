@@ -0,0 +1,145 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.table;
+
+import com.github.lukesky19.skyplaytime.util.TimeCategory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class stores the current period of each stored play time column.
+ * A stored value only counts if its period matches the current period, so advancing a period resets the column for every player at once.
+ */
+final class PlayTimePeriods {
+    /**
+     * The play time categories that are stored in the database, in column order.
+     */
+    static final @NotNull TimeCategory @NotNull [] CATEGORIES = {
+            TimeCategory.DAILY,
+            TimeCategory.WEEKLY,
+            TimeCategory.MONTHLY,
+            TimeCategory.YEARLY,
+            TimeCategory.TOTAL
+    };
+
+    private final @NotNull AtomicLongArray periods = new AtomicLongArray(CATEGORIES.length);
+
+    /**
+     * Constructor
+     */
+    PlayTimePeriods() {}
+
+    /**
+     * Get the name of the column that stores the play time for the provided {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory}.
+     * @return The column name.
+     */
+    static @NotNull String getColumn(@NotNull TimeCategory timeCategory) {
+        return CATEGORIES[getIndex(timeCategory)].toString().toLowerCase();
+    }
+
+    /**
+     * Get the name of the column that stores the period for the provided {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory}.
+     * @return The period column name.
+     */
+    static @NotNull String getPeriodColumn(@NotNull TimeCategory timeCategory) {
+        return getColumn(timeCategory) + "_period";
+    }
+
+    /**
+     * Get the current period for the provided {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory}.
+     * @return The current period.
+     */
+    long get(@NotNull TimeCategory timeCategory) {
+        return periods.get(getIndex(timeCategory));
+    }
+
+    /**
+     * Sets the current period for the provided {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory}.
+     * @param period The current period.
+     */
+    void set(@NotNull TimeCategory timeCategory, long period) {
+        periods.set(getIndex(timeCategory), period);
+    }
+
+    /**
+     * Adopts the period provided for the {@link TimeCategory} if it is newer than the current period.
+     * @param timeCategory The {@link TimeCategory}.
+     * @param period The period to adopt.
+     * @return true if the current period changed, false if it was already the same or newer.
+     */
+    boolean adopt(@NotNull TimeCategory timeCategory, long period) {
+        int index = getIndex(timeCategory);
+        return periods.getAndAccumulate(index, period, Math::max) < period;
+    }
+
+    /**
+     * Advances the current period for the provided {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory}.
+     * @return The new current period.
+     */
+    long advance(@NotNull TimeCategory timeCategory) {
+        return periods.incrementAndGet(getIndex(timeCategory));
+    }
+
+    /**
+     * Copies the current periods, in the order of {@link #CATEGORIES}.
+     * @return A new array containing the current periods.
+     */
+    long @NotNull [] snapshot() {
+        long[] snapshot = new long[CATEGORIES.length];
+        for(int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = periods.get(i);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Gets the value that counts for the current period.
+     * @param timeCategory The {@link TimeCategory} of the value.
+     * @param value The stored value.
+     * @param period The stored period of the value.
+     * @return The stored value if it belongs to the current period, otherwise 0.
+     */
+    long getCurrentValue(@NotNull TimeCategory timeCategory, long value, long period) {
+        return period == get(timeCategory) ? value : 0;
+    }
+
+    /**
+     * Get the index of the provided {@link TimeCategory} in {@link #CATEGORIES}.
+     * {@link TimeCategory#ALL} uses the total play time.
+     * @param timeCategory The {@link TimeCategory}.
+     * @return The index.
+     * @throws IllegalArgumentException if the {@link TimeCategory} is not stored in the database.
+     */
+    static int getIndex(@NotNull TimeCategory timeCategory) {
+        return switch(timeCategory) {
+            case DAILY -> 0;
+            case WEEKLY -> 1;
+            case MONTHLY -> 2;
+            case YEARLY -> 3;
+            case TOTAL, ALL -> 4;
+            case SESSION -> throw new IllegalArgumentException("Session play time is not stored in the database.");
+        };
+    }
+}
@@ -17,60 +17,116 @@
 */
 package com.github.lukesky19.skyplaytime.database.table;
 
-import com.github.lukesky19.skylib.api.database.parameter.Parameter;
-import com.github.lukesky19.skylib.api.database.parameter.impl.*;
+import com.github.lukesky19.skyplaytime.database.codec.UUIDCodec;
+import com.github.lukesky19.skyplaytime.database.data.SaveResult;
+import com.github.lukesky19.skyplaytime.database.data.StoredPlayTime;
+import com.github.lukesky19.skyplaytime.database.migration.MigratableTable;
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import com.github.lukesky19.skyplaytime.database.migration.players.BlobUUIDMigration;
+import com.github.lukesky19.skyplaytime.database.migration.players.CreatePlayersTableMigration;
+import com.github.lukesky19.skyplaytime.database.migration.players.LeaderboardIndexesMigration;
+import com.github.lukesky19.skyplaytime.database.migration.players.LeaderboardKeysetIndexesMigration;
+import com.github.lukesky19.skyplaytime.database.migration.players.PlayTimePeriodsMigration;
+import com.github.lukesky19.skyplaytime.database.queue.ConnectionTask;
 import com.github.lukesky19.skyplaytime.database.queue.QueueManager;
 import com.github.lukesky19.skyplaytime.leaderboard.data.Position;
-import com.github.lukesky19.skyplaytime.leaderboard.data.TopTen;
 import com.github.lukesky19.skyplaytime.player.data.PlayerData;
+import com.github.lukesky19.skyplaytime.util.SaveMode;
 import com.github.lukesky19.skyplaytime.util.TimeCategory;
-import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class handles the players table that stores player data.
+ * UUIDs are stored as 16-byte BLOBs using the {@link UUIDCodec}.
+ * Each play time column has a period column, and a stored value only counts while its period is the current period stored in the periods table.
  */
-public class PlayTimeTable {
+public class PlayTimeTable implements MigratableTable {
     private final @NotNull QueueManager queueManager;
-    private final @NotNull VersionsTable versionsTable;
+    private static final int MAX_LOAD_BATCH_SIZE = 500;
+
     private final @NotNull String tableName = "players";
+    private final @NotNull String periodsTableName = "play_time_periods";
+    private final @NotNull PlayTimePeriods playTimePeriods = new PlayTimePeriods();
+    private final @NotNull SaveBuffer saveBuffer = new SaveBuffer();
+    private final @NotNull AtomicBoolean saveBufferInUse = new AtomicBoolean(false);
 
     /**
      * Constructor
      * @param queueManager A {@link QueueManager} instance.
-     * @param versionsTable A {@link VersionsTable} instance.
      */
-    public PlayTimeTable(
-            @NotNull QueueManager queueManager,
-            @NotNull VersionsTable versionsTable) {
+    public PlayTimeTable(@NotNull QueueManager queueManager) {
         this.queueManager = queueManager;
-        this.versionsTable = versionsTable;
     }
 
     /**
-     * Creates a table to store all {@link Player}'s {@link UUID}s as a string.
-     * Queues the table creation and index creation sql.
+     * Get the name of the table.
+     * @return The name of the table.
+     */
+    @Override
+    public @NotNull String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Get the migrations for the players table.
+     * @return A {@link List} of {@link Migration}s.
+     */
+    @Override
+    public @NotNull List<@NotNull Migration> getMigrations() {
+        return List.of(
+                new CreatePlayersTableMigration(tableName),
+                new LeaderboardIndexesMigration(tableName),
+                new BlobUUIDMigration(tableName),
+                new PlayTimePeriodsMigration(tableName, periodsTableName),
+                new LeaderboardKeysetIndexesMigration(tableName));
+    }
+
+    /**
+     * Loads the current period of each play time column from the database.
+     * This must complete before any player data is loaded or saved.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
      */
-    public void createTable() {
-        String tableCreationSql = "CREATE TABLE IF NOT EXISTS " + tableName + " (" +
-                "uuid TEXT PRIMARY KEY NOT NULL UNIQUE, " +
-                "name TEXT NOT NULL, " +
-                "daily LONG NOT NULL DEFAULT 0, " +
-                "weekly LONG NOT NULL DEFAULT 0, " +
-                "monthly LONG NOT NULL DEFAULT 0, " +
-                "yearly LONG NOT NULL DEFAULT 0, " +
-                "total LONG NOT NULL DEFAULT 0, " +
-                "exempt INTEGER NOT NULL DEFAULT 0, " +
-                "last_updated LONG NOT NULL DEFAULT 0)";
-        String indexCreationSql = "CREATE INDEX IF NOT EXISTS idx_player_uuids ON " + tableName + "(uuid);";
-
-        queueManager.queueBulkWriteTransaction(List.of(tableCreationSql, indexCreationSql));
-
-        versionsTable.updateVersion(tableName, 1);
+    public @NotNull CompletableFuture<Void> loadPeriods() {
+        return queueManager.queueOrderedReadTask("load_periods", connection -> {
+            refreshPeriods(connection);
+            return null;
+        });
+    }
+
+    /**
+     * Reads the current period of each play time column from the database and adopts any that are newer than the periods in memory.
+     * Another server sharing the database may have reset play time since the periods were last read.
+     * The periods read are returned instead of the periods in memory, as a reset on this server advances the periods in memory before its update is written.
+     * @param connection The {@link Connection} to use.
+     * @return The periods stored in the database, in the order of {@link PlayTimePeriods#CATEGORIES}.
+     * @throws SQLException if the periods could not be read.
+     */
+    private long @NotNull [] refreshPeriods(@NotNull Connection connection) throws SQLException {
+        String selectSql = "SELECT category, period FROM " + periodsTableName;
+        long[] periods = new long[PlayTimePeriods.CATEGORIES.length];
+
+        try(PreparedStatement statement = connection.prepareStatement(selectSql);
+            ResultSet resultSet = statement.executeQuery()) {
+            while(resultSet.next()) {
+                TimeCategory timeCategory = TimeCategory.valueOf(resultSet.getString("category").toUpperCase());
+                long period = resultSet.getLong("period");
+
+                periods[PlayTimePeriods.getIndex(timeCategory)] = period;
+                playTimePeriods.adopt(timeCategory, period);
+            }
+        }
+
+        return periods;
     }
 
     /**
@@ -80,24 +136,121 @@ public class PlayTimeTable {
      * @return A {@link CompletableFuture} with {@link PlayerData} when complete. The {@link PlayerData} passed to the method will be updated as well.
      */
     public @NotNull CompletableFuture<@NotNull PlayerData> loadPlayerData(@NotNull UUID uuid, @NotNull PlayerData playerData) {
-        String selectSql = "SELECT daily, weekly, monthly, yearly, total, exempt FROM " + tableName + " WHERE uuid = ?";
-        UUIDParameter uuidParameter = new UUIDParameter(uuid);
-
-        return queueManager.queueReadTransaction(selectSql, List.of(uuidParameter), resultSet -> {
-            try {
-                if(resultSet.next()) {
-                    playerData.setDailyPlayTime(playerData.getDailyPlayTimeSeconds() + resultSet.getLong("daily"));
-                    playerData.setWeeklyPlayTime(playerData.getWeeklyPlayTimeSeconds() + resultSet.getLong("weekly"));
-                    playerData.setMonthlyPlayTime(playerData.getMonthlyPlayTimeSeconds() + resultSet.getLong("monthly"));
-                    playerData.setYearlyPlayTime(playerData.getYearlyPlayTimeSeconds() + resultSet.getLong("yearly"));
-                    playerData.setTotalPlayTime(playerData.getTotalPlayTimeSeconds() + resultSet.getLong("total"));
-                    playerData.setExempt(resultSet.getBoolean("exempt"));
+        return loadPlayerData(Map.of(uuid, playerData)).thenApply(v -> playerData);
+    }
+
+    /**
+     * Loads the play time and exemption status of multiple players from the database.
+     * Players are loaded in chunks of up to {@value #MAX_LOAD_BATCH_SIZE} using a single query per chunk.
+     * @param playerDataMap A {@link Map} mapping {@link UUID}s to the {@link PlayerData} to put data into.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete. The {@link PlayerData} in the map will be updated.
+     */
+    public @NotNull CompletableFuture<Void> loadPlayerData(@NotNull Map<@NotNull UUID, @NotNull PlayerData> playerDataMap) {
+        if(playerDataMap.isEmpty()) return CompletableFuture.completedFuture(null);
+        List<UUID> uuids = List.copyOf(playerDataMap.keySet());
+
+        // Ordered with writes, so a player who rejoins loads the data saved when they left.
+        return queueManager.queueOrderedReadTask("load_player_data", connection -> {
+            for(int start = 0; start < uuids.size(); start += MAX_LOAD_BATCH_SIZE) {
+                List<UUID> chunk = uuids.subList(start, Math.min(start + MAX_LOAD_BATCH_SIZE, uuids.size()));
+                String selectSql = "SELECT uuid, " + getSelectColumnsSql() + ", exempt FROM " + tableName +
+                        " WHERE uuid IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                try(PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                    for(int i = 0; i < chunk.size(); i++) {
+                        UUIDCodec.bind(statement, i + 1, chunk.get(i));
+                    }
+
+                    try(ResultSet resultSet = statement.executeQuery()) {
+                        while(resultSet.next()) {
+                            PlayerData playerData = playerDataMap.get(UUIDCodec.read(resultSet, "uuid"));
+                            if(playerData != null) applyLoadedPlayerData(resultSet, playerData);
+                        }
+                    }
                 }
+            }
+
+            return null;
+        });
+    }
+
+    /**
+     * Reads the stored play time and exemption status of a player without loading them into a {@link PlayerData}.
+     * @param uuid The {@link UUID} of the player.
+     * @return A {@link CompletableFuture} containing the {@link StoredPlayTime} or null if the player is not in the database.
+     */
+    public @NotNull CompletableFuture<@Nullable StoredPlayTime> getStoredPlayTime(@NotNull UUID uuid) {
+        return getStoredPlayTimes(List.of(uuid)).thenApply(storedPlayTimes -> storedPlayTimes.get(uuid));
+    }
+
+    /**
+     * Reads the stored play time and exemption status of multiple players without loading them into {@link PlayerData}.
+     * Players are read in chunks of up to {@value #MAX_LOAD_BATCH_SIZE} using a single query per chunk.
+     * @param uuids The {@link UUID}s of the players.
+     * @return A {@link CompletableFuture} containing a {@link Map} mapping {@link UUID}s to {@link StoredPlayTime}. Players that are not in the database are not included.
+     */
+    public @NotNull CompletableFuture<@NotNull Map<@NotNull UUID, @NotNull StoredPlayTime>> getStoredPlayTimes(@NotNull Collection<@NotNull UUID> uuids) {
+        if(uuids.isEmpty()) return CompletableFuture.completedFuture(new HashMap<>());
+        List<UUID> uuidList = List.copyOf(uuids);
 
-                return playerData;
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
+        return queueManager.queueReadTask("get_stored_play_times", connection -> {
+            Map<UUID, StoredPlayTime> storedPlayTimes = new HashMap<>(uuidList.size());
+
+            for(int start = 0; start < uuidList.size(); start += MAX_LOAD_BATCH_SIZE) {
+                List<UUID> chunk = uuidList.subList(start, Math.min(start + MAX_LOAD_BATCH_SIZE, uuidList.size()));
+                String selectSql = "SELECT uuid, name, " + getSelectColumnsSql() + ", exempt FROM " + tableName +
+                        " WHERE uuid IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                try(PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                    for(int i = 0; i < chunk.size(); i++) {
+                        UUIDCodec.bind(statement, i + 1, chunk.get(i));
+                    }
+
+                    try(ResultSet resultSet = statement.executeQuery()) {
+                        while(resultSet.next()) {
+                            storedPlayTimes.put(UUIDCodec.read(resultSet, "uuid"), new StoredPlayTime(
+                                    resultSet.getString("name"),
+                                    getCurrentValue(resultSet, TimeCategory.DAILY),
+                                    getCurrentValue(resultSet, TimeCategory.WEEKLY),
+                                    getCurrentValue(resultSet, TimeCategory.MONTHLY),
+                                    getCurrentValue(resultSet, TimeCategory.YEARLY),
+                                    getCurrentValue(resultSet, TimeCategory.TOTAL),
+                                    resultSet.getBoolean("exempt")));
+                        }
+                    }
+                }
+            }
+
+            return storedPlayTimes;
+        });
+    }
+
+    /**
+     * Reads the stored play time of every player that is not exempt from leaderboard reporting.
+     * Used to build the rank indexes at startup, so it scans the whole table once.
+     * @return A {@link CompletableFuture} containing a {@link Map} mapping {@link UUID}s to {@link StoredPlayTime}.
+     */
+    public @NotNull CompletableFuture<@NotNull Map<@NotNull UUID, @NotNull StoredPlayTime>> getAllStoredPlayTimesNotExempt() {
+        String selectSql = "SELECT uuid, name, " + getSelectColumnsSql() + " FROM " + tableName + " WHERE exempt = 0";
+
+        return queueManager.queueReadTask("get_all_stored_play_times", connection -> {
+            Map<UUID, StoredPlayTime> storedPlayTimes = new HashMap<>();
+
+            try(PreparedStatement statement = connection.prepareStatement(selectSql);
+                ResultSet resultSet = statement.executeQuery()) {
+                while(resultSet.next()) {
+                    storedPlayTimes.put(UUIDCodec.read(resultSet, "uuid"), new StoredPlayTime(
+                            resultSet.getString("name"),
+                            getCurrentValue(resultSet, TimeCategory.DAILY),
+                            getCurrentValue(resultSet, TimeCategory.WEEKLY),
+                            getCurrentValue(resultSet, TimeCategory.MONTHLY),
+                            getCurrentValue(resultSet, TimeCategory.YEARLY),
+                            getCurrentValue(resultSet, TimeCategory.TOTAL),
+                            false));
+                }
             }
+
+            return storedPlayTimes;
         });
     }
 
@@ -105,10 +258,22 @@ public class PlayTimeTable {
      * Saves the player data for a single player.
      * @param uuid The {@link UUID} of the player.
      * @param playerData The {@link PlayerData} for the player.
+     * @param saveMode The {@link SaveMode} to write play time with.
      * @return A {@link CompletableFuture} of type {@link Void} when complete.
      */
-    public @NotNull CompletableFuture<Void> savePlayerData(@NotNull UUID uuid, @NotNull PlayerData playerData) {
-        String updateSql = "INSERT INTO " + tableName + " (" +
+    public @NotNull CompletableFuture<Void> savePlayerData(@NotNull UUID uuid, @NotNull PlayerData playerData, @NotNull SaveMode saveMode) {
+        return savePlayerDataWithName(Map.of(uuid, playerData), saveMode);
+    }
+
+    /**
+     * Saves the player data and name of multiple players in a single batch, creating rows for players that are not stored yet.
+     * This is used when players join so that their names are kept up to date.
+     * @param playerDataMap A {@link Map} mapping {@link UUID}s to {@link PlayerData}.
+     * @param saveMode The {@link SaveMode} to write play time with.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> savePlayerDataWithName(@NotNull Map<@NotNull UUID, @NotNull PlayerData> playerDataMap, @NotNull SaveMode saveMode) {
+        String upsertSql = "INSERT INTO " + tableName + " (" +
                 "uuid, " +
                 "name, " +
                 "daily, " +
@@ -116,95 +281,174 @@ public class PlayTimeTable {
                 "monthly, " +
                 "yearly, " +
                 "total, " +
+                "daily_period, " +
+                "weekly_period, " +
+                "monthly_period, " +
+                "yearly_period, " +
+                "total_period, " +
                 "exempt, " +
                 "last_updated) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "VALUES (?, ?, MAX(?, 0), MAX(?, 0), MAX(?, 0), MAX(?, 0), MAX(?, 0), ?, ?, ?, ?, ?, ?, ?) " +
                 "ON CONFLICT (uuid) " +
                 "DO UPDATE SET " +
-                "name = ?, " +
-                "daily = ?, " +
-                "weekly = ?, " +
-                "monthly = ?, " +
-                "yearly = ?, " +
-                "total = ?, " +
-                "exempt = ?, " +
-                "last_updated = ? " +
-                "WHERE last_updated <= ?";
-
-        UUIDParameter uuidParameter = new UUIDParameter(uuid);
-        StringParameter nameParameter = new StringParameter(playerData.getName());
-        LongParameter dailyTimeParameter = new LongParameter(playerData.getDailyPlayTimeSeconds());
-        LongParameter weeklyTimeParameter = new LongParameter(playerData.getWeeklyPlayTimeSeconds());
-        LongParameter monthlyTimeParameter = new LongParameter(playerData.getMonthlyPlayTimeSeconds());
-        LongParameter yearlyTimeParameter = new LongParameter(playerData.getYearlyPlayTimeSeconds());
-        LongParameter totalTimeParameter = new LongParameter(playerData.getTotalPlayTimeSeconds());
-        IntegerParameter exemptParameter = new IntegerParameter(playerData.isExempt() ? 1 : 0);
-        LongParameter timestampParameter = new LongParameter(System.currentTimeMillis());
-
-        List<Parameter<?>> parameters = List.of(
-                uuidParameter,
-                nameParameter,
-                dailyTimeParameter,
-                weeklyTimeParameter,
-                monthlyTimeParameter,
-                yearlyTimeParameter,
-                totalTimeParameter,
-                exemptParameter,
-                timestampParameter,
-                nameParameter,
-                dailyTimeParameter,
-                weeklyTimeParameter,
-                monthlyTimeParameter,
-                yearlyTimeParameter,
-                totalTimeParameter,
-                exemptParameter,
-                timestampParameter,
-                timestampParameter);
-
-        return queueManager.queueWriteTransaction(updateSql, parameters).thenRun(() -> {});
+                "name = excluded.name, " +
+                getUpdateColumnsSql(saveMode, true) +
+                "exempt = excluded.exempt, " +
+                "last_updated = excluded.last_updated" +
+                (saveMode == SaveMode.ABSOLUTE ? " WHERE last_updated <= excluded.last_updated" : "");
+
+        if(playerDataMap.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        // Names are saved rarely, so a new buffer is used instead of the shared one.
+        SaveBuffer buffer = new SaveBuffer(playerDataMap.size());
+        buffer.capturePeriods(playTimePeriods);
+        playerDataMap.forEach(buffer::add);
+        long timestamp = System.currentTimeMillis();
+
+        CompletableFuture<int[]> saveFuture;
+        try {
+            saveFuture = queueManager.queueWriteTask("save_player_data_with_name", connection -> {
+                if(saveMode == SaveMode.DELTA) buffer.adoptPeriods(refreshPeriods(connection));
+
+                try(PreparedStatement statement = connection.prepareStatement(upsertSql)) {
+                    for(int i = 0; i < buffer.size(); i++) {
+                        buffer.bindWithName(statement, i, saveMode, timestamp);
+                        statement.addBatch();
+                    }
+
+                    return statement.executeBatch();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            buffer.rollbackAll();
+            throw e;
+        }
+
+        return saveFuture
+                .whenComplete((rowsUpdated, throwable) -> {
+                    if(throwable != null) buffer.rollbackAll();
+                })
+                .thenAccept(rowsUpdated -> {
+                    for(int i = 0; i < rowsUpdated.length; i++) {
+                        if(rowsUpdated[i] > 0) {
+                            buffer.markSaved(i);
+                        } else {
+                            buffer.rollback(i);
+                        }
+                    }
+                });
     }
 
     /**
-     * Saves all player data to the database.
+     * Saves all player data that changed since the last successful save to the database.
+     * Player data that has not changed is skipped. All rows are written in a single batch using one timestamp.
+     * The values are captured into a reusable {@link SaveBuffer}, so a save does not allocate per player.
      * @param playerDataMap A {@link Map} mapping {@link UUID}s to {@link PlayerData}.
-     * @return A {@link CompletableFuture} of type {@link List} containing {@link Boolean}s when complete. true if successful, and false if not.
+     * @param saveMode The {@link SaveMode} to write play time with.
+     * @return A {@link CompletableFuture} containing a {@link SaveResult} when complete.
      */
-    public @NotNull CompletableFuture<@NotNull List<@NotNull Boolean>> savePlayerData(@NotNull Map<@NotNull UUID, @NotNull PlayerData> playerDataMap) {
-        List<List<Parameter<?>>> listOfParametersList = new ArrayList<>();
-        String updateSql = "UPDATE " + tableName + " SET daily = ?, weekly = ?, monthly = ?, yearly = ?, total = ?, exempt = ?, last_updated = ? WHERE uuid = ? AND last_updated < ?";
+    public @NotNull CompletableFuture<@NotNull SaveResult> savePlayerData(@NotNull Map<@NotNull UUID, @NotNull PlayerData> playerDataMap, @NotNull SaveMode saveMode) {
+        String updateSql = getSaveSql(saveMode);
 
-        playerDataMap.forEach((uuid, playerData) -> {
-            LongParameter dailyTimeParameter = new LongParameter(playerData.getDailyPlayTimeSeconds());
-            LongParameter weeklyTimeParameter = new LongParameter(playerData.getWeeklyPlayTimeSeconds());
-            LongParameter monthlyTimeParameter = new LongParameter(playerData.getMonthlyPlayTimeSeconds());
-            LongParameter yearlyTimeParameter = new LongParameter(playerData.getYearlyPlayTimeSeconds());
-            LongParameter totalTimeParameter = new LongParameter(playerData.getTotalPlayTimeSeconds());
-            IntegerParameter exemptParameter = new IntegerParameter(playerData.isExempt() ? 1 : 0);
-            LongParameter timestampParameter = new LongParameter(System.currentTimeMillis());
-            UUIDParameter uuidParameter = new UUIDParameter(uuid);
-            List<Parameter<?>> parameters = List.of(dailyTimeParameter, weeklyTimeParameter, monthlyTimeParameter, yearlyTimeParameter, totalTimeParameter, exemptParameter, timestampParameter, uuidParameter, timestampParameter);
-
-            listOfParametersList.add(parameters);
-        });
+        SaveBuffer buffer = acquireSaveBuffer(playerDataMap.size());
+        int skipped = captureDirty(buffer, playerDataMap);
+        if(buffer.size() == 0) {
+            releaseSaveBuffer(buffer);
+            return CompletableFuture.completedFuture(new SaveResult(0, skipped, 0, List.of()));
+        }
 
-        return queueManager.queueBulkWriteTransaction(updateSql, listOfParametersList).thenApply(list -> {
-                List<Boolean> results = new ArrayList<>();
+        // One timestamp is used for every row in the save.
+        long timestamp = System.currentTimeMillis();
 
-                list.forEach(rowsUpdated -> {
-                    if(rowsUpdated > 0) {
-                        results.add(true);
-                    } else  {
-                        results.add(false);
-                    }
+        CompletableFuture<int[]> saveFuture;
+        try {
+            saveFuture = queueManager.queueWriteTask("save_player_data", connection -> executeSave(connection, updateSql, buffer, saveMode, timestamp));
+        } catch (RejectedExecutionException e) {
+            // The task was never queued, so the completion below will never roll back or release the buffer.
+            buffer.rollbackAll();
+            releaseSaveBuffer(buffer);
+            throw e;
+        }
+
+        return saveFuture
+                .thenApply(rowsUpdated -> toSaveResult(buffer, rowsUpdated, skipped))
+                .whenComplete((result, throwable) -> {
+                    if(throwable != null) buffer.rollbackAll();
+                    releaseSaveBuffer(buffer);
                 });
+    }
+
+    /**
+     * Creates a {@link ConnectionTask} that saves all player data that changed since the last successful save, without queuing it.
+     * The values are captured when this is called. This is used to write the final save on shutdown in the same transaction as other writes.
+     * Player data is marked as saved before the transaction commits, so this should only be used when the player data will not be saved again.
+     * @param playerDataMap A {@link Map} mapping {@link UUID}s to {@link PlayerData}.
+     * @param saveMode The {@link SaveMode} to write play time with.
+     * @return A {@link ConnectionTask} containing a {@link SaveResult}.
+     */
+    public @NotNull ConnectionTask<@NotNull SaveResult> createFinalSaveTask(@NotNull Map<@NotNull UUID, @NotNull PlayerData> playerDataMap, @NotNull SaveMode saveMode) {
+        String updateSql = getSaveSql(saveMode);
+
+        // A new buffer is used so the task does not hold the shared buffer if it never runs.
+        SaveBuffer buffer = new SaveBuffer(playerDataMap.size());
+        int skipped = captureDirty(buffer, playerDataMap);
+        long timestamp = System.currentTimeMillis();
+
+        return connection -> {
+            if(buffer.size() == 0) return new SaveResult(0, skipped, 0, List.of());
+
+            return toSaveResult(buffer, executeSave(connection, updateSql, buffer, saveMode, timestamp), skipped);
+        };
+    }
 
-                return results;
+    /**
+     * Adds play time to the daily, weekly, monthly, yearly, and total play time of each player provided.
+     * This is used to replay play time from the journal that was not saved before the server stopped.
+     * The play time is added to the current periods. Players that are not stored in the database are ignored.
+     * @param playTimeMap A {@link Map} mapping {@link UUID}s to the play time in seconds to add.
+     * @return A {@link CompletableFuture} containing the number of players that were updated.
+     */
+    public @NotNull CompletableFuture<@NotNull Integer> addPlayTime(@NotNull Map<@NotNull UUID, @NotNull Long> playTimeMap) {
+        String updateSql = "UPDATE " + tableName + " SET " +
+                getUpdateColumnsSql(SaveMode.DELTA, false) +
+                "last_updated = ? " +
+                "WHERE uuid = ?";
+
+        if(playTimeMap.isEmpty()) return CompletableFuture.completedFuture(0);
+        long timestamp = System.currentTimeMillis();
+        long[] periods = playTimePeriods.snapshot();
+
+        return queueManager.queueWriteTask("add_play_time", connection -> {
+            try(PreparedStatement statement = connection.prepareStatement(updateSql)) {
+                for(Map.Entry<UUID, Long> entry : playTimeMap.entrySet()) {
+                    long seconds = entry.getValue();
+
+                    int parameter = 1;
+                    for(long period : periods) {
+                        parameter = SaveBuffer.bindPeriodValue(statement, parameter, SaveMode.DELTA, period, seconds);
+                    }
+                    statement.setLong(parameter++, timestamp);
+                    UUIDCodec.bind(statement, parameter, entry.getKey());
+
+                    statement.addBatch();
+                }
+
+                int updated = 0;
+                for(int rowsUpdated : statement.executeBatch()) {
+                    if(rowsUpdated > 0) updated++;
+                }
+
+                return updated;
             }
-        );
+        });
     }
 
     /**
      * Resets play time using the boolean options provided.
+     * Only the current period of each reset column is advanced, so the reset takes the same time no matter how many players are stored.
+     * Stored values from an older period are read as 0 and are replaced the next time the player is saved.
+     * Player data captured for a save before this is called keeps the old period, so it can not restore play time from before the reset.
+     * This must be called on the thread that captures player data for saves, so those saves are always queued before the reset.
      * @param daily Should all daily play time be reset?
      * @param weekly Should all weekly play time be reset?
      * @param monthly Should all monthly play time be reset?
@@ -213,48 +457,266 @@ public class PlayTimeTable {
      * @return A {@link CompletableFuture} containing a {@link Boolean}. true if the reset succeeded, false if not.
      */
     public @NotNull CompletableFuture<@NotNull Boolean> resetPlayTime(boolean daily, boolean weekly, boolean monthly, boolean yearly, boolean total) {
-        StringBuilder sqlBuilder = new StringBuilder("UPDATE " + tableName + " SET ");
-        if(daily) sqlBuilder.append("daily = 0, ");
-        if(weekly) sqlBuilder.append("weekly = 0, ");
-        if(monthly) sqlBuilder.append("monthly = 0, ");
-        if(yearly) sqlBuilder.append("yearly = 0, ");
-        if(total) sqlBuilder.append("total = 0, ");
-        sqlBuilder.append("last_updated = ? WHERE last_updated < ?");
-
-        String updateSql = sqlBuilder.toString();
-        LongParameter timestampParameter = new LongParameter(System.currentTimeMillis());
-
-        return queueManager.queueWriteTransaction(updateSql, List.of(timestampParameter, timestampParameter)).thenApply(rowsUpdated -> rowsUpdated > 0);
+        String updateSql = "UPDATE " + periodsTableName + " SET period = ? WHERE category = ?";
+
+        Map<TimeCategory, Long> periods = new EnumMap<>(TimeCategory.class);
+        if(daily) periods.put(TimeCategory.DAILY, playTimePeriods.advance(TimeCategory.DAILY));
+        if(weekly) periods.put(TimeCategory.WEEKLY, playTimePeriods.advance(TimeCategory.WEEKLY));
+        if(monthly) periods.put(TimeCategory.MONTHLY, playTimePeriods.advance(TimeCategory.MONTHLY));
+        if(yearly) periods.put(TimeCategory.YEARLY, playTimePeriods.advance(TimeCategory.YEARLY));
+        if(total) periods.put(TimeCategory.TOTAL, playTimePeriods.advance(TimeCategory.TOTAL));
+
+        return queueManager.queueWriteTask("reset_play_time", connection -> {
+            try(PreparedStatement statement = connection.prepareStatement(updateSql)) {
+                for(Map.Entry<TimeCategory, Long> entry : periods.entrySet()) {
+                    statement.setLong(1, entry.getValue());
+                    statement.setString(2, PlayTimePeriods.getColumn(entry.getKey()));
+                    statement.addBatch();
+                }
+
+                for(int rowsUpdated : statement.executeBatch()) {
+                    if(rowsUpdated == 0) return false;
+                }
+
+                return true;
+            }
+        });
     }
 
     /**
-     * Retrieves the {@link TopTen} for the {@link TimeCategory} provided that are not exempt.
-     * {@link TimeCategory#SESSION} will return a {@link TopTen} with all null values.
+     * Retrieves players that are not exempt in leaderboard order for the {@link TimeCategory} provided, highest play time first.
+     * Pages are read with keyset pagination: the query seeks past the provided {@link Position} using the leaderboard index,
+     * so a deep page costs the same as the first page.
+     * {@link TimeCategory#SESSION} will always return an empty {@link List} as session play time is not stored.
      * @param timeCategory The {@link TimeCategory} to sort the query to get player data for.
-     * @return A {@link CompletableFuture} containing the {@link TopTen} for the {@link TimeCategory} provided.
+     * @param after The last {@link Position} of the previous page, or null to start from the first position.
+     * @param limit The maximum number of positions to return.
+     * @return A {@link CompletableFuture} containing a {@link List} of {@link Position}s.
      */
-    public @NotNull CompletableFuture<@NotNull TopTen> getTopTenByCategoryNotExempt(@NotNull TimeCategory timeCategory) {
-        if(timeCategory == TimeCategory.SESSION) return CompletableFuture.completedFuture(new TopTen());
+    public @NotNull CompletableFuture<@NotNull List<@NotNull Position>> getPositionsNotExempt(@NotNull TimeCategory timeCategory, @Nullable Position after, int limit) {
+        if(timeCategory == TimeCategory.SESSION || limit <= 0) return CompletableFuture.completedFuture(new ArrayList<>());
         if(timeCategory == TimeCategory.ALL) timeCategory = TimeCategory.TOTAL;
-        String timeCategoryName = timeCategory.toString().toLowerCase();
+        String timeCategoryName = PlayTimePeriods.getColumn(timeCategory);
+        long period = playTimePeriods.get(timeCategory);
 
-        String sql = "SELECT uuid, name, " + timeCategoryName + " FROM players WHERE exempt = 0 ORDER BY " + timeCategoryName + " DESC LIMIT 10";
-        return queueManager.queueReadTransaction(sql, resultSet -> {
-            List<Position> positionList = new LinkedList<>();
+        String sql = "SELECT uuid, name, " + timeCategoryName + " FROM " + tableName +
+                " WHERE exempt = 0 AND " + PlayTimePeriods.getPeriodColumn(timeCategory) + " = ?" +
+                (after != null ? " AND (" + timeCategoryName + ", uuid) < (?, ?)" : "") +
+                " ORDER BY " + timeCategoryName + " DESC, uuid DESC LIMIT ?";
+        return queueManager.queueReadTask(after == null ? "get_top_positions" : "get_positions_after", connection -> {
+            List<Position> positionList = new ArrayList<>(limit);
 
-            try {
-                while(resultSet.next()) {
-                    UUID uuid = UUID.fromString(resultSet.getString("uuid"));
-                    String name = resultSet.getString("name");
-                    int seconds = resultSet.getInt(timeCategoryName);
+            try(PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = 1;
+                statement.setLong(index++, period);
+                if(after != null) {
+                    statement.setLong(index++, after.seconds());
+                    UUIDCodec.bind(statement, index++, after.uuid());
+                }
+                statement.setInt(index, limit);
+
+                try(ResultSet resultSet = statement.executeQuery()) {
+                    while(resultSet.next()) {
+                        UUID uuid = UUIDCodec.read(resultSet, "uuid");
+                        String name = resultSet.getString("name");
+                        long seconds = resultSet.getLong(timeCategoryName);
 
-                    positionList.add(new Position(uuid, name, seconds));
+                        positionList.add(new Position(uuid, name, seconds));
+                    }
                 }
+            }
+
+            return positionList;
+        });
+    }
+
+    /**
+     * Adds the play time stored in the current row of the {@link ResultSet} to the {@link PlayerData} and sets its exemption status.
+     * @param resultSet The {@link ResultSet} positioned at the player's row.
+     * @param playerData The {@link PlayerData} to put data into.
+     * @throws SQLException if the row could not be read.
+     */
+    private void applyLoadedPlayerData(@NotNull ResultSet resultSet, @NotNull PlayerData playerData) throws SQLException {
+        long daily = getCurrentValue(resultSet, TimeCategory.DAILY);
+        long weekly = getCurrentValue(resultSet, TimeCategory.WEEKLY);
+        long monthly = getCurrentValue(resultSet, TimeCategory.MONTHLY);
+        long yearly = getCurrentValue(resultSet, TimeCategory.YEARLY);
+        long total = getCurrentValue(resultSet, TimeCategory.TOTAL);
+
+        playerData.setDailyPlayTime(playerData.getDailyPlayTimeSeconds() + daily);
+        playerData.setWeeklyPlayTime(playerData.getWeeklyPlayTimeSeconds() + weekly);
+        playerData.setMonthlyPlayTime(playerData.getMonthlyPlayTimeSeconds() + monthly);
+        playerData.setYearlyPlayTime(playerData.getYearlyPlayTimeSeconds() + yearly);
+        playerData.setTotalPlayTime(playerData.getTotalPlayTimeSeconds() + total);
+        playerData.setExempt(resultSet.getBoolean("exempt"));
+
+        // The loaded play time is already stored, only play time gained before the load finished still needs to be saved.
+        playerData.setFlushedPlayTime(TimeCategory.DAILY, daily);
+        playerData.setFlushedPlayTime(TimeCategory.WEEKLY, weekly);
+        playerData.setFlushedPlayTime(TimeCategory.MONTHLY, monthly);
+        playerData.setFlushedPlayTime(TimeCategory.YEARLY, yearly);
+        playerData.setFlushedPlayTime(TimeCategory.TOTAL, total);
+    }
+
+    /**
+     * Get the value of a play time column in the current row of the {@link ResultSet} that counts for the current period.
+     * @param resultSet The {@link ResultSet} positioned at the player's row.
+     * @param timeCategory The {@link TimeCategory} of the column.
+     * @return The stored value, or 0 if it belongs to an older period.
+     * @throws SQLException if the row could not be read.
+     */
+    private long getCurrentValue(@NotNull ResultSet resultSet, @NotNull TimeCategory timeCategory) throws SQLException {
+        return playTimePeriods.getCurrentValue(
+                timeCategory,
+                resultSet.getLong(PlayTimePeriods.getColumn(timeCategory)),
+                resultSet.getLong(PlayTimePeriods.getPeriodColumn(timeCategory)));
+    }
+
+    /**
+     * Get the sql that selects each play time column and its period column.
+     * @return The comma separated column names.
+     */
+    private @NotNull String getSelectColumnsSql() {
+        StringJoiner columns = new StringJoiner(", ");
+        for(TimeCategory timeCategory : PlayTimePeriods.CATEGORIES) {
+            columns.add(PlayTimePeriods.getColumn(timeCategory));
+            columns.add(PlayTimePeriods.getPeriodColumn(timeCategory));
+        }
+
+        return columns.toString();
+    }
+
+    /**
+     * Get the sql that sets each play time column and its period column for the {@link SaveMode} provided.
+     * {@link SaveMode#ABSOLUTE} replaces the stored value, while {@link SaveMode#DELTA} adds to it without going below 0.
+     * A value from an older period than the stored one is ignored, and a value from a newer period replaces the stored one.
+     * When parameters are used, the parameters for each column are bound using {@link SaveBuffer#bindPeriodValue(PreparedStatement, int, SaveMode, long, long)}.
+     * @param saveMode The {@link SaveMode}.
+     * @param excluded Should the values be read from the excluded row of an upsert instead of parameters?
+     * @return The sql to set the play time columns, ending with a comma and space.
+     */
+    private @NotNull String getUpdateColumnsSql(@NotNull SaveMode saveMode, boolean excluded) {
+        StringBuilder sqlBuilder = new StringBuilder();
+
+        for(TimeCategory timeCategory : PlayTimePeriods.CATEGORIES) {
+            String column = PlayTimePeriods.getColumn(timeCategory);
+            String periodColumn = PlayTimePeriods.getPeriodColumn(timeCategory);
+            String value = excluded ? "excluded." + column : "?";
+            String period = excluded ? "excluded." + periodColumn : "?";
 
-                return new TopTen(positionList);
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
+            switch(saveMode) {
+                case ABSOLUTE -> sqlBuilder.append(column).append(" = CASE WHEN ").append(periodColumn).append(" <= ").append(period)
+                        .append(" THEN ").append(value)
+                        .append(" ELSE ").append(column).append(" END, ");
+                case DELTA -> sqlBuilder.append(column).append(" = CASE WHEN ").append(periodColumn).append(" = ").append(period)
+                        .append(" THEN MAX(").append(column).append(" + ").append(value).append(", 0)")
+                        .append(" WHEN ").append(periodColumn).append(" < ").append(period)
+                        .append(" THEN MAX(").append(value).append(", 0)")
+                        .append(" ELSE ").append(column).append(" END, ");
             }
+
+            sqlBuilder.append(periodColumn).append(" = MAX(").append(periodColumn).append(", ").append(period).append("), ");
+        }
+
+        return sqlBuilder.toString();
+    }
+
+    /**
+     * Get the SQL used to save player data.
+     * @param saveMode The {@link SaveMode} to write play time with.
+     * @return The update SQL.
+     */
+    private @NotNull String getSaveSql(@NotNull SaveMode saveMode) {
+        return "UPDATE " + tableName + " SET " +
+                getUpdateColumnsSql(saveMode, false) +
+                "exempt = ?, " +
+                "last_updated = ? " +
+                "WHERE uuid = ?" +
+                (saveMode == SaveMode.ABSOLUTE ? " AND last_updated < ?" : "");
+    }
+
+    /**
+     * Captures the current periods and all player data that changed since the last successful save into the {@link SaveBuffer}.
+     * @param buffer The {@link SaveBuffer} to capture into.
+     * @param playerDataMap A {@link Map} mapping {@link UUID}s to {@link PlayerData}.
+     * @return The number of players that were skipped because their data did not change.
+     */
+    private int captureDirty(@NotNull SaveBuffer buffer, @NotNull Map<@NotNull UUID, @NotNull PlayerData> playerDataMap) {
+        buffer.capturePeriods(playTimePeriods);
+        playerDataMap.forEach((uuid, playerData) -> {
+            if(playerData.isDirty()) buffer.add(uuid, playerData);
         });
+
+        return playerDataMap.size() - buffer.size();
+    }
+
+    /**
+     * Writes the player data in the {@link SaveBuffer} in a single batch.
+     * {@link SaveMode#DELTA} saves re-read the periods first in the same transaction, so a save captured before another server reset play time
+     * adds its play time to the current period instead of being ignored.
+     * @param connection The {@link Connection} to use.
+     * @param updateSql The update SQL from {@link #getSaveSql(SaveMode)}.
+     * @param buffer The {@link SaveBuffer} containing the player data.
+     * @param saveMode The {@link SaveMode} to write play time with.
+     * @param timestamp The timestamp to write to every row.
+     * @return The number of rows updated for each player in the buffer.
+     * @throws SQLException if the batch fails.
+     */
+    private int @NotNull [] executeSave(@NotNull Connection connection, @NotNull String updateSql, @NotNull SaveBuffer buffer, @NotNull SaveMode saveMode, long timestamp) throws SQLException {
+        if(saveMode == SaveMode.DELTA) buffer.adoptPeriods(refreshPeriods(connection));
+
+        try(PreparedStatement statement = connection.prepareStatement(updateSql)) {
+            for(int i = 0; i < buffer.size(); i++) {
+                buffer.bind(statement, i, saveMode, timestamp);
+                statement.addBatch();
+            }
+
+            return statement.executeBatch();
+        }
+    }
+
+    /**
+     * Marks the rows that were written as saved, rolls back the rows that were not, and counts the result.
+     * @param buffer The {@link SaveBuffer} that was saved.
+     * @param rowsUpdated The number of rows updated for each player in the buffer.
+     * @param skipped The number of players that were skipped.
+     * @return A {@link SaveResult}.
+     */
+    private @NotNull SaveResult toSaveResult(@NotNull SaveBuffer buffer, int @NotNull [] rowsUpdated, int skipped) {
+        List<UUID> saved = new ArrayList<>(rowsUpdated.length);
+        int failed = 0;
+
+        for(int i = 0; i < rowsUpdated.length; i++) {
+            if(rowsUpdated[i] > 0) {
+                buffer.markSaved(i);
+                saved.add(buffer.getUUID(i));
+            } else {
+                buffer.rollback(i);
+                failed++;
+            }
+        }
+
+        return new SaveResult(saved.size(), skipped, failed, saved);
+    }
+
+    /**
+     * Get the shared {@link SaveBuffer} if no other save is using it, otherwise a new {@link SaveBuffer}.
+     * @param capacity The number of players the save may capture.
+     * @return A {@link SaveBuffer}.
+     */
+    private @NotNull SaveBuffer acquireSaveBuffer(int capacity) {
+        if(saveBufferInUse.compareAndSet(false, true)) return saveBuffer;
+
+        return new SaveBuffer(capacity);
+    }
+
+    /**
+     * Clears the {@link SaveBuffer} provided and makes the shared {@link SaveBuffer} available again if it was the one provided.
+     * @param buffer The {@link SaveBuffer} to release.
+     */
+    private void releaseSaveBuffer(@NotNull SaveBuffer buffer) {
+        buffer.clear();
+
+        if(buffer == saveBuffer) saveBufferInUse.set(false);
     }
 }
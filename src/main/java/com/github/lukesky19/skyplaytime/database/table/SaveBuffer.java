@@ -0,0 +1,319 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.table;
+
+import com.github.lukesky19.skyplaytime.database.codec.UUIDCodec;
+import com.github.lukesky19.skyplaytime.player.data.PlayerData;
+import com.github.lukesky19.skyplaytime.util.SaveMode;
+import com.github.lukesky19.skyplaytime.util.TimeCategory;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * This class stores the values captured for a bulk save in primitive arrays so that they can be reused between saves.
+ * Values are captured on the thread that modifies {@link PlayerData} and bound on the database thread.
+ * A buffer must only be used by one save at a time.
+ */
+final class SaveBuffer {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int size = 0;
+    // The periods the captured values belong to, in the order of PlayTimePeriods.CATEGORIES.
+    private long @NotNull [] periods = new long[PlayTimePeriods.CATEGORIES.length];
+    private @NotNull UUID[] uuids;
+    private @NotNull PlayerData[] playerData;
+    private boolean[] exempt;
+    private long[] generations;
+    private long[] captures;
+    private long[] resetGenerations;
+    // The absolute play time values, written by absolute saves.
+    private long[] daily;
+    private long[] weekly;
+    private long[] monthly;
+    private long[] yearly;
+    private long[] total;
+    // The play time that was already flushed when the values were captured, used to calculate deltas and to roll them back.
+    private long[] flushedDaily;
+    private long[] flushedWeekly;
+    private long[] flushedMonthly;
+    private long[] flushedYearly;
+    private long[] flushedTotal;
+
+    /**
+     * Constructor
+     */
+    SaveBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param capacity The initial number of players the buffer can hold.
+     */
+    SaveBuffer(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Get the number of players captured in the buffer.
+     * @return The number of players.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the {@link UUID} of the player at the index provided.
+     * @param index The index of the player in the buffer.
+     * @return The {@link UUID} of the player.
+     */
+    @NotNull UUID getUUID(int index) {
+        return uuids[index];
+    }
+
+    /**
+     * Captures the current periods that the values added afterward belong to.
+     * This must be called before any values are added, so that values captured after a reset are never written with the period before it.
+     * @param playTimePeriods The {@link PlayTimePeriods}.
+     */
+    void capturePeriods(@NotNull PlayTimePeriods playTimePeriods) {
+        periods = playTimePeriods.snapshot();
+    }
+
+    /**
+     * Replaces each captured period with the period provided if it is newer.
+     * This is used when another server sharing the database reset play time after the periods were captured,
+     * so the values are written to the current period instead of being ignored.
+     * Only periods read from the database in the save's transaction may be passed, so a reset that has not been written yet is never adopted.
+     * @param currentPeriods The periods stored in the database, in the order of {@link PlayTimePeriods#CATEGORIES}.
+     */
+    void adoptPeriods(long @NotNull [] currentPeriods) {
+        for(int i = 0; i < periods.length; i++) {
+            periods[i] = Math.max(periods[i], currentPeriods[i]);
+        }
+    }
+
+    /**
+     * Captures the values to write for a player and moves the player's flushed play time forward to them.
+     * Once the save completes, each player must be passed to either {@link #markSaved(int)} or {@link #rollback(int)}.
+     * @param uuid The {@link UUID} of the player.
+     * @param data The {@link PlayerData} for the player.
+     */
+    void add(@NotNull UUID uuid, @NotNull PlayerData data) {
+        if(size == uuids.length) grow();
+
+        uuids[size] = uuid;
+        playerData[size] = data;
+        exempt[size] = data.isExempt();
+        generations[size] = data.getGeneration();
+        captures[size] = data.captureSave();
+        resetGenerations[size] = data.getResetGeneration();
+        daily[size] = data.getDailyPlayTimeSeconds();
+        weekly[size] = data.getWeeklyPlayTimeSeconds();
+        monthly[size] = data.getMonthlyPlayTimeSeconds();
+        yearly[size] = data.getYearlyPlayTimeSeconds();
+        total[size] = data.getTotalPlayTimeSeconds();
+        // The flushed play time is moved forward now, so a save captured before this one completes does not write the same delta again.
+        flushedDaily[size] = data.advanceFlushedPlayTime(TimeCategory.DAILY, daily[size]);
+        flushedWeekly[size] = data.advanceFlushedPlayTime(TimeCategory.WEEKLY, weekly[size]);
+        flushedMonthly[size] = data.advanceFlushedPlayTime(TimeCategory.MONTHLY, monthly[size]);
+        flushedYearly[size] = data.advanceFlushedPlayTime(TimeCategory.YEARLY, yearly[size]);
+        flushedTotal[size] = data.advanceFlushedPlayTime(TimeCategory.TOTAL, total[size]);
+
+        size++;
+    }
+
+    /**
+     * Binds the values for the player at the index provided to the bulk save statement.
+     * The parameter order matches the statement built by {@link PlayTimeTable}.
+     * @param statement The {@link PreparedStatement} to bind to.
+     * @param index The index of the player in the buffer.
+     * @param saveMode The {@link SaveMode} to write play time with.
+     * @param timestamp The timestamp of the save.
+     * @throws SQLException if a value could not be bound.
+     */
+    void bind(@NotNull PreparedStatement statement, int index, @NotNull SaveMode saveMode, long timestamp) throws SQLException {
+        boolean delta = saveMode == SaveMode.DELTA;
+
+        int parameter = 1;
+        for(int category = 0; category < periods.length; category++) {
+            parameter = bindPeriodValue(statement, parameter, saveMode, periods[category], getValue(category, index, delta));
+        }
+
+        statement.setInt(parameter++, exempt[index] ? 1 : 0);
+        statement.setLong(parameter++, timestamp);
+        UUIDCodec.bind(statement, parameter++, uuids[index]);
+        if(!delta) statement.setLong(parameter, timestamp);
+    }
+
+    /**
+     * Binds the values and name for the player at the index provided to the statement that inserts or updates a player.
+     * The parameter order matches the statement built by {@link PlayTimeTable}.
+     * @param statement The {@link PreparedStatement} to bind to.
+     * @param index The index of the player in the buffer.
+     * @param saveMode The {@link SaveMode} to write play time with.
+     * @param timestamp The timestamp of the save.
+     * @throws SQLException if a value could not be bound.
+     */
+    void bindWithName(@NotNull PreparedStatement statement, int index, @NotNull SaveMode saveMode, long timestamp) throws SQLException {
+        boolean delta = saveMode == SaveMode.DELTA;
+
+        UUIDCodec.bind(statement, 1, uuids[index]);
+        statement.setString(2, playerData[index].getName());
+        for(int category = 0; category < periods.length; category++) {
+            statement.setLong(3 + category, getValue(category, index, delta));
+            statement.setLong(3 + periods.length + category, periods[category]);
+        }
+
+        int parameter = 3 + periods.length * 2;
+        statement.setInt(parameter++, exempt[index] ? 1 : 0);
+        statement.setLong(parameter, timestamp);
+    }
+
+    /**
+     * Binds the parameters that update a single play time column and its period.
+     * {@link SaveMode#ABSOLUTE} binds the period, the value, and the period.
+     * {@link SaveMode#DELTA} binds the period, the value, the period, the value, and the period.
+     * @param statement The {@link PreparedStatement} to bind to.
+     * @param parameter The index of the first parameter to bind.
+     * @param saveMode The {@link SaveMode} to write play time with.
+     * @param period The period the value belongs to.
+     * @param value The value or the delta to write.
+     * @return The index of the next parameter to bind.
+     * @throws SQLException if a value could not be bound.
+     */
+    static int bindPeriodValue(@NotNull PreparedStatement statement, int parameter, @NotNull SaveMode saveMode, long period, long value) throws SQLException {
+        statement.setLong(parameter++, period);
+        statement.setLong(parameter++, value);
+        if(saveMode == SaveMode.DELTA) {
+            statement.setLong(parameter++, period);
+            statement.setLong(parameter++, value);
+        }
+        statement.setLong(parameter++, period);
+
+        return parameter;
+    }
+
+    /**
+     * Marks the player at the index provided as saved.
+     * @param index The index of the player in the buffer.
+     */
+    void markSaved(int index) {
+        playerData[index].markSaved(generations[index], captures[index]);
+    }
+
+    /**
+     * Moves the flushed play time of the player at the index provided back by the deltas that were captured, so the next save writes them again.
+     * @param index The index of the player in the buffer.
+     */
+    void rollback(int index) {
+        playerData[index].rollbackSave(resetGenerations[index],
+                getValue(0, index, true),
+                getValue(1, index, true),
+                getValue(2, index, true),
+                getValue(3, index, true),
+                getValue(4, index, true));
+    }
+
+    /**
+     * Moves the flushed play time of every player in the buffer back, as the save failed.
+     */
+    void rollbackAll() {
+        for(int i = 0; i < size; i++) {
+            rollback(i);
+        }
+    }
+
+    /**
+     * Clears the buffer so it can be reused. The arrays are kept, but references to players are released.
+     */
+    void clear() {
+        Arrays.fill(uuids, 0, size, null);
+        Arrays.fill(playerData, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Get the value to write for a play time column of the player at the index provided.
+     * @param category The index of the column in {@link PlayTimePeriods#CATEGORIES}.
+     * @param index The index of the player in the buffer.
+     * @param delta Should the change since the last save be returned instead of the absolute value?
+     * @return The value to write.
+     */
+    private long getValue(int category, int index, boolean delta) {
+        return switch(category) {
+            case 0 -> delta ? daily[index] - flushedDaily[index] : daily[index];
+            case 1 -> delta ? weekly[index] - flushedWeekly[index] : weekly[index];
+            case 2 -> delta ? monthly[index] - flushedMonthly[index] : monthly[index];
+            case 3 -> delta ? yearly[index] - flushedYearly[index] : yearly[index];
+            case 4 -> delta ? total[index] - flushedTotal[index] : total[index];
+            default -> throw new IllegalArgumentException("Unknown play time column " + category);
+        };
+    }
+
+    /**
+     * Doubles the capacity of the buffer, keeping the captured values.
+     */
+    private void grow() {
+        int capacity = uuids.length * 2;
+
+        uuids = Arrays.copyOf(uuids, capacity);
+        playerData = Arrays.copyOf(playerData, capacity);
+        exempt = Arrays.copyOf(exempt, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        captures = Arrays.copyOf(captures, capacity);
+        resetGenerations = Arrays.copyOf(resetGenerations, capacity);
+        daily = Arrays.copyOf(daily, capacity);
+        weekly = Arrays.copyOf(weekly, capacity);
+        monthly = Arrays.copyOf(monthly, capacity);
+        yearly = Arrays.copyOf(yearly, capacity);
+        total = Arrays.copyOf(total, capacity);
+        flushedDaily = Arrays.copyOf(flushedDaily, capacity);
+        flushedWeekly = Arrays.copyOf(flushedWeekly, capacity);
+        flushedMonthly = Arrays.copyOf(flushedMonthly, capacity);
+        flushedYearly = Arrays.copyOf(flushedYearly, capacity);
+        flushedTotal = Arrays.copyOf(flushedTotal, capacity);
+    }
+
+    /**
+     * Allocates the arrays for the capacity provided.
+     * @param capacity The number of players the buffer can hold.
+     */
+    private void allocate(int capacity) {
+        uuids = new UUID[capacity];
+        playerData = new PlayerData[capacity];
+        exempt = new boolean[capacity];
+        generations = new long[capacity];
+        captures = new long[capacity];
+        resetGenerations = new long[capacity];
+        daily = new long[capacity];
+        weekly = new long[capacity];
+        monthly = new long[capacity];
+        yearly = new long[capacity];
+        total = new long[capacity];
+        flushedDaily = new long[capacity];
+        flushedWeekly = new long[capacity];
+        flushedMonthly = new long[capacity];
+        flushedYearly = new long[capacity];
+        flushedTotal = new long[capacity];
+    }
+}
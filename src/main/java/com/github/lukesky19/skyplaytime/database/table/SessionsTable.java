@@ -0,0 +1,207 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.database.table;
+
+import com.github.lukesky19.skyplaytime.database.codec.UUIDCodec;
+import com.github.lukesky19.skyplaytime.database.data.SessionRecord;
+import com.github.lukesky19.skyplaytime.database.migration.MigratableTable;
+import com.github.lukesky19.skyplaytime.database.migration.Migration;
+import com.github.lukesky19.skyplaytime.database.migration.sessions.CreateSessionsTableMigration;
+import com.github.lukesky19.skyplaytime.database.queue.ConnectionTask;
+import com.github.lukesky19.skyplaytime.database.queue.QueueManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class handles the sessions table that stores when players joined and left, and how long they were active and AFK in between.
+ */
+public class SessionsTable implements MigratableTable {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final @NotNull QueueManager queueManager;
+    private final @NotNull String tableName = "sessions";
+
+    /**
+     * Constructor
+     * @param queueManager A {@link QueueManager} instance.
+     */
+    public SessionsTable(@NotNull QueueManager queueManager) {
+        this.queueManager = queueManager;
+    }
+
+    /**
+     * Get the name of the table.
+     * @return The name of the table.
+     */
+    @Override
+    public @NotNull String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Get the migrations for the sessions table.
+     * @return A {@link List} of {@link Migration}s.
+     */
+    @Override
+    public @NotNull List<@NotNull Migration> getMigrations() {
+        return List.of(new CreateSessionsTableMigration(tableName));
+    }
+
+    /**
+     * Inserts the sessions provided in a single batch.
+     * @param sessionRecords A {@link List} of {@link SessionRecord}s to insert.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> addSessions(@NotNull List<@NotNull SessionRecord> sessionRecords) {
+        if(sessionRecords.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        return queueManager.queueWriteTask("add_sessions", createAddSessionsTask(sessionRecords)).thenRun(() -> {});
+    }
+
+    /**
+     * Creates a {@link ConnectionTask} that inserts the sessions provided in a single batch, without queuing it.
+     * @param sessionRecords A {@link List} of {@link SessionRecord}s to insert.
+     * @return A {@link ConnectionTask} containing the number of rows written.
+     */
+    public @NotNull ConnectionTask<@NotNull Integer> createAddSessionsTask(@NotNull List<@NotNull SessionRecord> sessionRecords) {
+        String insertSql = "INSERT INTO " + tableName + " (uuid, start_time, end_time, active_seconds, afk_seconds, sessions) VALUES (?, ?, ?, ?, ?, ?)";
+
+        return connection -> {
+            if(sessionRecords.isEmpty()) return 0;
+
+            try(PreparedStatement statement = connection.prepareStatement(insertSql)) {
+                for(SessionRecord sessionRecord : sessionRecords) {
+                    UUIDCodec.bind(statement, 1, sessionRecord.uuid());
+                    statement.setLong(2, sessionRecord.startTime());
+                    statement.setLong(3, sessionRecord.endTime());
+                    statement.setLong(4, sessionRecord.activeSeconds());
+                    statement.setLong(5, sessionRecord.afkSeconds());
+                    statement.setInt(6, sessionRecord.sessions());
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+            }
+
+            return sessionRecords.size();
+        };
+    }
+
+    /**
+     * Gets a player's sessions that started between two times, newest first.
+     * @param uuid The {@link UUID} of the player.
+     * @param fromMillis The earliest start time in milliseconds since the epoch.
+     * @param toMillis The latest start time in milliseconds since the epoch.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link CompletableFuture} containing a {@link List} of {@link SessionRecord}s.
+     */
+    public @NotNull CompletableFuture<@NotNull List<@NotNull SessionRecord>> getSessions(@NotNull UUID uuid, long fromMillis, long toMillis, int limit) {
+        String selectSql = "SELECT start_time, end_time, active_seconds, afk_seconds, sessions FROM " + tableName +
+                " WHERE uuid = ? AND start_time BETWEEN ? AND ? ORDER BY start_time DESC LIMIT ?";
+
+        return queueManager.queueReadTask("get_sessions", connection -> {
+            List<SessionRecord> sessionRecords = new ArrayList<>();
+
+            try(PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                UUIDCodec.bind(statement, 1, uuid);
+                statement.setLong(2, fromMillis);
+                statement.setLong(3, toMillis);
+                statement.setInt(4, limit);
+
+                try(ResultSet resultSet = statement.executeQuery()) {
+                    while(resultSet.next()) {
+                        sessionRecords.add(new SessionRecord(
+                                uuid,
+                                resultSet.getLong("start_time"),
+                                resultSet.getLong("end_time"),
+                                resultSet.getLong("active_seconds"),
+                                resultSet.getLong("afk_seconds"),
+                                resultSet.getInt("sessions")));
+                    }
+                }
+            }
+
+            return sessionRecords;
+        });
+    }
+
+    /**
+     * Deletes all sessions that started before the cutoff.
+     * @param cutoffMillis The cutoff in milliseconds since the epoch.
+     * @return A {@link CompletableFuture} containing the number of sessions deleted.
+     */
+    public @NotNull CompletableFuture<@NotNull Integer> deleteOlderThan(long cutoffMillis) {
+        String deleteSql = "DELETE FROM " + tableName + " WHERE start_time < ?";
+
+        return queueManager.queueWriteTask("delete_sessions", connection -> {
+            try(PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+                statement.setLong(1, cutoffMillis);
+
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Merges each player's sessions that started before the cutoff into one record per player per day (UTC).
+     * The merged record starts at the first session's start, ends at the last session's end, and sums the active and AFK seconds.
+     * @param cutoffMillis The cutoff in milliseconds since the epoch.
+     * @return A {@link CompletableFuture} containing the number of merged records that were created.
+     */
+    public @NotNull CompletableFuture<@NotNull Integer> compactOlderThan(long cutoffMillis) {
+        String insertSql = "INSERT INTO " + tableName + " (uuid, start_time, end_time, active_seconds, afk_seconds, sessions) " +
+                "SELECT uuid, MIN(start_time), MAX(end_time), SUM(active_seconds), SUM(afk_seconds), SUM(sessions) FROM " + tableName +
+                " WHERE start_time < ? GROUP BY uuid, start_time / " + MILLIS_PER_DAY + " HAVING COUNT(*) > 1";
+        // Rows with an id above the highest id before the insert are the merged records.
+        String deleteSql = "DELETE FROM " + tableName + " WHERE id <= ? AND start_time < ? AND EXISTS (" +
+                "SELECT 1 FROM " + tableName + " AS merged WHERE merged.id > ? " +
+                "AND merged.uuid = " + tableName + ".uuid " +
+                "AND merged.start_time / " + MILLIS_PER_DAY + " = " + tableName + ".start_time / " + MILLIS_PER_DAY + ")";
+
+        return queueManager.queueWriteTask("compact_sessions", connection -> {
+            long maxId;
+            try(Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + tableName)) {
+                maxId = resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+
+            int merged;
+            try(PreparedStatement statement = connection.prepareStatement(insertSql)) {
+                statement.setLong(1, cutoffMillis);
+                merged = statement.executeUpdate();
+            }
+            if(merged == 0) return 0;
+
+            try(PreparedStatement statement = connection.prepareStatement(deleteSql)) {
+                statement.setLong(1, maxId);
+                statement.setLong(2, cutoffMillis);
+                statement.setLong(3, maxId);
+                statement.executeUpdate();
+            }
+
+            return merged;
+        });
+    }
+}
@@ -1,12 +1,9 @@
 package com.github.lukesky19.skyplaytime.database.table;
 
-import com.github.lukesky19.skylib.api.database.parameter.impl.IntegerParameter;
-import com.github.lukesky19.skylib.api.database.parameter.impl.StringParameter;
-import com.github.lukesky19.skylib.api.database.queue.QueueManager;
+import com.github.lukesky19.skyplaytime.database.queue.QueueManager;
 import org.jetbrains.annotations.NotNull;
 
-import java.sql.SQLException;
-import java.util.List;
+import java.sql.*;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -36,50 +33,94 @@ public class VersionsTable {
 
     /**
      * Creates the table in the database if it doesn't exist.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
      */
-    public void createTable() {
+    public @NotNull CompletableFuture<Void> createTable() {
+        return queueManager.queueWriteTask("create_versions_table", connection -> {
+            createTable(connection);
+            return null;
+        });
+    }
+
+    /**
+     * Creates the table in the database if it doesn't exist using the provided {@link Connection}.
+     * This runs on the calling thread and is used while migrating tables.
+     * @param connection The {@link Connection} to use.
+     * @throws SQLException if the table could not be created.
+     */
+    public void createTable(@NotNull Connection connection) throws SQLException {
         String tableCreationSql = "CREATE TABLE IF NOT EXISTS " + tableName + " (" +
                 "id INTEGER PRIMARY KEY, " +
                 "table_id TEXT NOT NULL UNIQUE, " +
                 "version INTEGER NOT NULL)";
 
-        queueManager.queueWriteTransaction(tableCreationSql);
+        try(Statement statement = connection.createStatement()) {
+            statement.executeUpdate(tableCreationSql);
+        }
     }
 
     /**
-     * Update the version number for a table id.
+     * Update the version number for a table id using the provided {@link Connection}.
+     * This runs on the calling thread and is used while migrating tables.
+     * @param connection The {@link Connection} to use.
      * @param tableId The table id.
      * @param version The version to set.
+     * @throws SQLException if the version could not be updated.
      */
-    public void updateVersion(@NotNull String tableId, int version) {
+    public void updateVersion(@NotNull Connection connection, @NotNull String tableId, int version) throws SQLException {
         String updateSql = "INSERT INTO " + tableName + " (table_id, version) VALUES (?, ?) ON CONFLICT (table_id) DO UPDATE SET version = ?";
 
-        StringParameter tableIdParameter = new StringParameter(tableId);
-        IntegerParameter versionParameter = new IntegerParameter(version);
-
-        queueManager.queueWriteTransaction(updateSql, List.of(tableIdParameter, versionParameter, versionParameter));
+        try(PreparedStatement statement = connection.prepareStatement(updateSql)) {
+            statement.setString(1, tableId);
+            statement.setInt(2, version);
+            statement.setInt(3, version);
+            statement.executeUpdate();
+        }
     }
 
     /**
-     * Get the version for the table id provided.
+     * Get the version for the table id provided using the provided {@link Connection}.
+     * This runs on the calling thread and is used while migrating tables.
+     * @param connection The {@link Connection} to use.
      * @param tableId The table id.
-     * @return A {@link CompletableFuture} of type {@link Integer} containing the version number. -1 is returned for no version stored.
+     * @return The version number. -1 is returned for no version stored.
+     * @throws SQLException if the version could not be read.
      */
-    public @NotNull CompletableFuture<Integer> getTableVersion(@NotNull String tableId) {
+    public int getTableVersion(@NotNull Connection connection, @NotNull String tableId) throws SQLException {
         String readSql = "SELECT version FROM " + tableName + " WHERE table_id = ?";
 
-        StringParameter tableIdParameter = new StringParameter(tableId);
+        try(PreparedStatement statement = connection.prepareStatement(readSql)) {
+            statement.setString(1, tableId);
 
-        return queueManager.queueReadTransaction(readSql, List.of(tableIdParameter), resultSet -> {
-            try {
+            try(ResultSet resultSet = statement.executeQuery()) {
                 if(resultSet.next()) {
                     return resultSet.getInt("version");
                 } else {
                     return -1; // No known version
                 }
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
             }
+        }
+    }
+
+    /**
+     * Update the version number for a table id.
+     * @param tableId The table id.
+     * @param version The version to set.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> updateVersion(@NotNull String tableId, int version) {
+        return queueManager.queueWriteTask("update_table_version", connection -> {
+            updateVersion(connection, tableId, version);
+            return null;
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the version for the table id provided.
+     * @param tableId The table id.
+     * @return A {@link CompletableFuture} of type {@link Integer} containing the version number. -1 is returned for no version stored.
+     */
+    public @NotNull CompletableFuture<Integer> getTableVersion(@NotNull String tableId) {
+        return queueManager.queueOrderedReadTask("get_table_version", connection -> getTableVersion(connection, tableId));
+    }
+}
@@ -0,0 +1,39 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.leaderboard.data;
+
+import com.github.lukesky19.skyplaytime.util.TimeCategory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * This record contains one page of a leaderboard.
+ * @param category The {@link TimeCategory} of the leaderboard.
+ * @param page The page number, starting at 1.
+ * @param firstPosition The position number of the first {@link Position} on the page.
+ * @param pageSize The maximum number of positions on a page.
+ * @param positions The {@link List} of {@link Position}s on the page. May contain fewer than the page size if there are no more players.
+ */
+public record LeaderboardPage(
+        @NotNull TimeCategory category,
+        int page,
+        int firstPosition,
+        int pageSize,
+        @NotNull List<@NotNull Position> positions) {
+}
@@ -29,10 +29,12 @@ import java.util.List;
  * @param configVersion The version of the file.
  * @param category The {@link TimeCategory} of the leaderboard.
  * @param positions The {@link List} of {@link Position} containing the player data.
+ * @param sketch The play time distribution of all ranked players, encoded by {@link PlayTimeSketch#encode()}. Null for snapshots saved by older versions.
  */
 @ConfigSerializable
 public record LeaderboardSnapshot(
         @Nullable String configVersion,
         @NotNull TimeCategory category,
-        @NotNull List<Position> positions) {
+        @NotNull List<Position> positions,
+        @Nullable String sketch) {
 }
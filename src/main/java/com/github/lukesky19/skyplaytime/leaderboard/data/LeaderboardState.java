@@ -0,0 +1,63 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.leaderboard.data;
+
+import com.github.lukesky19.skyplaytime.util.TimeCategory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This record contains an immutable copy of the top positions of every leaderboard, published as a whole so readers never see a partial update.
+ * @param topPositions The unmodifiable {@link Map} of each {@link TimeCategory} to its unmodifiable {@link List} of top {@link Position}s, highest play time first.
+ */
+public record LeaderboardState(@NotNull Map<TimeCategory, List<Position>> topPositions) {
+    /**
+     * A {@link LeaderboardState} with no positions, used before the first state is published.
+     */
+    public static final @NotNull LeaderboardState EMPTY = new LeaderboardState(Collections.unmodifiableMap(new EnumMap<>(TimeCategory.class)));
+
+    /**
+     * Get the top positions for the {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory} to get the top positions for.
+     * @return An unmodifiable {@link List} of {@link Position}s, highest play time first.
+     */
+    public @NotNull List<@NotNull Position> getTopPositions(@NotNull TimeCategory timeCategory) {
+        @Nullable List<Position> positions = topPositions.get(timeCategory);
+        if(positions == null) return List.of();
+
+        return positions;
+    }
+
+    /**
+     * Get the {@link Position} at the position number provided for the {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory} to get the {@link Position} for.
+     * @param positionNumber The position number to get, starting at 1.
+     * @return A {@link Position}, or null if there is no player at that position.
+     */
+    public @Nullable Position getPosition(@NotNull TimeCategory timeCategory, int positionNumber) {
+        List<Position> positions = getTopPositions(timeCategory);
+        if(positionNumber <= 0 || positionNumber > positions.size()) return null;
+
+        return positions.get(positionNumber - 1);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.leaderboard.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * This class maintains the live standings for a single time category.
+ * Positions are kept in an ordered set with an index by {@link UUID}, so a changed play time counter is re-positioned in O(log n) and the top positions are read without sorting.
+ * The set holds every tracked online player and the cached top positions of offline players from the database.
+ * Offline entries never change, so they are only replaced when the database top positions are refreshed.
+ */
+public class LiveLeaderboard {
+    // Matches the database leaderboard order, where ties are broken by the uuid bytes in descending order.
+    private static final @NotNull Comparator<Position> ORDER = Comparator.comparingLong(Position::seconds).reversed()
+            .thenComparing(Comparator.comparing(Position::uuid, LiveLeaderboard::compareUUIDBytes).reversed());
+
+    private int size;
+    private final @NotNull TreeSet<Position> positions = new TreeSet<>(ORDER);
+    private final @NotNull Map<UUID, Position> index = new HashMap<>();
+    private final @NotNull Set<UUID> offline = new HashSet<>();
+
+    /**
+     * Constructor
+     * @param size The number of top positions to report.
+     */
+    public LiveLeaderboard(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Set the number of top positions to report.
+     * @param size The number of top positions.
+     */
+    public synchronized void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Insert or re-position the player with the provided play time.
+     * @param uuid The {@link UUID} of the player.
+     * @param name The player's name.
+     * @param seconds The player's play time in seconds.
+     */
+    public synchronized void update(@NotNull UUID uuid, @NotNull String name, long seconds) {
+        offline.remove(uuid);
+
+        @Nullable Position current = index.get(uuid);
+        if(current != null) {
+            if(current.seconds() == seconds && current.name().equals(name)) return;
+
+            positions.remove(current);
+        }
+
+        Position position = new Position(uuid, name, seconds);
+        positions.add(position);
+        index.put(uuid, position);
+    }
+
+    /**
+     * Remove the player from the standings.
+     * @param uuid The {@link UUID} of the player.
+     */
+    public synchronized void remove(@NotNull UUID uuid) {
+        offline.remove(uuid);
+
+        @Nullable Position current = index.remove(uuid);
+        if(current != null) positions.remove(current);
+    }
+
+    /**
+     * Stop tracking the player as online.
+     * The player's position is kept as an offline entry if it is currently within the top positions, otherwise it is removed.
+     * @param uuid The {@link UUID} of the player.
+     */
+    public synchronized void release(@NotNull UUID uuid) {
+        @Nullable Position current = index.get(uuid);
+        if(current == null) return;
+
+        int rank = 0;
+        for(Position position : positions) {
+            if(rank++ >= size) break;
+
+            if(position == current) {
+                offline.add(uuid);
+                return;
+            }
+        }
+
+        remove(uuid);
+    }
+
+    /**
+     * Replace all offline entries with the provided database positions.
+     * Positions for players that are loaded are skipped, as their live play time is already tracked.
+     * @param databasePositions The top positions from the database.
+     * @param isLoaded A {@link Predicate} that tests if a player's data is loaded.
+     */
+    public synchronized void replaceOffline(@NotNull List<@NotNull Position> databasePositions, @NotNull Predicate<UUID> isLoaded) {
+        for(UUID uuid : new ArrayList<>(offline)) {
+            remove(uuid);
+        }
+
+        for(Position position : databasePositions) {
+            if(isLoaded.test(position.uuid()) || index.containsKey(position.uuid())) continue;
+
+            positions.add(position);
+            index.put(position.uuid(), position);
+            offline.add(position.uuid());
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear() {
+        positions.clear();
+        index.clear();
+        offline.clear();
+    }
+
+    /**
+     * Get the current top positions in order.
+     * @return A {@link List} of up to the configured number of {@link Position}s.
+     */
+    public synchronized @NotNull List<@NotNull Position> getTopPositions() {
+        return getPositions(0, size);
+    }
+
+    /**
+     * Get the current positions in order starting at the provided offset.
+     * Only the top positions include offline players, so positions past them are only complete for standings that rank online players only.
+     * @param offset The number of positions to skip.
+     * @param count The maximum number of positions to return.
+     * @return A {@link List} of up to count {@link Position}s.
+     */
+    public synchronized @NotNull List<@NotNull Position> getPositions(int offset, int count) {
+        List<Position> result = new ArrayList<>(Math.min(count, positions.size()));
+
+        int index = 0;
+        for(Position position : positions) {
+            if(result.size() >= count) break;
+
+            if(index++ >= offset) result.add(position);
+        }
+
+        return result;
+    }
+
+    /**
+     * Compare two {@link UUID}s by their bytes as unsigned values, the same way the database compares stored uuids.
+     * @param first The first {@link UUID}.
+     * @param second The second {@link UUID}.
+     * @return A negative number, zero, or a positive number if the first {@link UUID} is less than, equal to, or greater than the second.
+     */
+    private static int compareUUIDBytes(@NotNull UUID first, @NotNull UUID second) {
+        int result = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        if(result != 0) return result;
+
+        return Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+}
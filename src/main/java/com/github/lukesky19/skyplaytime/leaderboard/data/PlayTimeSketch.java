@@ -0,0 +1,221 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.leaderboard.data;
+
+import com.github.lukesky19.skyplaytime.util.LogLinearBuckets;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * This class is a fixed-size sketch of the distribution of play time for a single time category, used to estimate percentiles.
+ * Values below 32 seconds are counted exactly, and larger values are counted in 32 buckets per power of two, so estimates are within about 3% of the real play time.
+ * Unlike a t-digest or KLL sketch, values can be removed as well as added, so a player's play time can move between buckets as it grows.
+ * Sketches with the same layout can be merged by adding their bucket counts, and memory use does not depend on the number of players.
+ * A sketch is not thread-safe. The sketch owned by a {@link RankIndex} is only used under the index's lock, and copies belong to the caller.
+ */
+public class PlayTimeSketch {
+    private static final int ENCODING_VERSION = 1;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final LogLinearBuckets BUCKETS = new LogLinearBuckets(SUB_BUCKET_BITS, 5);
+    private static final int BUCKET_COUNT = BUCKETS.getBucketCount();
+
+    private final long @NotNull [] counts = new long[BUCKET_COUNT];
+    private long count;
+
+    /**
+     * Constructor
+     */
+    public PlayTimeSketch() {}
+
+    /**
+     * Add a player's play time to the sketch.
+     * @param seconds The play time in seconds. Negative values are counted as 0.
+     */
+    public void add(long seconds) {
+        add(seconds, 1);
+    }
+
+    /**
+     * Add several players with the same play time to the sketch.
+     * @param seconds The play time in seconds. Negative values are counted as 0.
+     * @param players The number of players with the play time.
+     */
+    public void add(long seconds, long players) {
+        counts[BUCKETS.getIndex(Math.max(0, seconds))] += players;
+        count += players;
+    }
+
+    /**
+     * Remove a player's play time that was previously added to the sketch.
+     * @param seconds The play time in seconds. Negative values are counted as 0.
+     */
+    public void remove(long seconds) {
+        int index = BUCKETS.getIndex(Math.max(0, seconds));
+        if(counts[index] == 0) return;
+
+        counts[index]--;
+        count--;
+    }
+
+    /**
+     * Add the play time counted by another sketch to this sketch.
+     * @param other The {@link PlayTimeSketch} to merge into this sketch.
+     */
+    public void merge(@NotNull PlayTimeSketch other) {
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+            count += other.counts[i];
+        }
+    }
+
+    /**
+     * Remove all play time from the sketch.
+     */
+    public void clear() {
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = 0;
+        }
+
+        count = 0;
+    }
+
+    /**
+     * Get the number of players counted by the sketch.
+     * @return The number of players.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Estimate the percentage of players at or above the play time provided, including the player with that play time.
+     * For example, a result of 3 means the play time is in the top 3% of players.
+     * @param seconds The play time in seconds.
+     * @return The percentage between 0 and 100, or 0 if the sketch is empty.
+     */
+    public double getTopPercent(long seconds) {
+        if(count == 0) return 0;
+
+        int index = BUCKETS.getIndex(Math.max(0, seconds));
+        double above = 0;
+        for(int i = index + 1; i < BUCKET_COUNT; i++) {
+            above += counts[i];
+        }
+
+        // Assume the players in the same bucket are spread evenly across it.
+        long lowerBound = BUCKETS.getLowerBound(index);
+        long upperBound = BUCKETS.getUpperBound(index);
+        above += counts[index] * ((double) (upperBound - Math.max(0, seconds)) / (upperBound - lowerBound + 1));
+
+        return Math.min(100, (above + 1) * 100 / count);
+    }
+
+    /**
+     * Estimate the play time at the percentile provided.
+     * @param percentile The percentile between 0 and 100. For example, 90 returns the play time needed to be in the top 10% of players.
+     * @return The highest play time in seconds in the bucket containing the percentile, or 0 if the sketch is empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if(count == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(count * (Math.min(100, Math.max(0, percentile)) / 100.0)));
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if(seen >= target) return BUCKETS.getUpperBound(i);
+        }
+
+        return BUCKETS.getUpperBound(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Create a copy of the sketch.
+     * @return A new {@link PlayTimeSketch} with the same bucket counts.
+     */
+    public @NotNull PlayTimeSketch copy() {
+        PlayTimeSketch sketch = new PlayTimeSketch();
+        sketch.merge(this);
+        return sketch;
+    }
+
+    /**
+     * Encode the sketch as a Base64 {@link String} so it can be stored with a leaderboard snapshot or sent to another server.
+     * Only buckets that are not empty are written.
+     * @return The encoded sketch.
+     * @throws RuntimeException on any {@link IOException}.
+     */
+    public @NotNull String encode() {
+        int buckets = 0;
+        for(long bucketCount : counts) {
+            if(bucketCount != 0) buckets++;
+        }
+
+        try(ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+            DataOutputStream dataStream = new DataOutputStream(byteStream)) {
+            dataStream.writeByte(ENCODING_VERSION);
+            dataStream.writeByte(SUB_BUCKET_BITS);
+            dataStream.writeShort(buckets);
+
+            for(int i = 0; i < BUCKET_COUNT; i++) {
+                if(counts[i] == 0) continue;
+
+                dataStream.writeShort(i);
+                dataStream.writeLong(counts[i]);
+            }
+
+            dataStream.flush();
+            return Base64.getEncoder().encodeToString(byteStream.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Decode a sketch created by {@link #encode()}.
+     * @param encoded The encoded sketch.
+     * @return A {@link PlayTimeSketch}, or null if the encoded sketch is invalid or was created with a different layout.
+     */
+    public static @Nullable PlayTimeSketch decode(@NotNull String encoded) {
+        PlayTimeSketch sketch = new PlayTimeSketch();
+
+        try(DataInputStream dataStream = new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)))) {
+            if(dataStream.readByte() != ENCODING_VERSION || dataStream.readByte() != SUB_BUCKET_BITS) return null;
+
+            int buckets = dataStream.readUnsignedShort();
+            for(int i = 0; i < buckets; i++) {
+                int index = dataStream.readUnsignedShort();
+                long bucketCount = dataStream.readLong();
+                if(index >= BUCKET_COUNT || bucketCount < 0) return null;
+
+                sketch.counts[index] += bucketCount;
+                sketch.count += bucketCount;
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+
+        return sketch;
+    }
+}
@@ -0,0 +1,322 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.leaderboard.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class is an order-statistic index of play time for a single time category.
+ * Play time values are stored in a treap where each node counts the players with that value and the size of its subtree,
+ * so updates and rank lookups both take O(log n) expected time.
+ * Players with the same play time share the same rank.
+ * A {@link PlayTimeSketch} of the same play time values is updated under the same lock, so percentile estimates always match the index.
+ */
+public class RankIndex {
+    private final @NotNull Map<UUID, Long> playTimes = new HashMap<>();
+    private final @NotNull PlayTimeSketch sketch = new PlayTimeSketch();
+    private @Nullable Node root;
+
+    /**
+     * A node in the treap.
+     */
+    private static final class Node {
+        private final long seconds;
+        private final int priority;
+        private int count = 1;
+        private int size = 1;
+        private @Nullable Node left;
+        private @Nullable Node right;
+
+        /**
+         * Constructor
+         * @param seconds The play time in seconds.
+         */
+        private Node(long seconds) {
+            this.seconds = seconds;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    /**
+     * Constructor
+     */
+    public RankIndex() {}
+
+    /**
+     * Insert or update the play time of the player.
+     * @param uuid The {@link UUID} of the player.
+     * @param seconds The player's play time in seconds.
+     * @return The player's previous play time in seconds, or null if the player was not in the index.
+     */
+    public synchronized @Nullable Long update(@NotNull UUID uuid, long seconds) {
+        @Nullable Long previous = playTimes.put(uuid, seconds);
+        if(previous != null) {
+            if(previous == seconds) return previous;
+
+            root = delete(root, previous);
+            sketch.remove(previous);
+        }
+
+        root = insert(root, seconds);
+        sketch.add(seconds);
+        return previous;
+    }
+
+    /**
+     * Remove the player from the index.
+     * @param uuid The {@link UUID} of the player.
+     * @return The player's previous play time in seconds, or null if the player was not in the index.
+     */
+    public synchronized @Nullable Long remove(@NotNull UUID uuid) {
+        @Nullable Long previous = playTimes.remove(uuid);
+        if(previous != null) {
+            root = delete(root, previous);
+            sketch.remove(previous);
+        }
+
+        return previous;
+    }
+
+    /**
+     * Remove all players from the index.
+     */
+    public synchronized void clear() {
+        playTimes.clear();
+        sketch.clear();
+        root = null;
+    }
+
+    /**
+     * Set the play time of every player in the index to 0. This is used when play time is reset for all players.
+     */
+    public synchronized void resetAll() {
+        playTimes.replaceAll((uuid, seconds) -> 0L);
+        sketch.clear();
+        sketch.add(0, playTimes.size());
+        root = null;
+
+        // Every player shares the same value, so the tree is a single node counting all of them.
+        if(!playTimes.isEmpty()) {
+            root = new Node(0);
+            root.count = playTimes.size();
+            root.size = playTimes.size();
+        }
+    }
+
+    /**
+     * Get the rank of the player, where 1 is the player with the most play time.
+     * @param uuid The {@link UUID} of the player.
+     * @return The player's rank, or 0 if the player is not in the index.
+     */
+    public synchronized int getRank(@NotNull UUID uuid) {
+        @Nullable Long seconds = playTimes.get(uuid);
+        if(seconds == null) return 0;
+
+        return countGreaterThan(seconds) + 1;
+    }
+
+    /**
+     * Get the play time of the player stored in the index.
+     * @param uuid The {@link UUID} of the player.
+     * @return The player's play time in seconds, or null if the player is not in the index.
+     */
+    public synchronized @Nullable Long getPlayTime(@NotNull UUID uuid) {
+        return playTimes.get(uuid);
+    }
+
+    /**
+     * Get the number of players in the index with more play time than provided.
+     * @param seconds The play time in seconds.
+     * @return The number of players with more play time.
+     */
+    public synchronized int countGreaterThan(long seconds) {
+        int count = 0;
+        @Nullable Node node = root;
+
+        while(node != null) {
+            if(seconds < node.seconds) {
+                count += node.count + size(node.right);
+                node = node.left;
+            } else if(seconds > node.seconds) {
+                node = node.right;
+            } else {
+                count += size(node.right);
+                break;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Estimate the percentage of players in the index at or above the player's play time.
+     * @param uuid The {@link UUID} of the player.
+     * @return The percentage between 0 and 100, or 0 if the player is not in the index.
+     */
+    public synchronized double getTopPercent(@NotNull UUID uuid) {
+        @Nullable Long seconds = playTimes.get(uuid);
+        if(seconds == null) return 0;
+
+        return sketch.getTopPercent(seconds);
+    }
+
+    /**
+     * Estimate the play time at the percentile provided of the players in the index.
+     * @param percentile The percentile between 0 and 100.
+     * @return The play time in seconds, or 0 if the index is empty.
+     */
+    public synchronized long getPlayTimeAtPercentile(double percentile) {
+        return sketch.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Get a copy of the {@link PlayTimeSketch} of the play time values in the index.
+     * @return A {@link PlayTimeSketch}.
+     */
+    public synchronized @NotNull PlayTimeSketch copySketch() {
+        return sketch.copy();
+    }
+
+    /**
+     * Get the number of players in the index.
+     * @return The number of players.
+     */
+    public synchronized int size() {
+        return playTimes.size();
+    }
+
+    /**
+     * Insert a play time value into the subtree.
+     * @param node The root of the subtree.
+     * @param seconds The play time in seconds.
+     * @return The new root of the subtree.
+     */
+    private static @NotNull Node insert(@Nullable Node node, long seconds) {
+        if(node == null) return new Node(seconds);
+
+        if(seconds < node.seconds) {
+            node.left = insert(node.left, seconds);
+            if(node.left.priority > node.priority) node = rotateRight(node);
+        } else if(seconds > node.seconds) {
+            node.right = insert(node.right, seconds);
+            if(node.right.priority > node.priority) node = rotateLeft(node);
+        } else {
+            node.count++;
+        }
+
+        updateSize(node);
+        return node;
+    }
+
+    /**
+     * Delete one occurrence of a play time value from the subtree.
+     * @param node The root of the subtree.
+     * @param seconds The play time in seconds.
+     * @return The new root of the subtree.
+     */
+    private static @Nullable Node delete(@Nullable Node node, long seconds) {
+        if(node == null) return null;
+
+        if(seconds < node.seconds) {
+            node.left = delete(node.left, seconds);
+        } else if(seconds > node.seconds) {
+            node.right = delete(node.right, seconds);
+        } else if(node.count > 1) {
+            node.count--;
+        } else {
+            return merge(node.left, node.right);
+        }
+
+        updateSize(node);
+        return node;
+    }
+
+    /**
+     * Merge two subtrees where every value in the left subtree is less than every value in the right subtree.
+     * @param left The left subtree.
+     * @param right The right subtree.
+     * @return The root of the merged subtree.
+     */
+    private static @Nullable Node merge(@Nullable Node left, @Nullable Node right) {
+        if(left == null) return right;
+        if(right == null) return left;
+
+        if(left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            updateSize(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            updateSize(right);
+            return right;
+        }
+    }
+
+    /**
+     * Rotate the subtree to the right.
+     * @param node The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private static @NotNull Node rotateRight(@NotNull Node node) {
+        @Nullable Node left = node.left;
+        if(left == null) return node;
+
+        node.left = left.right;
+        left.right = node;
+        updateSize(node);
+        return left;
+    }
+
+    /**
+     * Rotate the subtree to the left.
+     * @param node The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private static @NotNull Node rotateLeft(@NotNull Node node) {
+        @Nullable Node right = node.right;
+        if(right == null) return node;
+
+        node.right = right.left;
+        right.left = node;
+        updateSize(node);
+        return right;
+    }
+
+    /**
+     * Recalculate the size of the subtree.
+     * @param node The root of the subtree.
+     */
+    private static void updateSize(@NotNull Node node) {
+        node.size = node.count + size(node.left) + size(node.right);
+    }
+
+    /**
+     * Get the size of the subtree.
+     * @param node The root of the subtree or null.
+     * @return The number of players in the subtree.
+     */
+    private static int size(@Nullable Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
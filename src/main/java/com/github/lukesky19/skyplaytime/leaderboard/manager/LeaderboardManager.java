@@ -18,9 +18,15 @@
 package com.github.lukesky19.skyplaytime.leaderboard.manager;
 
 import com.github.lukesky19.skylib.api.time.TimeUtil;
+import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.config.manager.settings.SettingsManager;
+import com.github.lukesky19.skyplaytime.leaderboard.data.LeaderboardPage;
 import com.github.lukesky19.skyplaytime.leaderboard.data.LeaderboardSnapshot;
+import com.github.lukesky19.skyplaytime.leaderboard.data.LeaderboardState;
+import com.github.lukesky19.skyplaytime.leaderboard.data.LiveLeaderboard;
+import com.github.lukesky19.skyplaytime.leaderboard.data.PlayTimeSketch;
 import com.github.lukesky19.skyplaytime.leaderboard.data.Position;
-import com.github.lukesky19.skyplaytime.leaderboard.data.TopTen;
+import com.github.lukesky19.skyplaytime.leaderboard.data.RankIndex;
 import com.github.lukesky19.skyplaytime.player.data.PlayerData;
 import com.github.lukesky19.skyplaytime.database.DatabaseManager;
 import com.github.lukesky19.skyplaytime.database.table.PlayTimeTable;
@@ -32,31 +38,54 @@ import org.jetbrains.annotations.Nullable;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * This class manages obtaining data to display leaderboards and marking whether players are excluded from the leaderboard or not.
  */
 public class LeaderboardManager {
+    private final @NotNull SkyPlayTime skyPlayTime;
+    private final @NotNull SettingsManager settingsManager;
     private final @NotNull LeaderboardSnapshotManager leaderboardSnapshotManager;
     private final @NotNull PlayerDataManager playerDataManager;
     private final @NotNull DatabaseManager databaseManager;
-    // Cached top ten from the database.
-    private final @NotNull Map<TimeCategory, TopTen> databaseTopTen = new HashMap<>();
-    private final @NotNull Map<TimeCategory, TopTen> calculatedTopTen = new HashMap<>();
+    // Live standings for each time category. TimeCategory.ALL shares the TimeCategory.TOTAL standings.
+    private final @NotNull Map<TimeCategory, LiveLeaderboard> liveLeaderboards = new EnumMap<>(TimeCategory.class);
+    // Ranks and play time distribution of every player that is not exempt for each time category. TimeCategory.ALL shares the TimeCategory.TOTAL index.
+    // Replaced as a whole when the indexes are rebuilt, so readers never see a partly built index.
+    private volatile @NotNull Map<TimeCategory, RankIndex> rankIndexes = createRankIndexes();
+    // The last position of database pages that have been read, keyed by position number, so later pages can seek past them.
+    private final @NotNull Map<TimeCategory, ConcurrentSkipListMap<Integer, Position>> pageCursors = new EnumMap<>(TimeCategory.class);
+    // An immutable copy of the top positions, replaced as a whole when the live standings change. Readers never lock.
+    private volatile @NotNull LeaderboardState leaderboardState = LeaderboardState.EMPTY;
+    private volatile boolean leaderboardStateChanged;
 
     /**
      * Constructor
+     * @param skyPlayTime A {@link SkyPlayTime} instance.
+     * @param settingsManager A {@link SettingsManager} instance.
      * @param leaderboardSnapshotManager A {@link LeaderboardSnapshotManager} instance.
      * @param playerDataManager A {@link PlayerDataManager} instance.
      * @param databaseManager A {@link DatabaseManager} instance.
      */
     public LeaderboardManager(
+            @NotNull SkyPlayTime skyPlayTime,
+            @NotNull SettingsManager settingsManager,
             @NotNull LeaderboardSnapshotManager leaderboardSnapshotManager,
             @NotNull PlayerDataManager playerDataManager,
             @NotNull DatabaseManager databaseManager) {
+        this.skyPlayTime = skyPlayTime;
+        this.settingsManager = settingsManager;
         this.leaderboardSnapshotManager = leaderboardSnapshotManager;
         this.playerDataManager = playerDataManager;
         this.databaseManager = databaseManager;
+
+        for(TimeCategory timeCategory : TimeCategory.values()) {
+            if(timeCategory == TimeCategory.ALL) continue;
+
+            liveLeaderboards.put(timeCategory, new LiveLeaderboard(settingsManager.getLeaderboardDepth()));
+            pageCursors.put(timeCategory, new ConcurrentSkipListMap<>());
+        }
     }
 
     /**
@@ -70,6 +99,7 @@ public class LeaderboardManager {
         }
 
         playerData.setExempt(true);
+        updatePlayer(uuid, playerData);
     }
 
     /**
@@ -83,116 +113,385 @@ public class LeaderboardManager {
         }
 
         playerData.setExempt(false);
+        updatePlayer(uuid, playerData);
+    }
+
+    /**
+     * Re-position the player in the live standings and rank indexes of every {@link TimeCategory} using their current play time.
+     * Exempt players are removed from the standings and rank indexes instead.
+     * @param uuid The {@link UUID} of the player.
+     * @param playerData The player's {@link PlayerData}.
+     */
+    public void updatePlayer(@NotNull UUID uuid, @NotNull PlayerData playerData) {
+        leaderboardStateChanged = true;
+
+        if(playerData.isExempt()) {
+            liveLeaderboards.values().forEach(liveLeaderboard -> liveLeaderboard.remove(uuid));
+            rankIndexes.values().forEach(rankIndex -> rankIndex.remove(uuid));
+            return;
+        }
+
+        liveLeaderboards.forEach((timeCategory, liveLeaderboard) ->
+                liveLeaderboard.update(uuid, playerData.getName(), playerData.getPlayTime(timeCategory)));
+        rankIndexes.forEach((timeCategory, rankIndex) -> rankIndex.update(uuid, playerData.getPlayTime(timeCategory)));
+    }
+
+    /**
+     * Start tracking the player in the live standings once their player data is loaded.
+     * This may be called from any thread, as player data is loaded off the main thread. The player is tracked on the main thread.
+     * @param uuid The {@link UUID} of the player.
+     */
+    public void trackPlayer(@NotNull UUID uuid) {
+        skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () -> {
+            @Nullable PlayerData playerData = playerDataManager.getPlayerData(uuid);
+            if(playerData == null) return;
+
+            updatePlayer(uuid, playerData);
+        });
+    }
+
+    /**
+     * Stop tracking the player in the live standings as they are going offline.
+     * Their position is kept if they are currently in the top positions and their rank is kept at their last play time,
+     * except for {@link TimeCategory#SESSION} which only ranks online players.
+     * @param uuid The {@link UUID} of the player.
+     */
+    public void untrackPlayer(@NotNull UUID uuid) {
+        rankIndexes.get(TimeCategory.SESSION).remove(uuid);
+        leaderboardStateChanged = true;
+
+        liveLeaderboards.forEach((timeCategory, liveLeaderboard) -> {
+            if(timeCategory == TimeCategory.SESSION) {
+                liveLeaderboard.remove(uuid);
+            } else {
+                liveLeaderboard.release(uuid);
+            }
+        });
     }
 
     /**
-     * Update the cached top ten from the database.
+     * Refresh the top positions of offline players in the live standings from the database, then publish a new {@link LeaderboardState}.
+     * Cached page cursors are cleared, as the stored play time they were read from has changed since.
+     * This must be called on the main thread.
      * @return A {@link CompletableFuture} of type {@link Void} when complete.
      */
-    public @NotNull CompletableFuture<Void> updateDatabaseTopTen() {
+    public @NotNull CompletableFuture<Void> updateDatabaseTopPositions() {
         List<CompletableFuture<Void>> futureList = new ArrayList<>();
         PlayTimeTable playTimeTable = databaseManager.getPlayTimeTable();
+        // The positions are replaced on a database thread, so the loaded players are copied here instead of reading the player data map there.
+        Set<UUID> loadedPlayers = Set.copyOf(playerDataManager.getPlayerDataMap().keySet());
+        int depth = settingsManager.getLeaderboardDepth();
+
+        pageCursors.values().forEach(Map::clear);
+        liveLeaderboards.forEach((timeCategory, liveLeaderboard) ->
+                futureList.add(playTimeTable.getPositionsNotExempt(timeCategory, null, depth).thenAccept(positions ->
+                        liveLeaderboard.replaceOffline(positions, loadedPlayers::contains))));
+
+        return CompletableFuture.allOf(futureList.toArray(new CompletableFuture[0])).thenRun(this::publishLeaderboardState);
+    }
+
+    /**
+     * Rebuild the rank indexes for all time categories from every player stored in the database.
+     * New indexes are built off the main thread while the current ones keep serving reads.
+     * They are then swapped in on the main thread, and loaded players are re-applied as their play time in memory is newer than the stored play time.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> updateRankIndexes() {
+        return databaseManager.getPlayTimeTable().getAllStoredPlayTimesNotExempt().thenCompose(storedPlayTimes -> {
+            Map<TimeCategory, RankIndex> newRankIndexes = createRankIndexes();
+            storedPlayTimes.forEach((uuid, storedPlayTime) -> newRankIndexes.forEach((timeCategory, rankIndex) -> {
+                if(timeCategory != TimeCategory.SESSION) rankIndex.update(uuid, storedPlayTime.getPlayTime(timeCategory));
+            }));
+
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () -> {
+                rankIndexes = newRankIndexes;
+                playerDataManager.getPlayerDataMap().forEach(this::updatePlayer);
+                future.complete(null);
+            });
+
+            return future;
+        });
+    }
 
+    /**
+     * Creates an empty {@link RankIndex} for each time category. TimeCategory.ALL is not included as it shares the TimeCategory.TOTAL index.
+     * @return A {@link Map} mapping {@link TimeCategory}s to {@link RankIndex}es.
+     */
+    private static @NotNull Map<TimeCategory, RankIndex> createRankIndexes() {
+        Map<TimeCategory, RankIndex> newRankIndexes = new EnumMap<>(TimeCategory.class);
         for(TimeCategory timeCategory : TimeCategory.values()) {
-            futureList.add(playTimeTable.getTopTenByCategoryNotExempt(timeCategory).thenAccept(topTen -> databaseTopTen.put(timeCategory, topTen)));
+            if(timeCategory != TimeCategory.ALL) newRankIndexes.put(timeCategory, new RankIndex());
         }
 
-        return CompletableFuture.allOf(futureList.toArray(new CompletableFuture[0]));
+        return newRankIndexes;
     }
 
     /**
-     * Update the calculated top ten for all time categories except ALL.
+     * Rebuild the live standings and rank indexes for all time categories from the loaded player data and the database.
+     * Used on startup, reload, and after play time is reset for all players. This must be called on the main thread.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
      */
-    public void updateTopTenAllCategories() {
-        for(TimeCategory timeCategory : TimeCategory.values()) {
-            @Nullable TopTen databaseTopTen = this.databaseTopTen.get(timeCategory);
-            @NotNull TopTen resultTopTen = new TopTen();
-            if(databaseTopTen == null) return;
-            // Get a list of all non-null database positions.
-            @NotNull List<@NotNull Position> databasePositions = databaseTopTen.getPositions();
-
-            // Get loaded player data
-            @NotNull Map<UUID, PlayerData> onlinePlayerDataMap = playerDataManager.getPlayerDataMap();
-            // Calculate the top ten positions from the online player data.
-            @NotNull List<Position> onlineTopTenPositions = onlinePlayerDataMap.entrySet().stream()
-                    .filter(entry -> !entry.getValue().isExempt())
-                    .map(entry -> {
-                        PlayerData playerData = entry.getValue();
-                        long playTime = playerData.getPlayTime(timeCategory);
-                        return new Position(entry.getKey(), playerData.getName(), playTime);
-                    })
-                    .sorted(Comparator.comparingLong(Position::seconds).reversed())
-                    .limit(10)
-                    .toList();
-
-            // Combine database and online positions
-            List<Position> combinedPositions = new ArrayList<>();
-            Set<UUID> seenPlayers = new HashSet<>();
-            // Add online positions if their position wasn't added already
-            onlineTopTenPositions.forEach(position -> {
-                if(seenPlayers.add(position.uuid())) {
-                    combinedPositions.add(position);
-                }
-            });
-            // Add database positions if their position wasn't added already
-            databasePositions.forEach(position -> {
-                if(seenPlayers.add(position.uuid())) {
-                    combinedPositions.add(position);
-                }
-            });
+    public @NotNull CompletableFuture<Void> rebuildLeaderboards() {
+        int depth = settingsManager.getLeaderboardDepth();
+        liveLeaderboards.values().forEach(liveLeaderboard -> {
+            liveLeaderboard.clear();
+            liveLeaderboard.setSize(depth);
+        });
+        new HashMap<>(playerDataManager.getPlayerDataMap()).forEach(this::updatePlayer);
+        publishLeaderboardState();
+
+        return CompletableFuture.allOf(updateDatabaseTopPositions(), updateRankIndexes());
+    }
+
+    /**
+     * Reset the live standings and rank indexes of the time categories provided after play time was reset for all players.
+     * Stored play time from before the reset no longer counts, so every ranked player is set to 0 and the loaded players are re-applied without reading the database.
+     * This must be called on the main thread after the loaded player data was reset.
+     * @param session Should the session play time leaderboard be reset?
+     * @param daily Should the daily play time leaderboard be reset?
+     * @param weekly Should the weekly play time leaderboard be reset?
+     * @param monthly Should the monthly play time leaderboard be reset?
+     * @param yearly Should the yearly play time leaderboard be reset?
+     * @param total Should the total play time leaderboard be reset?
+     */
+    public void resetLeaderboards(
+            boolean session,
+            boolean daily,
+            boolean weekly,
+            boolean monthly,
+            boolean yearly,
+            boolean total) {
+        Map<TimeCategory, RankIndex> currentRankIndexes = rankIndexes;
 
-            // Sort list to get final positions
-            List<Position> finalPositions = combinedPositions.stream()
-                    .sorted(Comparator.comparingLong(Position::seconds).reversed())
-                    .limit(10)
-                    .toList();
+        if(session) resetLeaderboard(TimeCategory.SESSION, currentRankIndexes);
+        if(daily) resetLeaderboard(TimeCategory.DAILY, currentRankIndexes);
+        if(weekly) resetLeaderboard(TimeCategory.WEEKLY, currentRankIndexes);
+        if(monthly) resetLeaderboard(TimeCategory.MONTHLY, currentRankIndexes);
+        if(yearly) resetLeaderboard(TimeCategory.YEARLY, currentRankIndexes);
+        if(total) resetLeaderboard(TimeCategory.TOTAL, currentRankIndexes);
 
-            // Set the positions in the resulting top ten
-            resultTopTen.setPositions(finalPositions);
+        playerDataManager.getPlayerDataMap().forEach(this::updatePlayer);
+        publishLeaderboardState();
+    }
+
+    /**
+     * Clear the live standings and page cursors of the {@link TimeCategory} and set every player in its rank index to 0.
+     * @param timeCategory The {@link TimeCategory} to reset.
+     * @param currentRankIndexes The current rank indexes.
+     */
+    private void resetLeaderboard(@NotNull TimeCategory timeCategory, @NotNull Map<TimeCategory, RankIndex> currentRankIndexes) {
+        liveLeaderboards.get(timeCategory).clear();
+        pageCursors.get(timeCategory).clear();
 
-            calculatedTopTen.put(timeCategory, resultTopTen);
+        // Session play time only ranks online players, who are re-applied after the reset.
+        if(timeCategory == TimeCategory.SESSION) {
+            currentRankIndexes.get(timeCategory).clear();
+        } else {
+            currentRankIndexes.get(timeCategory).resetAll();
         }
     }
 
     /**
-     * Get the {@link TopTen} for the {@link TimeCategory}.
-     * @param timeCategory The {@link TimeCategory} to get the top play time player data for.
-     * @return The {@link TopTen} for the {@link TimeCategory}. May be null. {@link TimeCategory#ALL} will always return null.
+     * Publish a new {@link LeaderboardState} if the live standings have changed since the last one was published.
+     * Called every second by the publish leaderboard task, which runs off the main thread so building the state never delays a tick.
      */
-    public @Nullable TopTen getTopTenByTimeCategoryNotExempt(@NotNull TimeCategory timeCategory) {
-        return calculatedTopTen.get(timeCategory);
+    public void publishLeaderboardStateIfChanged() {
+        if(leaderboardStateChanged) publishLeaderboardState();
     }
 
     /**
-     * From the {@link TopTen} for the {@link TimeCategory} provided, get the {@link Position} at the positon N.
-     * NOTE: Anything less than or equal to 0 or greater than 10 will always return null.
+     * Copy the top positions of the live standings into a new {@link LeaderboardState} and publish it.
+     * Publishing is synchronized so an older state can never replace a newer one. Readers do not lock.
+     */
+    public synchronized void publishLeaderboardState() {
+        // Cleared before copying, so a change made while copying is published next time.
+        leaderboardStateChanged = false;
+
+        Map<TimeCategory, List<Position>> topPositions = new EnumMap<>(TimeCategory.class);
+        liveLeaderboards.forEach((timeCategory, liveLeaderboard) -> topPositions.put(timeCategory, List.copyOf(liveLeaderboard.getTopPositions())));
+        topPositions.put(TimeCategory.ALL, topPositions.get(TimeCategory.TOTAL));
+
+        leaderboardState = new LeaderboardState(Collections.unmodifiableMap(topPositions));
+    }
+
+    /**
+     * Get the rank of the player for the {@link TimeCategory}, where 1 is the player with the most play time.
+     * Players with the same play time share the same rank.
+     * @param uuid The {@link UUID} of the player.
+     * @param timeCategory The {@link TimeCategory} to get the rank for. {@link TimeCategory#ALL} returns the {@link TimeCategory#TOTAL} rank.
+     * @return The player's rank, or 0 if the player is exempt or has no play time stored.
+     */
+    public int getRank(@NotNull UUID uuid, @NotNull TimeCategory timeCategory) {
+        @Nullable RankIndex rankIndex = rankIndexes.get(timeCategory == TimeCategory.ALL ? TimeCategory.TOTAL : timeCategory);
+        if(rankIndex == null) return 0;
+
+        return rankIndex.getRank(uuid);
+    }
+
+    /**
+     * Get the number of ranked players for the {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory} to get the number of ranked players for. {@link TimeCategory#ALL} returns the {@link TimeCategory#TOTAL} count.
+     * @return The number of ranked players.
+     */
+    public int getRankedPlayerCount(@NotNull TimeCategory timeCategory) {
+        @Nullable RankIndex rankIndex = rankIndexes.get(timeCategory == TimeCategory.ALL ? TimeCategory.TOTAL : timeCategory);
+        if(rankIndex == null) return 0;
+
+        return rankIndex.size();
+    }
+
+    /**
+     * Estimate the percentage of ranked players for the {@link TimeCategory} at or above the player's play time.
+     * For example, 3 means the player is in the top 3% of players.
+     * @param uuid The {@link UUID} of the player.
+     * @param timeCategory The {@link TimeCategory} to get the percentage for. {@link TimeCategory#ALL} returns the {@link TimeCategory#TOTAL} percentage.
+     * @return The percentage between 0 and 100, or 0 if the player is exempt or has no play time stored.
+     */
+    public double getTopPercent(@NotNull UUID uuid, @NotNull TimeCategory timeCategory) {
+        @Nullable RankIndex rankIndex = rankIndexes.get(timeCategory == TimeCategory.ALL ? TimeCategory.TOTAL : timeCategory);
+        if(rankIndex == null) return 0;
+
+        return rankIndex.getTopPercent(uuid);
+    }
+
+    /**
+     * Estimate the play time at the percentile provided for the {@link TimeCategory}.
+     * @param timeCategory The {@link TimeCategory} to get the play time for. {@link TimeCategory#ALL} returns the {@link TimeCategory#TOTAL} play time.
+     * @param percentile The percentile between 0 and 100. For example, 90 returns the play time needed to be in the top 10% of players.
+     * @return The play time in seconds, or 0 if no players are ranked.
+     */
+    public long getPlayTimeAtPercentile(@NotNull TimeCategory timeCategory, double percentile) {
+        @Nullable RankIndex rankIndex = rankIndexes.get(timeCategory == TimeCategory.ALL ? TimeCategory.TOTAL : timeCategory);
+        if(rankIndex == null) return 0;
+
+        return rankIndex.getPlayTimeAtPercentile(percentile);
+    }
+
+    /**
+     * Get a copy of the play time sketch for the {@link TimeCategory}, which can be encoded or merged with sketches from other servers.
+     * @param timeCategory The {@link TimeCategory} to get the sketch for. {@link TimeCategory#ALL} returns the {@link TimeCategory#TOTAL} sketch.
+     * @return A {@link PlayTimeSketch}.
+     */
+    public @NotNull PlayTimeSketch getPlayTimeSketch(@NotNull TimeCategory timeCategory) {
+        @Nullable RankIndex rankIndex = rankIndexes.get(timeCategory == TimeCategory.ALL ? TimeCategory.TOTAL : timeCategory);
+        if(rankIndex == null) return new PlayTimeSketch();
+
+        return rankIndex.copySketch();
+    }
+
+    /**
+     * Get the top positions for the {@link TimeCategory} from the last published {@link LeaderboardState}.
+     * The number of positions is set by the configured leaderboard depth.
+     * @param timeCategory The {@link TimeCategory} to get the top positions for. {@link TimeCategory#ALL} returns the {@link TimeCategory#TOTAL} standings.
+     * @return An unmodifiable {@link List} of {@link Position}s, highest play time first.
+     */
+    public @NotNull List<@NotNull Position> getTopPositions(@NotNull TimeCategory timeCategory) {
+        return leaderboardState.getTopPositions(timeCategory);
+    }
+
+    /**
+     * From the top positions for the {@link TimeCategory} provided, get the {@link Position} at the positon N.
+     * NOTE: Anything less than or equal to 0 or greater than the leaderboard depth will always return null.
      * @param timeCategory The {@link TimeCategory} to get the {@link Position} for.
      * @param positionNumber The position number to get.
      * @return A {@link Position}. May be null.
      */
     public @Nullable Position getPositionForCategoryAtPositionNumber(@NotNull TimeCategory timeCategory, int positionNumber) {
-        TopTen topTen = getTopTenByTimeCategoryNotExempt(timeCategory);
-        if(topTen == null) {
-            return null;
+        return leaderboardState.getPosition(timeCategory, positionNumber);
+    }
+
+    /**
+     * Get a page of the leaderboard for the {@link TimeCategory}.
+     * Pages within the leaderboard depth are served from the last published {@link LeaderboardState}, and deeper pages of {@link TimeCategory#SESSION} from the live standings.
+     * Deeper pages continue from the last top position with a keyset read from the database, seeking past the play time and {@link UUID} of the last position before the page.
+     * Players in the top positions are skipped in the database pages, so a page that crosses the leaderboard depth never shows a player twice.
+     * The last position of each page read is cached, so moving to the next page always reads a single page.
+     * @param timeCategory The {@link TimeCategory} to get the page for. {@link TimeCategory#ALL} returns the {@link TimeCategory#TOTAL} leaderboard.
+     * @param page The page number, starting at 1.
+     * @return A {@link CompletableFuture} containing the {@link LeaderboardPage}.
+     */
+    public @NotNull CompletableFuture<@NotNull LeaderboardPage> getLeaderboardPage(@NotNull TimeCategory timeCategory, int page) {
+        TimeCategory category = timeCategory == TimeCategory.ALL ? TimeCategory.TOTAL : timeCategory;
+        int pageSize = settingsManager.getLeaderboardPageSize();
+        if(page <= 0 || page > Integer.MAX_VALUE / pageSize) {
+            return CompletableFuture.completedFuture(new LeaderboardPage(category, page, 0, pageSize, new ArrayList<>()));
+        }
+
+        int firstPosition = (page - 1) * pageSize + 1;
+        int lastPosition = firstPosition + pageSize - 1;
+
+        @Nullable LiveLeaderboard liveLeaderboard = liveLeaderboards.get(category);
+        if(liveLeaderboard == null) {
+            return CompletableFuture.completedFuture(new LeaderboardPage(category, page, firstPosition, pageSize, new ArrayList<>()));
+        }
+
+        List<Position> topPositions = leaderboardState.getTopPositions(category);
+        if(lastPosition <= settingsManager.getLeaderboardDepth()) {
+            int fromIndex = Math.min(firstPosition - 1, topPositions.size());
+            int toIndex = Math.min(lastPosition, topPositions.size());
+            return CompletableFuture.completedFuture(new LeaderboardPage(category, page, firstPosition, pageSize, topPositions.subList(fromIndex, toIndex)));
+        }
+
+        if(category == TimeCategory.SESSION) {
+            return CompletableFuture.completedFuture(new LeaderboardPage(category, page, firstPosition, pageSize, liveLeaderboard.getPositions(firstPosition - 1, pageSize)));
+        }
+
+        // The part of the page within the top positions.
+        int topCount = topPositions.size();
+        List<Position> pagePositions = new ArrayList<>(pageSize);
+        if(firstPosition <= topCount) pagePositions.addAll(topPositions.subList(firstPosition - 1, topCount));
+
+        // Continue after the closest cached page cursor, or after the last top position if no page past it was read yet.
+        ConcurrentSkipListMap<Integer, Position> cursors = pageCursors.get(category);
+        @Nullable Map.Entry<Integer, Position> cachedCursor = cursors.floorEntry(firstPosition - 1);
+        int cursorPosition;
+        @Nullable Position cursor;
+        if(cachedCursor != null && cachedCursor.getKey() >= topCount) {
+            cursorPosition = cachedCursor.getKey();
+            cursor = cachedCursor.getValue();
+        } else {
+            cursorPosition = topCount;
+            cursor = topCount > 0 ? topPositions.getLast() : null;
         }
 
-        return topTen.getPosition(positionNumber);
+        Set<UUID> topUUIDs = new HashSet<>();
+        topPositions.forEach(position -> topUUIDs.add(position.uuid()));
+        int startPosition = cursorPosition + 1;
+        int count = lastPosition - startPosition + 1;
+
+        // Extra rows are read to make up for top players whose stored play time is older than their live play time.
+        return databaseManager.getPlayTimeTable()
+                .getPositionsNotExempt(category, cursor, count + topUUIDs.size())
+                .thenApply(positions -> {
+                    List<Position> databasePositions = new ArrayList<>(count);
+                    for(Position position : positions) {
+                        if(databasePositions.size() == count) break;
+                        if(!topUUIDs.contains(position.uuid())) databasePositions.add(position);
+                    }
+
+                    // Cache the last position of each page that was read.
+                    for(int i = 0; i < databasePositions.size(); i++) {
+                        int positionNumber = startPosition + i;
+                        if(positionNumber % pageSize == 0) cursors.put(positionNumber, databasePositions.get(i));
+                    }
+
+                    int fromIndex = Math.min(Math.max(firstPosition - startPosition, 0), databasePositions.size());
+                    pagePositions.addAll(databasePositions.subList(fromIndex, databasePositions.size()));
+                    return new LeaderboardPage(category, page, firstPosition, pageSize, List.copyOf(pagePositions));
+                });
     }
 
     /**
-     * Save an archive the current top 10 players to a file for the provided {@link TimeCategory}.
-     * @param timeCategory A {@link TimeCategory} to save the current top 10 leaderboard for.
+     * Save an archive of the current top players and the play time sketch to a file for the provided {@link TimeCategory}.
+     * @param timeCategory A {@link TimeCategory} to save the current top players for.
      * @return A true if successful, or false if not.
      */
     public boolean saveLeaderboardSnapshot(@NotNull TimeCategory timeCategory) {
-        TopTen topTen = getTopTenByTimeCategoryNotExempt(timeCategory);
-        if(topTen == null) return false;
-
         String fileName = "leaderboard_" + timeCategory.toString().toLowerCase() + "_" + TimeUtil.millisToTimeStamp(System.currentTimeMillis(), ZoneId.of("America/New_York"), "MM-dd-yyyy_HH-mm-ss");
 
-        return leaderboardSnapshotManager.saveHistoricalLeaderboard(fileName, new LeaderboardSnapshot("1.0.0.0", timeCategory, topTen.getPositions()));
+        return leaderboardSnapshotManager.saveHistoricalLeaderboard(fileName, new LeaderboardSnapshot("1.0.0.0", timeCategory, getTopPositions(timeCategory), getPlayTimeSketch(timeCategory).encode()));
     }
-
     /**
      * Save a leaderboard snapshot for the play time categories using the boolean options.
      * @param session Should a snapshot of the session play time leaderboard be saved?
@@ -211,6 +510,7 @@ public class LeaderboardManager {
             boolean yearly,
             boolean total) {
         List<Boolean> results = new ArrayList<>(6);
+        publishLeaderboardStateIfChanged();
 
         if(session) results.add(saveLeaderboardSnapshot(TimeCategory.SESSION));
         if(daily) results.add(saveLeaderboardSnapshot(TimeCategory.DAILY));
@@ -17,7 +17,9 @@
 */
 package com.github.lukesky19.skyplaytime.listener;
 
+import com.github.lukesky19.skyplaytime.leaderboard.manager.LeaderboardManager;
 import com.github.lukesky19.skyplaytime.player.manager.PlayerDataManager;
+import com.github.lukesky19.skyplaytime.player.manager.SessionManager;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -25,18 +27,26 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.UUID;
+
 /**
  * This class listens to when a player logs in to initialize and update any data.
  */
 public class LoginListener implements Listener {
     private final @NotNull PlayerDataManager playerDataManager;
+    private final @NotNull SessionManager sessionManager;
+    private final @NotNull LeaderboardManager leaderboardManager;
 
     /**
      * Constructor
      * @param playerDataManager A {@link PlayerDataManager} instance.
+     * @param sessionManager A {@link SessionManager} instance.
+     * @param leaderboardManager A {@link LeaderboardManager} instance.
      */
-    public LoginListener(@NotNull PlayerDataManager playerDataManager) {
+    public LoginListener(@NotNull PlayerDataManager playerDataManager, @NotNull SessionManager sessionManager, @NotNull LeaderboardManager leaderboardManager) {
         this.playerDataManager = playerDataManager;
+        this.sessionManager = sessionManager;
+        this.leaderboardManager = leaderboardManager;
     }
 
     /**
@@ -47,6 +57,9 @@ public class LoginListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent playerJoinEvent) {
         Player player = playerJoinEvent.getPlayer();
 
-        playerDataManager.loadPlayerData(player, player.getUniqueId());
+        UUID uuid = player.getUniqueId();
+
+        playerDataManager.loadPlayerData(player, uuid).thenRun(() -> leaderboardManager.trackPlayer(uuid));
+        sessionManager.startSession(uuid);
     }
 }
@@ -17,7 +17,9 @@
 */
 package com.github.lukesky19.skyplaytime.listener;
 
+import com.github.lukesky19.skyplaytime.leaderboard.manager.LeaderboardManager;
 import com.github.lukesky19.skyplaytime.player.manager.PlayerDataManager;
+import com.github.lukesky19.skyplaytime.player.manager.SessionManager;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -32,13 +34,19 @@ import java.util.UUID;
  */
 public class LogoutListener implements Listener {
     private final @NotNull PlayerDataManager playerDataManager;
+    private final @NotNull SessionManager sessionManager;
+    private final @NotNull LeaderboardManager leaderboardManager;
 
     /**
      * Constructor
      * @param playerDataManager A {@link PlayerDataManager} instance.
+     * @param sessionManager A {@link SessionManager} instance.
+     * @param leaderboardManager A {@link LeaderboardManager} instance.
      */
-    public LogoutListener(@NotNull PlayerDataManager playerDataManager) {
+    public LogoutListener(@NotNull PlayerDataManager playerDataManager, @NotNull SessionManager sessionManager, @NotNull LeaderboardManager leaderboardManager) {
         this.playerDataManager = playerDataManager;
+        this.sessionManager = sessionManager;
+        this.leaderboardManager = leaderboardManager;
     }
 
     /**
@@ -50,6 +58,8 @@ public class LogoutListener implements Listener {
         Player player = playerQuitEvent.getPlayer();
         UUID uuid = player.getUniqueId();
 
+        sessionManager.endSession(uuid);
+        leaderboardManager.untrackPlayer(uuid);
         playerDataManager.unloadPlayerData(uuid);
     }
 }
@@ -199,6 +199,9 @@ public class SkyPlayTimeExpansion extends PlaceholderExpansion {
             }
 
             default -> {
+                if(placeholder.startsWith("rank_")) return getRank(uuid, placeholder.substring("rank_".length()));
+                if(placeholder.startsWith("top_percent_")) return getTopPercent(uuid, placeholder.substring("top_percent_".length()));
+
                 // 0 - top
                 // 1 - <category>
                 // 2 - time
@@ -377,6 +380,9 @@ public class SkyPlayTimeExpansion extends PlaceholderExpansion {
             }
 
             default -> {
+                if(placeholder.startsWith("rank_")) return getRank(uuid, placeholder.substring("rank_".length()));
+                if(placeholder.startsWith("top_percent_")) return getTopPercent(uuid, placeholder.substring("top_percent_".length()));
+
                 // 0 - top
                 // 1 - <category>
                 // 2 - time
@@ -450,6 +456,50 @@ public class SkyPlayTimeExpansion extends PlaceholderExpansion {
         }
     }
 
+    /**
+     * Get the player's rank for the {@link TimeCategory} with the provided name.
+     * @param uuid The {@link UUID} of the player.
+     * @param categoryName The name of the {@link TimeCategory}.
+     * @return A {@link String} with the player's rank or an empty {@link String} if the player is not ranked.
+     */
+    private @NotNull String getRank(@NotNull UUID uuid, @NotNull String categoryName) {
+        TimeCategory timeCategory;
+        try {
+            timeCategory = TimeCategory.valueOf(categoryName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+
+        int rank = leaderboardManager.getRank(uuid, timeCategory);
+        if(rank == 0) return "";
+
+        return String.valueOf(rank);
+    }
+
+    /**
+     * Get the estimated percentage of players at or above the player's play time for the {@link TimeCategory} with the provided name.
+     * The percentage is rounded up to one decimal place, so the best players show 0.1 rather than 0.
+     * @param uuid The {@link UUID} of the player.
+     * @param categoryName The name of the {@link TimeCategory}.
+     * @return A {@link String} with the percentage or an empty {@link String} if the player is not ranked.
+     */
+    private @NotNull String getTopPercent(@NotNull UUID uuid, @NotNull String categoryName) {
+        TimeCategory timeCategory;
+        try {
+            timeCategory = TimeCategory.valueOf(categoryName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+
+        double topPercent = leaderboardManager.getTopPercent(uuid, timeCategory);
+        if(topPercent == 0) return "";
+
+        double rounded = Math.ceil(topPercent * 10) / 10;
+        if(rounded == Math.floor(rounded)) return String.valueOf((long) rounded);
+
+        return String.valueOf(rounded);
+    }
+
     /**
      * Get the player's name for the provide {@link TimeCategory} and position.
      * @param positionNumber The position number to get the player name for.
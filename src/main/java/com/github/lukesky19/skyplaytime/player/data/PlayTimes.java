@@ -0,0 +1,145 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.player.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * This class contains the play time in seconds of multiple players for a single time category.
+ * Play time is stored in primitive arrays sorted by {@link UUID} so that lookups do not box values.
+ */
+public final class PlayTimes {
+    private final @NotNull UUID @NotNull [] uuids;
+    private final long @NotNull [] seconds;
+
+    /**
+     * Constructor
+     * @param uuids The {@link UUID}s of the players, sorted in ascending order.
+     * @param seconds The play time in seconds of each player, in the same order as the {@link UUID}s.
+     */
+    private PlayTimes(@NotNull UUID @NotNull [] uuids, long @NotNull [] seconds) {
+        this.uuids = uuids;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Get the number of players with play time.
+     * @return The number of players.
+     */
+    public int size() {
+        return uuids.length;
+    }
+
+    /**
+     * Checks if play time is available for the given {@link UUID}.
+     * @param uuid The {@link UUID} of the player.
+     * @return true if play time is available, otherwise false.
+     */
+    public boolean contains(@NotNull UUID uuid) {
+        return Arrays.binarySearch(uuids, uuid) >= 0;
+    }
+
+    /**
+     * Get the play time in seconds for the given {@link UUID}.
+     * @param uuid The {@link UUID} of the player.
+     * @param defaultSeconds The value to return if no play time is available for the player.
+     * @return The play time in seconds or the default value.
+     */
+    public long getPlayTime(@NotNull UUID uuid, long defaultSeconds) {
+        int index = Arrays.binarySearch(uuids, uuid);
+        return index >= 0 ? seconds[index] : defaultSeconds;
+    }
+
+    /**
+     * Runs the provided {@link ObjLongConsumer} for each player's {@link UUID} and play time in seconds.
+     * @param consumer The {@link ObjLongConsumer} to run.
+     */
+    public void forEach(@NotNull ObjLongConsumer<@NotNull UUID> consumer) {
+        for(int i = 0; i < uuids.length; i++) {
+            consumer.accept(uuids[i], seconds[i]);
+        }
+    }
+
+    /**
+     * This class builds a {@link PlayTimes}.
+     * This class is not thread-safe.
+     */
+    public static final class Builder {
+        private @NotNull UUID @NotNull [] uuids;
+        private long @NotNull [] seconds;
+        private int size = 0;
+
+        /**
+         * Constructor
+         * @param expectedSize The expected number of players.
+         */
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            this.uuids = new UUID[capacity];
+            this.seconds = new long[capacity];
+        }
+
+        /**
+         * Adds a player's play time.
+         * Adding the same {@link UUID} more than once keeps the last play time added.
+         * @param uuid The {@link UUID} of the player.
+         * @param playTimeSeconds The play time in seconds.
+         * @return This {@link Builder}.
+         */
+        public @NotNull Builder add(@NotNull UUID uuid, long playTimeSeconds) {
+            if(size == uuids.length) {
+                uuids = Arrays.copyOf(uuids, size * 2);
+                seconds = Arrays.copyOf(seconds, size * 2);
+            }
+
+            uuids[size] = uuid;
+            seconds[size] = playTimeSeconds;
+            size++;
+            return this;
+        }
+
+        /**
+         * Builds the {@link PlayTimes}.
+         * @return A new {@link PlayTimes}.
+         */
+        public @NotNull PlayTimes build() {
+            Integer[] order = new Integer[size];
+            for(int i = 0; i < size; i++) order[i] = i;
+            // The sort is stable, so the last entry of a duplicate UUID ends up last.
+            Arrays.sort(order, Comparator.comparing(i -> uuids[i]));
+
+            UUID[] sortedUuids = new UUID[size];
+            long[] sortedSeconds = new long[size];
+            int count = 0;
+            for(int i : order) {
+                if(count > 0 && sortedUuids[count - 1].equals(uuids[i])) count--;
+
+                sortedUuids[count] = uuids[i];
+                sortedSeconds[count] = seconds[i];
+                count++;
+            }
+
+            return new PlayTimes(Arrays.copyOf(sortedUuids, count), Arrays.copyOf(sortedSeconds, count));
+        }
+    }
+}
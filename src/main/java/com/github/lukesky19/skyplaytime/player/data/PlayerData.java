@@ -35,6 +35,27 @@ public class PlayerData {
     private long yearlyPlayTimeSeconds = 0;
     // Leaderboard Data
     private boolean exempt = false;
+    // Save Data
+    private long generation = 0;
+    private volatile long savedGeneration = 0;
+    // The play time that is stored in the database or captured by a save that has not failed.
+    private volatile long flushedDailyPlayTimeSeconds = 0;
+    private volatile long flushedWeeklyPlayTimeSeconds = 0;
+    private volatile long flushedMonthlyPlayTimeSeconds = 0;
+    private volatile long flushedYearlyPlayTimeSeconds = 0;
+    private volatile long flushedTotalPlayTimeSeconds = 0;
+    // Increases every time a flushed play time is reset, so a save captured before a reset that fails does not move it back.
+    private volatile long resetGeneration = 0;
+    // The reset generation at which each flushed play time was last reset.
+    private long dailyResetGeneration = 0;
+    private long weeklyResetGeneration = 0;
+    private long monthlyResetGeneration = 0;
+    private long yearlyResetGeneration = 0;
+    private long totalResetGeneration = 0;
+    // Counts the saves captured for this player, so a save captured before another save failed is not taken as saving its play time.
+    private long captures = 0;
+    private volatile long savedCapture = 0;
+    private volatile long rolledBackCapture = 0;
 
     // Activity Data
     private long lastMoveTime = System.currentTimeMillis();
@@ -65,6 +86,8 @@ public class PlayerData {
         monthlyPlayTimeSeconds += playTimeSeconds;
         yearlyPlayTimeSeconds += playTimeSeconds;
         totalPlayTimeSeconds += playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -86,6 +109,8 @@ public class PlayerData {
         if(weeklyPlayTimeSeconds < 0) weeklyPlayTimeSeconds = 0;
         if(monthlyPlayTimeSeconds < 0) monthlyPlayTimeSeconds = 0;
         if(totalPlayTimeSeconds < 0) totalPlayTimeSeconds = 0;
+
+        markDirty();
     }
 
     /**
@@ -101,6 +126,8 @@ public class PlayerData {
         weeklyPlayTimeSeconds = playTimeSeconds;
         monthlyPlayTimeSeconds = playTimeSeconds;
         totalPlayTimeSeconds = playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -155,6 +182,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         dailyPlayTimeSeconds += playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -168,6 +197,8 @@ public class PlayerData {
         dailyPlayTimeSeconds -= playTimeSeconds;
 
         if(dailyPlayTimeSeconds < 0) dailyPlayTimeSeconds = 0;
+
+        markDirty();
     }
 
     /**
@@ -179,6 +210,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         dailyPlayTimeSeconds = playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -198,6 +231,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         weeklyPlayTimeSeconds += playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -211,6 +246,8 @@ public class PlayerData {
         weeklyPlayTimeSeconds -= playTimeSeconds;
 
         if(weeklyPlayTimeSeconds < 0) weeklyPlayTimeSeconds = 0;
+
+        markDirty();
     }
 
     /**
@@ -222,6 +259,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         weeklyPlayTimeSeconds = playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -241,6 +280,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         monthlyPlayTimeSeconds += playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -254,6 +295,8 @@ public class PlayerData {
         monthlyPlayTimeSeconds -= playTimeSeconds;
 
         if(monthlyPlayTimeSeconds < 0) monthlyPlayTimeSeconds = 0;
+
+        markDirty();
     }
 
     /**
@@ -265,6 +308,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         monthlyPlayTimeSeconds = playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -284,6 +329,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         yearlyPlayTimeSeconds += playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -297,6 +344,8 @@ public class PlayerData {
         yearlyPlayTimeSeconds -= playTimeSeconds;
 
         if(yearlyPlayTimeSeconds < 0) yearlyPlayTimeSeconds = 0;
+
+        markDirty();
     }
 
     /**
@@ -308,6 +357,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         yearlyPlayTimeSeconds = playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -327,6 +378,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         totalPlayTimeSeconds += playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -340,6 +393,8 @@ public class PlayerData {
         totalPlayTimeSeconds -= playTimeSeconds;
 
         if(totalPlayTimeSeconds < 0) totalPlayTimeSeconds = 0;
+
+        markDirty();
     }
 
     /**
@@ -351,6 +406,8 @@ public class PlayerData {
         if(playTimeSeconds < 0) throw new RuntimeException("Play time must be a positive number.");
 
         totalPlayTimeSeconds = playTimeSeconds;
+
+        markDirty();
     }
 
     /**
@@ -441,6 +498,8 @@ public class PlayerData {
      */
     public void setExempt(boolean exempt) {
         this.exempt = exempt;
+
+        markDirty();
     }
 
     /**
@@ -451,6 +510,161 @@ public class PlayerData {
         return exempt;
     }
 
+    /**
+     * Get the generation of this player data. The generation increases every time the play time or exemption status changes.
+     * @return The current generation.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the reset generation of this player data. The reset generation increases every time a flushed play time is reset.
+     * @return The current reset generation.
+     */
+    public long getResetGeneration() {
+        return resetGeneration;
+    }
+
+    /**
+     * Checks if the play time or exemption status has changed since the last successful save, or if a save failed since then.
+     * @return true if the data needs to be saved, false if not.
+     */
+    public boolean isDirty() {
+        return generation != savedGeneration || savedCapture < rolledBackCapture;
+    }
+
+    /**
+     * Records that a save of this player data was captured.
+     * @return The capture number of the save, passed to {@link #markSaved(long, long)} once it is written.
+     */
+    public synchronized long captureSave() {
+        return ++captures;
+    }
+
+    /**
+     * Moves the flushed play time for the {@link TimeCategory} provided forward to the play time captured for a save.
+     * The flushed play time is moved when the save is captured instead of when it commits, so another save captured while the first is still queued
+     * only writes the play time gained since. If the save fails, {@link #rollbackSave(long, long, long, long, long, long)} moves it back.
+     * @param timeCategory The {@link TimeCategory} to move the flushed play time for. {@link TimeCategory#SESSION} is ignored.
+     * @param seconds The play time in seconds captured for the save.
+     * @return The flushed play time in seconds before it was moved.
+     */
+    public synchronized long advanceFlushedPlayTime(@NotNull TimeCategory timeCategory, long seconds) {
+        long flushed = getFlushedPlayTime(timeCategory);
+        setFlushedPlayTime(timeCategory, seconds);
+
+        return flushed;
+    }
+
+    /**
+     * Marks the player data as saved once a captured save was written to the database.
+     * Changes made after the save was captured will still be saved on the next save.
+     * @param generation The generation of the player data when the save was captured.
+     * @param capture The capture number returned by {@link #captureSave()}.
+     */
+    public synchronized void markSaved(long generation, long capture) {
+        if(generation > savedGeneration) savedGeneration = generation;
+        if(capture > savedCapture) savedCapture = capture;
+    }
+
+    /**
+     * Moves the flushed play time back by the play time a failed save captured, so the next save writes it again.
+     * A flushed play time that was reset after the save was captured is left unchanged, as the play time from before the reset is not saved.
+     * The player data stays dirty until a save captured after this is written.
+     * @param resetGeneration The reset generation of the player data when the save was captured.
+     * @param daily The daily play time in seconds the save would have written.
+     * @param weekly The weekly play time in seconds the save would have written.
+     * @param monthly The monthly play time in seconds the save would have written.
+     * @param yearly The yearly play time in seconds the save would have written.
+     * @param total The total play time in seconds the save would have written.
+     */
+    public synchronized void rollbackSave(long resetGeneration, long daily, long weekly, long monthly, long yearly, long total) {
+        if(resetGeneration >= dailyResetGeneration) flushedDailyPlayTimeSeconds -= daily;
+        if(resetGeneration >= weeklyResetGeneration) flushedWeeklyPlayTimeSeconds -= weekly;
+        if(resetGeneration >= monthlyResetGeneration) flushedMonthlyPlayTimeSeconds -= monthly;
+        if(resetGeneration >= yearlyResetGeneration) flushedYearlyPlayTimeSeconds -= yearly;
+        if(resetGeneration >= totalResetGeneration) flushedTotalPlayTimeSeconds -= total;
+
+        rolledBackCapture = captures;
+    }
+
+    /**
+     * Get the play time in seconds for the {@link TimeCategory} provided that is stored in the database or captured by a save that has not failed.
+     * {@link TimeCategory#SESSION} is never stored and will always return 0. {@link TimeCategory#ALL} will return the total play time category.
+     * @param timeCategory The {@link TimeCategory} to get the flushed play time for.
+     * @return The flushed play time in seconds.
+     */
+    public long getFlushedPlayTime(@NotNull TimeCategory timeCategory) {
+        return switch (timeCategory) {
+            case SESSION -> 0;
+            case DAILY -> flushedDailyPlayTimeSeconds;
+            case WEEKLY -> flushedWeeklyPlayTimeSeconds;
+            case MONTHLY -> flushedMonthlyPlayTimeSeconds;
+            case YEARLY -> flushedYearlyPlayTimeSeconds;
+            case TOTAL, ALL -> flushedTotalPlayTimeSeconds;
+        };
+    }
+
+    /**
+     * Sets the play time in seconds for the {@link TimeCategory} provided that is known to be stored in the database.
+     * This is used when play time is loaded from or reset in the database.
+     * @param timeCategory The {@link TimeCategory} to set the flushed play time for. {@link TimeCategory#SESSION} is ignored.
+     * @param seconds The play time in seconds stored in the database.
+     */
+    public void setFlushedPlayTime(@NotNull TimeCategory timeCategory, long seconds) {
+        switch(timeCategory) {
+            case SESSION -> {}
+            case DAILY -> flushedDailyPlayTimeSeconds = seconds;
+            case WEEKLY -> flushedWeeklyPlayTimeSeconds = seconds;
+            case MONTHLY -> flushedMonthlyPlayTimeSeconds = seconds;
+            case YEARLY -> flushedYearlyPlayTimeSeconds = seconds;
+            case TOTAL -> flushedTotalPlayTimeSeconds = seconds;
+            case ALL -> {
+                flushedDailyPlayTimeSeconds = seconds;
+                flushedWeeklyPlayTimeSeconds = seconds;
+                flushedMonthlyPlayTimeSeconds = seconds;
+                flushedYearlyPlayTimeSeconds = seconds;
+                flushedTotalPlayTimeSeconds = seconds;
+            }
+        }
+    }
+
+    /**
+     * Resets the play time in seconds for the {@link TimeCategory} provided that is known to be stored in the database to 0.
+     * Saves that captured their values before the reset will not move the flushed play time for this category back if they fail.
+     * @param timeCategory The {@link TimeCategory} to reset the flushed play time for. {@link TimeCategory#SESSION} is ignored.
+     */
+    public synchronized void resetFlushedPlayTime(@NotNull TimeCategory timeCategory) {
+        if(timeCategory == TimeCategory.SESSION) return;
+
+        long next = resetGeneration + 1;
+        switch(timeCategory) {
+            case DAILY -> dailyResetGeneration = next;
+            case WEEKLY -> weeklyResetGeneration = next;
+            case MONTHLY -> monthlyResetGeneration = next;
+            case YEARLY -> yearlyResetGeneration = next;
+            case TOTAL -> totalResetGeneration = next;
+            case ALL -> {
+                dailyResetGeneration = next;
+                weeklyResetGeneration = next;
+                monthlyResetGeneration = next;
+                yearlyResetGeneration = next;
+                totalResetGeneration = next;
+            }
+        }
+
+        setFlushedPlayTime(timeCategory, 0);
+        resetGeneration = next;
+    }
+
+    /**
+     * Increments the generation so that the player data will be written on the next save.
+     */
+    private void markDirty() {
+        generation++;
+    }
+
     /**
      * Gets the player's last move timestamp.
      * @return The player's last move timestamp.
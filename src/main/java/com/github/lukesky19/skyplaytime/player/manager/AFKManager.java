@@ -48,6 +48,7 @@ public class AFKManager {
     private final @NotNull SettingsManager settingsManager;
     private final @NotNull LocaleManager localeManager;
     private final @NotNull PlayerDataManager playerDataManager;
+    private final @NotNull SessionManager sessionManager;
     private final @Nullable NewPlayerPerksAPI newPlayerPerksAPI;
 
     /**
@@ -56,6 +57,7 @@ public class AFKManager {
      * @param settingsManager A {@link SettingsManager} instance.
      * @param localeManager A {@link LocaleManager} instance.
      * @param playerDataManager A {@link PlayerDataManager} instance.
+     * @param sessionManager A {@link SessionManager} instance.
      * @param newPlayerPerksAPI A {@link NewPlayerPerksAPI} instance. May be null.
      */
     public AFKManager(
@@ -63,12 +65,14 @@ public class AFKManager {
             @NotNull SettingsManager settingsManager,
             @NotNull LocaleManager localeManager,
             @NotNull PlayerDataManager playerDataManager,
+            @NotNull SessionManager sessionManager,
             @Nullable NewPlayerPerksAPI newPlayerPerksAPI) {
         this.skyPlayTime = skyPlayTime;
         this.logger = skyPlayTime.getComponentLogger();
         this.settingsManager = settingsManager;
         this.localeManager = localeManager;
         this.playerDataManager = playerDataManager;
+        this.sessionManager = sessionManager;
         this.newPlayerPerksAPI = newPlayerPerksAPI;
     }
 
@@ -138,6 +142,7 @@ public class AFKManager {
         if(currentAFKStatus) {
             // Set AFK status to false
             playerData.setAFK(false);
+            sessionManager.setAFK(uuid, false);
 
             // If the target player should be notified that they are no longer AFK, do so here
             if(notifyPlayer) targetPlayer.sendMessage(AdventureUtil.deserialize(locale.prefix() + locale.noLongerAfkMessage()));
@@ -166,6 +171,7 @@ public class AFKManager {
         } else {
             // Set AFK status to true
             playerData.setAFK(true);
+            sessionManager.setAFK(uuid, true);
 
             // If the target player should be notified that they are now AFK, do so here
             if(notifyPlayer) targetPlayer.sendMessage(AdventureUtil.deserialize(locale.prefix() + locale.afkMessage()));
@@ -0,0 +1,189 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.player.manager;
+
+import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
+import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.config.data.settings.Settings;
+import com.github.lukesky19.skyplaytime.config.manager.settings.SettingsManager;
+import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.database.data.DailyPlayTime;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class manages the play time players gain per day.
+ * Play time is collected in memory and added to the database in a single batch each time player data is saved.
+ * Days are calculated using the time zone in the reset settings.
+ */
+public class DailyPlayTimeManager {
+    private final @NotNull ComponentLogger logger;
+    private final @NotNull SettingsManager settingsManager;
+    private final @NotNull DatabaseManager databaseManager;
+    // Play time that has not been added to the database yet, by day and then by player.
+    private final @NotNull Map<@NotNull Long, @NotNull Map<@NotNull UUID, long @NotNull []>> pendingPlayTime = new HashMap<>();
+    private @Nullable Map<@NotNull UUID, long @NotNull []> currentDayPlayTime;
+    private long currentDay;
+    private long nextDayMillis = Long.MIN_VALUE;
+
+    /**
+     * Constructor
+     * @param skyPlayTime A {@link SkyPlayTime} instance.
+     * @param settingsManager A {@link SettingsManager} instance.
+     * @param databaseManager A {@link DatabaseManager} instance.
+     */
+    public DailyPlayTimeManager(
+            @NotNull SkyPlayTime skyPlayTime,
+            @NotNull SettingsManager settingsManager,
+            @NotNull DatabaseManager databaseManager) {
+        this.logger = skyPlayTime.getComponentLogger();
+        this.settingsManager = settingsManager;
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Adds play time to the player's play time for the current day.
+     * @param uuid The {@link UUID} of the player.
+     * @param seconds The play time in seconds to add.
+     */
+    public synchronized void addPlayTime(@NotNull UUID uuid, long seconds) {
+        long now = System.currentTimeMillis();
+        if(currentDayPlayTime == null || now >= nextDayMillis) {
+            ZoneId zoneId = getZoneId();
+            LocalDate today = LocalDate.now(zoneId);
+
+            currentDay = today.toEpochDay();
+            nextDayMillis = today.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+            currentDayPlayTime = pendingPlayTime.computeIfAbsent(currentDay, day -> new HashMap<>());
+        }
+
+        currentDayPlayTime.computeIfAbsent(uuid, key -> new long[1])[0] += seconds;
+    }
+
+    /**
+     * Adds all collected play time to the database in a single batch.
+     * If the batch fails, the play time is kept so it is added by the next flush.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> flush() {
+        List<DailyPlayTime> dailyPlayTimes = drain();
+
+        return databaseManager.getDailyPlayTimeTable().addPlayTime(dailyPlayTimes)
+                .exceptionally(throwable -> {
+                    logger.error(AdventureUtil.deserialize("Failed to save daily play time to the database: " + throwable.getMessage()));
+                    restore(dailyPlayTimes);
+                    return null;
+                });
+    }
+
+    /**
+     * Removes and returns all collected play time that has not been added to the database yet.
+     * @return A {@link List} of {@link DailyPlayTime}.
+     */
+    public synchronized @NotNull List<@NotNull DailyPlayTime> drain() {
+        List<DailyPlayTime> dailyPlayTimes = new ArrayList<>();
+        pendingPlayTime.forEach((day, playTimeMap) ->
+                playTimeMap.forEach((uuid, seconds) -> dailyPlayTimes.add(new DailyPlayTime(uuid, day, seconds[0]))));
+
+        pendingPlayTime.clear();
+        currentDayPlayTime = null;
+
+        return dailyPlayTimes;
+    }
+
+    /**
+     * Gets the play time a player gained between two dates, including both dates.
+     * The dates are in the time zone in the reset settings. Play time that has not been added to the database yet is included.
+     * @param uuid The {@link UUID} of the player.
+     * @param from The first {@link LocalDate}.
+     * @param to The last {@link LocalDate}.
+     * @return A {@link CompletableFuture} containing the play time in seconds.
+     */
+    public @NotNull CompletableFuture<@NotNull Long> getPlayTimeBetween(@NotNull UUID uuid, @NotNull LocalDate from, @NotNull LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        long pendingSeconds = 0;
+        synchronized(this) {
+            for(Map.Entry<Long, Map<UUID, long[]>> entry : pendingPlayTime.entrySet()) {
+                long day = entry.getKey();
+                if(day < fromDay || day > toDay) continue;
+
+                long @Nullable [] seconds = entry.getValue().get(uuid);
+                if(seconds != null) pendingSeconds += seconds[0];
+            }
+        }
+
+        long unsavedSeconds = pendingSeconds;
+        return databaseManager.getDailyPlayTimeTable().getPlayTimeBetween(uuid, fromDay, toDay)
+                .thenApply(savedSeconds -> savedSeconds + unsavedSeconds);
+    }
+
+    /**
+     * Rolls up all complete weeks and months into the weekly and monthly tables.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> rollUp() {
+        long today = LocalDate.now(getZoneId()).toEpochDay();
+
+        return databaseManager.getDailyPlayTimeTable().rollUp(today)
+                .thenAccept(rolledUp -> {
+                    if(rolledUp > 0) logger.info(AdventureUtil.deserialize("Rolled up " + rolledUp + " weeks and months of daily play time."));
+                })
+                .exceptionally(throwable -> {
+                    logger.error(AdventureUtil.deserialize("Failed to roll up daily play time: " + throwable.getMessage()));
+                    return null;
+                });
+    }
+
+    /**
+     * Adds play time that failed to save back to the collected play time.
+     * @param dailyPlayTimes The {@link List} of {@link DailyPlayTime} that failed to save.
+     */
+    private synchronized void restore(@NotNull List<@NotNull DailyPlayTime> dailyPlayTimes) {
+        for(DailyPlayTime dailyPlayTime : dailyPlayTimes) {
+            Map<UUID, long[]> playTimeMap = pendingPlayTime.computeIfAbsent(dailyPlayTime.day(), day -> new HashMap<>());
+            playTimeMap.computeIfAbsent(dailyPlayTime.uuid(), key -> new long[1])[0] += dailyPlayTime.seconds();
+        }
+
+        // The map for the current day may have been replaced, so it is looked up again on the next add.
+        currentDayPlayTime = null;
+    }
+
+    /**
+     * Get the {@link ZoneId} that days are calculated in.
+     * @return The {@link ZoneId} from the reset settings, or the system default if the settings are invalid.
+     */
+    private @NotNull ZoneId getZoneId() {
+        @Nullable Settings settings = settingsManager.getSettings();
+        if(settings == null) return ZoneId.systemDefault();
+
+        try {
+            return ZoneId.of(settings.resetSettings().zoneId());
+        } catch (DateTimeException e) {
+            return ZoneId.systemDefault();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.player.manager;
+
+import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.database.data.StoredPlayTime;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class manages the retrieval of play time for offline players.
+ * Stored play time is kept in a least-recently-used cache that is bounded by size and by age.
+ * Concurrent requests for the same player share a single database query.
+ */
+public class OfflinePlayTimeManager {
+    private static final int MAX_CACHED_PLAYERS = 1000;
+    private static final long CACHE_EXPIRY_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private final @NotNull DatabaseManager databaseManager;
+    private final @NotNull Map<@NotNull UUID, @NotNull CachedPlayTime> cache = new LinkedHashMap<>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, CachedPlayTime> eldest) {
+            return size() > MAX_CACHED_PLAYERS;
+        }
+    };
+    private final @NotNull Map<@NotNull UUID, @NotNull CompletableFuture<@Nullable StoredPlayTime>> pendingQueries = new HashMap<>();
+    private long invalidations = 0;
+
+    /**
+     * Constructor
+     * @param databaseManager A {@link DatabaseManager} instance.
+     */
+    public OfflinePlayTimeManager(@NotNull DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Gets the stored play time for the given {@link UUID}.
+     * A cached copy is returned if one exists and has not expired, otherwise the database is queried.
+     * @param uuid The {@link UUID} of the player.
+     * @return A {@link CompletableFuture} containing the {@link StoredPlayTime} or null if the player is not in the database.
+     */
+    public synchronized @NotNull CompletableFuture<@Nullable StoredPlayTime> getStoredPlayTime(@NotNull UUID uuid) {
+        @Nullable CachedPlayTime cachedPlayTime = getCachedPlayTime(uuid, System.currentTimeMillis());
+        if(cachedPlayTime != null) return CompletableFuture.completedFuture(cachedPlayTime.storedPlayTime());
+
+        @Nullable CompletableFuture<@Nullable StoredPlayTime> pendingQuery = pendingQueries.get(uuid);
+        if(pendingQuery != null) return pendingQuery.copy();
+
+        long queryInvalidations = invalidations;
+        CompletableFuture<@Nullable StoredPlayTime> future = databaseManager.getPlayTimeTable().getStoredPlayTime(uuid);
+        pendingQueries.put(uuid, future);
+        future.whenComplete((storedPlayTime, throwable) -> completeQuery(uuid, future, queryInvalidations, storedPlayTime, throwable));
+
+        return future.copy();
+    }
+
+    /**
+     * Gets the stored play time for multiple players.
+     * Cached and already queried players are reused, all other players are read using one chunked database query.
+     * @param uuids The {@link UUID}s of the players.
+     * @return A {@link CompletableFuture} containing a {@link Map} mapping {@link UUID}s to {@link StoredPlayTime}. Players that are not in the database are not included.
+     */
+    public synchronized @NotNull CompletableFuture<@NotNull Map<@NotNull UUID, @NotNull StoredPlayTime>> getStoredPlayTimes(@NotNull Collection<@NotNull UUID> uuids) {
+        Map<UUID, StoredPlayTime> storedPlayTimes = new ConcurrentHashMap<>(uuids.size());
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        List<UUID> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        for(UUID uuid : new LinkedHashSet<>(uuids)) {
+            @Nullable CachedPlayTime cachedPlayTime = getCachedPlayTime(uuid, now);
+            if(cachedPlayTime != null) {
+                if(cachedPlayTime.storedPlayTime() != null) storedPlayTimes.put(uuid, cachedPlayTime.storedPlayTime());
+                continue;
+            }
+
+            @Nullable CompletableFuture<@Nullable StoredPlayTime> pendingQuery = pendingQueries.get(uuid);
+            if(pendingQuery != null) {
+                futures.add(pendingQuery.thenAccept(storedPlayTime -> {
+                    if(storedPlayTime != null) storedPlayTimes.put(uuid, storedPlayTime);
+                }));
+                continue;
+            }
+
+            missing.add(uuid);
+        }
+
+        if(!missing.isEmpty()) {
+            long queryInvalidations = invalidations;
+            CompletableFuture<Map<UUID, StoredPlayTime>> query = databaseManager.getPlayTimeTable().getStoredPlayTimes(missing);
+
+            // Register each player as pending so single lookups made while the query runs share it.
+            for(UUID uuid : missing) {
+                CompletableFuture<@Nullable StoredPlayTime> future = query.thenApply(result -> result.get(uuid));
+                pendingQueries.put(uuid, future);
+                future.whenComplete((storedPlayTime, throwable) -> completeQuery(uuid, future, queryInvalidations, storedPlayTime, throwable));
+            }
+
+            futures.add(query.thenAccept(storedPlayTimes::putAll));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> storedPlayTimes);
+    }
+
+    /**
+     * Removes the cached play time for the given {@link UUID}.
+     * This should be called whenever the player's stored play time changes.
+     * @param uuid The {@link UUID} of the player.
+     */
+    public synchronized void invalidate(@NotNull UUID uuid) {
+        cache.remove(uuid);
+        pendingQueries.remove(uuid);
+        invalidations++;
+    }
+
+    /**
+     * Removes all cached play time.
+     * This should be called whenever the stored play time of many players changes.
+     */
+    public synchronized void invalidateAll() {
+        cache.clear();
+        pendingQueries.clear();
+        invalidations++;
+    }
+
+    /**
+     * Gets the cached play time for the given {@link UUID}, removing it if it has expired.
+     * @param uuid The {@link UUID} of the player.
+     * @param now The current epoch millis.
+     * @return The {@link CachedPlayTime} or null if nothing is cached or the cached result expired.
+     */
+    private @Nullable CachedPlayTime getCachedPlayTime(@NotNull UUID uuid, long now) {
+        @Nullable CachedPlayTime cachedPlayTime = cache.get(uuid);
+        if(cachedPlayTime == null) return null;
+        if(now - cachedPlayTime.cachedAt() < CACHE_EXPIRY_MILLIS) return cachedPlayTime;
+
+        cache.remove(uuid);
+        return null;
+    }
+
+    /**
+     * Caches the result of a finished database query.
+     * Results of queries that were started before an invalidation are not cached as they may be outdated.
+     * @param uuid The {@link UUID} of the player.
+     * @param future The {@link CompletableFuture} of the query.
+     * @param queryInvalidations The number of invalidations when the query was started.
+     * @param storedPlayTime The {@link StoredPlayTime} or null.
+     * @param throwable The {@link Throwable} that the query failed with or null.
+     */
+    private synchronized void completeQuery(
+            @NotNull UUID uuid,
+            @NotNull CompletableFuture<@Nullable StoredPlayTime> future,
+            long queryInvalidations,
+            @Nullable StoredPlayTime storedPlayTime,
+            @Nullable Throwable throwable) {
+        pendingQueries.remove(uuid, future);
+
+        if(throwable == null && queryInvalidations == invalidations) {
+            cache.put(uuid, new CachedPlayTime(storedPlayTime, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * This record contains a cached query result.
+     * @param storedPlayTime The {@link StoredPlayTime} or null if the player is not in the database.
+     * @param cachedAt The epoch millis when the result was cached.
+     */
+    private record CachedPlayTime(@Nullable StoredPlayTime storedPlayTime, long cachedAt) {}
+}
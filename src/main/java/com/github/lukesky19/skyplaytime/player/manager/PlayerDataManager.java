@@ -19,11 +19,16 @@ package com.github.lukesky19.skyplaytime.player.manager;
 
 import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
 import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.config.manager.settings.SettingsManager;
 import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.database.data.SaveResult;
+import com.github.lukesky19.skyplaytime.database.journal.PlayTimeJournal;
+import com.github.lukesky19.skyplaytime.database.queue.ConnectionTask;
 import com.github.lukesky19.skyplaytime.database.table.PlayTimeTable;
 import com.github.lukesky19.skyplaytime.player.data.PlayerData;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -35,20 +40,39 @@ import java.util.stream.Collectors;
  * This class manages all player data.
  */
 public class PlayerDataManager {
+    private final @NotNull SkyPlayTime skyPlayTime;
     private final @NotNull ComponentLogger logger;
+    private final @NotNull SettingsManager settingsManager;
     private final @NotNull DatabaseManager databaseManager;
+    private final @NotNull PlayTimeJournal playTimeJournal;
+    private final @NotNull OfflinePlayTimeManager offlinePlayTimeManager;
     private final @NotNull Map<@NotNull UUID, @NotNull PlayerData> playerDataMap = new HashMap<>();
+    // Loads requested during the current tick. These are loaded together on the next tick.
+    private final @NotNull Map<@NotNull UUID, @NotNull PendingLoad> pendingLoads = new LinkedHashMap<>();
+    private @Nullable BukkitTask pendingLoadTask;
+    // The journal sequence each save slot was last saved up to, or -1 if the slot has not been saved since the slot count changed.
+    private long @NotNull [] slotSequences = new long[0];
 
     /**
      * Constructor
      * @param skyPlayTime A {@link SkyPlayTime} instance.
+     * @param settingsManager A {@link SettingsManager} instance.
      * @param databaseManager A {@link DatabaseManager} instance.
+     * @param playTimeJournal A {@link PlayTimeJournal} instance.
+     * @param offlinePlayTimeManager An {@link OfflinePlayTimeManager} instance.
      */
     public PlayerDataManager(
             @NotNull SkyPlayTime skyPlayTime,
-            @NotNull DatabaseManager databaseManager) {
+            @NotNull SettingsManager settingsManager,
+            @NotNull DatabaseManager databaseManager,
+            @NotNull PlayTimeJournal playTimeJournal,
+            @NotNull OfflinePlayTimeManager offlinePlayTimeManager) {
+        this.skyPlayTime = skyPlayTime;
         this.logger = skyPlayTime.getComponentLogger();
+        this.settingsManager = settingsManager;
         this.databaseManager = databaseManager;
+        this.playTimeJournal = playTimeJournal;
+        this.offlinePlayTimeManager = offlinePlayTimeManager;
     }
 
     /**
@@ -81,24 +105,61 @@ public class PlayerDataManager {
 
     /**
      * Loads player data from the database.
+     * Loads requested during the same tick are coalesced and loaded together on the next tick using one query, followed by one batched save of the players' names.
+     * This must be called on the main thread.
      * @param player The {@link Player} to load data for.
      * @param uuid The {@link UUID} of the player to load data for.
-     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     * @return A {@link CompletableFuture} of type {@link Void} when the player's data is loaded.
      */
     public @NotNull CompletableFuture<Void> loadPlayerData(@NotNull Player player, @NotNull UUID uuid) {
-        PlayTimeTable playTimeTable = databaseManager.getPlayTimeTable();
+        @Nullable PendingLoad pendingLoad = pendingLoads.get(uuid);
+        if(pendingLoad != null) return pendingLoad.future();
+
         PlayerData playerData = playerDataMap.getOrDefault(uuid, new PlayerData(player.getName()));
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pendingLoads.put(uuid, new PendingLoad(playerData, future));
+
+        if(pendingLoadTask == null) {
+            pendingLoadTask = skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, this::loadPendingPlayerData);
+        }
 
-        return playTimeTable.loadPlayerData(uuid, playerData)
-                .thenAccept(updatedPlayerData -> {
+        return future;
+    }
+
+    /**
+     * Loads all pending player data from the database, stores it, and saves the players' names in a single batch.
+     * Each player's future is completed once their data is stored.
+     */
+    private void loadPendingPlayerData() {
+        pendingLoadTask = null;
+        if(pendingLoads.isEmpty()) return;
+
+        Map<UUID, PendingLoad> loads = new LinkedHashMap<>(pendingLoads);
+        pendingLoads.clear();
+
+        Map<UUID, PlayerData> loadMap = new LinkedHashMap<>();
+        loads.forEach((uuid, pendingLoad) -> loadMap.put(uuid, pendingLoad.playerData()));
+
+        PlayTimeTable playTimeTable = databaseManager.getPlayTimeTable();
+        playTimeTable.loadPlayerData(loadMap)
+                .thenAccept(v -> {
                     // Store the player data
-                    playerDataMap.put(uuid, updatedPlayerData);
+                    playerDataMap.putAll(loadMap);
+
+                    // Save player data as the player names may have been updated.
+                    long sequence = playTimeJournal.getSequence();
+                    playTimeTable.savePlayerDataWithName(loadMap, settingsManager.getSaveMode())
+                            .thenRun(() -> loadMap.keySet().forEach(uuid -> playTimeJournal.markSaved(uuid, sequence)))
+                            .exceptionally(ex -> {
+                                logger.error(AdventureUtil.deserialize("Failed to save player data to the database."));
+                                return null;
+                            });
 
-                    // Save player data as the player name may have been updated.
-                    savePlayerData(uuid, updatedPlayerData);
+                    loads.values().forEach(pendingLoad -> pendingLoad.future().complete(null));
                 })
                 .exceptionally(ex -> {
                     logger.error(AdventureUtil.deserialize("Failed to load player data from the database."));
+                    loads.values().forEach(pendingLoad -> pendingLoad.future().complete(null));
                     return null;
                 });
     }
@@ -108,15 +169,28 @@ public class PlayerDataManager {
      * @param uuid The {@link UUID} of the player.
      */
     public void unloadPlayerData(@NotNull UUID uuid) {
+        // The player left before their data was loaded, so there is nothing to save.
+        @Nullable PendingLoad pendingLoad = pendingLoads.remove(uuid);
+        if(pendingLoad != null) {
+            pendingLoad.future().complete(null);
+            return;
+        }
+
         @Nullable PlayerData playerData = getPlayerData(uuid);
         if(playerData == null) {
             logger.warn(AdventureUtil.deserialize("No player data to save and unload."));
             return;
         }
 
-        databaseManager.getPlayTimeTable().savePlayerData(uuid, playerData)
-                .thenAccept(v -> playerDataMap.remove(uuid))
+        long sequence = playTimeJournal.getSequence();
+        databaseManager.getPlayTimeTable().savePlayerData(uuid, playerData, settingsManager.getSaveMode())
+                .thenAccept(v -> {
+                    playTimeJournal.markSaved(uuid, sequence);
+                    offlinePlayTimeManager.invalidate(uuid);
+                    playerDataMap.remove(uuid);
+                })
                 .exceptionally(ex -> {
+                    offlinePlayTimeManager.invalidate(uuid);
                     playerDataMap.remove(uuid);
                     logger.error(AdventureUtil.deserialize("Failed to save player data to the database."));
                     return null;
@@ -144,9 +218,9 @@ public class PlayerDataManager {
      * @param playerData The {@link PlayerData} to save.
      */
     public void savePlayerData(@NotNull UUID uuid, @NotNull PlayerData playerData) {
-        databaseManager.getPlayTimeTable().savePlayerData(uuid, playerData)
-                .thenRun(() -> {
-                })
+        long sequence = playTimeJournal.getSequence();
+        databaseManager.getPlayTimeTable().savePlayerData(uuid, playerData, settingsManager.getSaveMode())
+                .thenRun(() -> playTimeJournal.markSaved(uuid, sequence))
                 .exceptionally(t -> {
                     logger.error(AdventureUtil.deserialize("Failed to save player data to the database."));
                     return null;
@@ -154,12 +228,112 @@ public class PlayerDataManager {
     }
 
     /**
-     * Saves all loaded player data to the database.
-     * @return A {@link CompletableFuture} containing a {@link List} of type {@link Boolean}.
-     * If any player data fails to save, the list will contain a false result, otherwise true.
+     * Saves all loaded player data that changed since the last save to the database.
+     * Every player that was saved is marked as saved in the play time journal, so their play time is not replayed even if other players failed to save.
+     * If all player data was saved, the play time journal is truncated up to the point the save started.
+     * @return A {@link CompletableFuture} containing a {@link SaveResult}.
      */
-    public @NotNull CompletableFuture<@NotNull List<@NotNull Boolean>> savePlayerData() {
+    public @NotNull CompletableFuture<@NotNull SaveResult> savePlayerData() {
         PlayTimeTable playTimeTable = databaseManager.getPlayTimeTable();
-        return playTimeTable.savePlayerData(playerDataMap);
+        long sequence = playTimeJournal.getSequence();
+
+        return playTimeTable.savePlayerData(playerDataMap, settingsManager.getSaveMode())
+                .thenApply(saveResult -> {
+                    saveResult.saved().forEach(uuid -> playTimeJournal.markSaved(uuid, sequence));
+                    if(saveResult.isSuccessful()) playTimeJournal.truncate(sequence);
+                    return saveResult;
+                });
+    }
+
+    /**
+     * Saves the loaded player data in one save slot to the database. Players are spread across the slots by their {@link UUID}.
+     * Every player that was saved is marked as saved in the play time journal, so their play time is not replayed after a crash.
+     * Once every slot has been saved, the journal is truncated up to the oldest point a slot was last saved from, so it stays about one save cycle long.
+     * @param slot The slot to save, from 0 to slotCount - 1.
+     * @param slotCount The number of slots players are spread across.
+     * @return A {@link CompletableFuture} containing a {@link SaveResult}.
+     */
+    public @NotNull CompletableFuture<@NotNull SaveResult> savePlayerData(int slot, int slotCount) {
+        if(slotSequences.length != slotCount) {
+            slotSequences = new long[slotCount];
+            Arrays.fill(slotSequences, -1);
+        }
+
+        long[] sequences = slotSequences;
+        long sequence = playTimeJournal.getSequence();
+
+        Map<UUID, PlayerData> slotMap = new HashMap<>();
+        playerDataMap.forEach((uuid, playerData) -> {
+            if(getSaveSlot(uuid, slotCount) == slot) slotMap.put(uuid, playerData);
+        });
+
+        CompletableFuture<SaveResult> future = databaseManager.getPlayTimeTable().savePlayerData(slotMap, settingsManager.getSaveMode());
+        future.whenComplete((saveResult, throwable) -> {
+            if(throwable != null) {
+                logger.error(AdventureUtil.deserialize("Failed to save player data to the database."));
+                return;
+            }
+
+            saveResult.saved().forEach(uuid -> playTimeJournal.markSaved(uuid, sequence));
+            // Players whose rows were not updated are not stored or were written more recently by another server, so replaying their play time would not save it either.
+            truncateSavedSlots(sequences, slot, sequence);
+        });
+
+        return future;
+    }
+
+    /**
+     * Records the journal sequence the slot was saved up to, then truncates the journal up to the oldest sequence of any slot if it moved forward.
+     * Every record before that sequence belongs to a save that completed.
+     * The journal only moves its oldest sequence number when truncated, so this is cheap to run after every slot save.
+     * @param sequences The journal sequence each slot was last saved up to.
+     * @param slot The slot that was saved.
+     * @param sequence The journal sequence captured before the slot was saved.
+     */
+    private void truncateSavedSlots(long @NotNull [] sequences, int slot, long sequence) {
+        long oldestSequence;
+
+        synchronized(sequences) {
+            // Only the slot holding the oldest sequence can move the truncation point forward.
+            long previousSequence = sequences[slot];
+            if(sequence <= previousSequence) return;
+            sequences[slot] = sequence;
+
+            oldestSequence = Long.MAX_VALUE;
+            for(long slotSequence : sequences) {
+                oldestSequence = Math.min(oldestSequence, slotSequence);
+            }
+
+            if(oldestSequence <= previousSequence) return;
+        }
+
+        playTimeJournal.truncate(oldestSequence);
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the save slot for the player.
+     * @param uuid The {@link UUID} of the player.
+     * @param slotCount The number of slots players are spread across.
+     * @return The slot, from 0 to slotCount - 1.
+     */
+    private int getSaveSlot(@NotNull UUID uuid, int slotCount) {
+        return Math.floorMod(uuid.hashCode(), slotCount);
+    }
+
+    /**
+     * Creates a {@link ConnectionTask} that saves all loaded player data that changed since the last save, without queuing it.
+     * This is used for the final save when the plugin is disabled, so it can be written in the same transaction as other unsaved data.
+     * The play time journal is not truncated, as only the caller knows if the transaction committed.
+     * @return A {@link ConnectionTask} containing a {@link SaveResult}.
+     */
+    public @NotNull ConnectionTask<@NotNull SaveResult> createFinalSaveTask() {
+        return databaseManager.getPlayTimeTable().createFinalSaveTask(playerDataMap, settingsManager.getSaveMode());
+    }
+
+    /**
+     * A player whose data is waiting to be loaded.
+     * @param playerData The {@link PlayerData} to load data into.
+     * @param future The {@link CompletableFuture} to complete once the data is loaded.
+     */
+    private record PendingLoad(@NotNull PlayerData playerData, @NotNull CompletableFuture<Void> future) {}
+}
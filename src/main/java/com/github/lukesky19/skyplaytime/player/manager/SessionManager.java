@@ -0,0 +1,235 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.player.manager;
+
+import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
+import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.database.data.SessionRecord;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class tracks player sessions from join to leave, including how long the player was active and AFK.
+ * Finished sessions are collected in memory and added to the database in batches, either when player data is saved or when enough sessions are waiting.
+ */
+public class SessionManager {
+    private static final int MAX_PENDING_SESSIONS = 500;
+
+    private final @NotNull ComponentLogger logger;
+    private final @NotNull DatabaseManager databaseManager;
+    private final @NotNull Map<@NotNull UUID, @NotNull OpenSession> openSessions = new HashMap<>();
+    private final @NotNull List<@NotNull SessionRecord> pendingSessions = new ArrayList<>();
+
+    /**
+     * Constructor
+     * @param skyPlayTime A {@link SkyPlayTime} instance.
+     * @param databaseManager A {@link DatabaseManager} instance.
+     */
+    public SessionManager(@NotNull SkyPlayTime skyPlayTime, @NotNull DatabaseManager databaseManager) {
+        this.logger = skyPlayTime.getComponentLogger();
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Starts a session for the player. Any session that is already open for the player is ended first.
+     * @param uuid The {@link UUID} of the player.
+     */
+    public void startSession(@NotNull UUID uuid) {
+        long now = System.currentTimeMillis();
+
+        boolean flush;
+        synchronized(this) {
+            @Nullable OpenSession openSession = openSessions.put(uuid, new OpenSession(now));
+            if(openSession != null) pendingSessions.add(openSession.end(uuid, now));
+
+            flush = pendingSessions.size() >= MAX_PENDING_SESSIONS;
+        }
+
+        if(flush) flush();
+    }
+
+    /**
+     * Records that the player's AFK status changed. Does nothing if the player has no open session.
+     * @param uuid The {@link UUID} of the player.
+     * @param afk Whether the player is now AFK.
+     */
+    public synchronized void setAFK(@NotNull UUID uuid, boolean afk) {
+        @Nullable OpenSession openSession = openSessions.get(uuid);
+        if(openSession != null) openSession.setAFK(afk, System.currentTimeMillis());
+    }
+
+    /**
+     * Ends the player's open session. Does nothing if the player has no open session.
+     * @param uuid The {@link UUID} of the player.
+     */
+    public void endSession(@NotNull UUID uuid) {
+        boolean flush;
+        synchronized(this) {
+            @Nullable OpenSession openSession = openSessions.remove(uuid);
+            if(openSession == null) return;
+
+            pendingSessions.add(openSession.end(uuid, System.currentTimeMillis()));
+            flush = pendingSessions.size() >= MAX_PENDING_SESSIONS;
+        }
+
+        if(flush) flush();
+    }
+
+    /**
+     * Ends all open sessions. Used when the plugin is disabled.
+     */
+    public synchronized void endAllSessions() {
+        long now = System.currentTimeMillis();
+
+        openSessions.forEach((uuid, openSession) -> pendingSessions.add(openSession.end(uuid, now)));
+        openSessions.clear();
+    }
+
+    /**
+     * Adds all finished sessions to the database in a single batch.
+     * If the batch fails, the sessions are kept so they are added by the next flush.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> flush() {
+        List<SessionRecord> sessionRecords = drain();
+        if(sessionRecords.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        return databaseManager.getSessionsTable().addSessions(sessionRecords)
+                .exceptionally(throwable -> {
+                    logger.error(AdventureUtil.deserialize("Failed to save sessions to the database: " + throwable.getMessage()));
+                    synchronized(this) {
+                        pendingSessions.addAll(0, sessionRecords);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Removes and returns all finished sessions that have not been added to the database yet.
+     * @return A {@link List} of {@link SessionRecord}s.
+     */
+    public synchronized @NotNull List<@NotNull SessionRecord> drain() {
+        List<SessionRecord> sessionRecords = new ArrayList<>(pendingSessions);
+        pendingSessions.clear();
+
+        return sessionRecords;
+    }
+
+    /**
+     * Deletes sessions older than the retention period, then merges the remaining sessions older than the compaction period into one record per player per day.
+     * @param removeOlderThanMillis Sessions that started longer ago than this are deleted. 0 or less to keep all sessions.
+     * @param compactOlderThanMillis Sessions that started longer ago than this are merged. 0 or less to not merge sessions.
+     * @return A {@link CompletableFuture} of type {@link Void} when complete.
+     */
+    public @NotNull CompletableFuture<Void> cleanup(long removeOlderThanMillis, long compactOlderThanMillis) {
+        long now = System.currentTimeMillis();
+        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+
+        if(removeOlderThanMillis > 0) {
+            future = future.thenCompose(ignored -> databaseManager.getSessionsTable().deleteOlderThan(now - removeOlderThanMillis))
+                    .thenAccept(deleted -> {
+                        if(deleted > 0) logger.info(AdventureUtil.deserialize("Deleted " + deleted + " old sessions."));
+                    });
+        }
+
+        if(compactOlderThanMillis > 0) {
+            future = future.thenCompose(ignored -> databaseManager.getSessionsTable().compactOlderThan(now - compactOlderThanMillis))
+                    .thenAccept(merged -> {
+                        if(merged > 0) logger.info(AdventureUtil.deserialize("Merged old sessions into " + merged + " daily records."));
+                    });
+        }
+
+        return future.exceptionally(throwable -> {
+            logger.error(AdventureUtil.deserialize("Failed to clean up old sessions: " + throwable.getMessage()));
+            return null;
+        });
+    }
+
+    /**
+     * Gets a player's sessions that started between two times, newest first. Sessions that have not been saved yet are not included.
+     * @param uuid The {@link UUID} of the player.
+     * @param fromMillis The earliest start time in milliseconds since the epoch.
+     * @param toMillis The latest start time in milliseconds since the epoch.
+     * @param limit The maximum number of sessions to return.
+     * @return A {@link CompletableFuture} containing a {@link List} of {@link SessionRecord}s.
+     */
+    public @NotNull CompletableFuture<@NotNull List<@NotNull SessionRecord>> getSessions(@NotNull UUID uuid, long fromMillis, long toMillis, int limit) {
+        return databaseManager.getSessionsTable().getSessions(uuid, fromMillis, toMillis, limit);
+    }
+
+    /**
+     * A session that has not ended yet.
+     */
+    private static final class OpenSession {
+        private final long startTime;
+        private long lastChangeTime;
+        private boolean afk;
+        private long activeMillis;
+        private long afkMillis;
+
+        /**
+         * Constructor
+         * @param startTime The time the session started in milliseconds since the epoch.
+         */
+        private OpenSession(long startTime) {
+            this.startTime = startTime;
+            this.lastChangeTime = startTime;
+        }
+
+        /**
+         * Adds the time since the last change to the active or AFK time, then sets the AFK status.
+         * @param afk Whether the player is now AFK.
+         * @param now The current time in milliseconds since the epoch.
+         */
+        private void setAFK(boolean afk, long now) {
+            addElapsed(now);
+            this.afk = afk;
+        }
+
+        /**
+         * Ends the session.
+         * @param uuid The {@link UUID} of the player.
+         * @param now The current time in milliseconds since the epoch.
+         * @return The finished {@link SessionRecord}.
+         */
+        private @NotNull SessionRecord end(@NotNull UUID uuid, long now) {
+            addElapsed(now);
+            return new SessionRecord(uuid, startTime, now, activeMillis / 1000, afkMillis / 1000, 1);
+        }
+
+        /**
+         * Adds the time since the last change to the active or AFK time.
+         * @param now The current time in milliseconds since the epoch.
+         */
+        private void addElapsed(long now) {
+            long elapsed = Math.max(0, now - lastChangeTime);
+            if(afk) {
+                afkMillis += elapsed;
+            } else {
+                activeMillis += elapsed;
+            }
+
+            lastChangeTime = now;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import com.github.lukesky19.skyplaytime.config.manager.settings.SettingsManager;
 import com.github.lukesky19.skyplaytime.config.data.settings.Settings;
 import com.github.lukesky19.skyplaytime.database.DatabaseManager;
 import com.github.lukesky19.skyplaytime.leaderboard.manager.LeaderboardManager;
+import com.github.lukesky19.skyplaytime.player.data.PlayTimes;
 import com.github.lukesky19.skyplaytime.player.data.PlayerData;
 import com.github.lukesky19.skyplaytime.util.TimeCategory;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
@@ -36,10 +37,12 @@ import java.util.concurrent.CompletableFuture;
  * This class manages the update and retrieval of play time for online players.
  */
 public class TimeManager {
+    private final @NotNull SkyPlayTime skyPlayTime;
     private final @NotNull ComponentLogger logger;
     private final @NotNull SettingsManager settingsManager;
     private final @NotNull DatabaseManager databaseManager;
     private final @NotNull PlayerDataManager playerDataManager;
+    private final @NotNull OfflinePlayTimeManager offlinePlayTimeManager;
     private final @NotNull LeaderboardManager leaderboardManager;
 
     /**
@@ -48,6 +51,7 @@ public class TimeManager {
      * @param settingsManager A {@link SettingsManager} instance.
      * @param databaseManager A {@link DatabaseManager} instance.
      * @param playerDataManager A {@link PlayerDataManager} instance.
+     * @param offlinePlayTimeManager An {@link OfflinePlayTimeManager} instance.
      * @param leaderboardManager A {@link LeaderboardManager} instance.
      */
     public TimeManager(
@@ -55,11 +59,14 @@ public class TimeManager {
             @NotNull SettingsManager settingsManager,
             @NotNull DatabaseManager databaseManager,
             @NotNull PlayerDataManager playerDataManager,
+            @NotNull OfflinePlayTimeManager offlinePlayTimeManager,
             @NotNull LeaderboardManager leaderboardManager) {
+        this.skyPlayTime = skyPlayTime;
         this.logger = skyPlayTime.getComponentLogger();
         this.settingsManager = settingsManager;
         this.databaseManager = databaseManager;
         this.playerDataManager = playerDataManager;
+        this.offlinePlayTimeManager = offlinePlayTimeManager;
         this.leaderboardManager = leaderboardManager;
     }
 
@@ -77,6 +84,53 @@ public class TimeManager {
         return playerData.getPlayTime(timeCategory);
     }
 
+    /**
+     * Gets the player's play time in seconds for the provided {@link TimeCategory}, whether they are online or not.
+     * Online players are served from memory while offline players are read from the database through the {@link OfflinePlayTimeManager}.
+     * Offline players always have a {@link TimeCategory#SESSION} play time of 0.
+     * This should be called on the main thread.
+     * @param uuid The {@link UUID} of the player.
+     * @param timeCategory The {@link TimeCategory} to get play time for.
+     * @return A {@link CompletableFuture} containing the player's play time in seconds or null if the player has never joined.
+     */
+    public @NotNull CompletableFuture<@Nullable Long> getPlayTimeSecondsAsync(@NotNull UUID uuid, @NotNull TimeCategory timeCategory) {
+        @Nullable PlayerData playerData = playerDataManager.getPlayerData(uuid);
+        if(playerData != null) return CompletableFuture.completedFuture(playerData.getPlayTime(timeCategory));
+
+        return offlinePlayTimeManager.getStoredPlayTime(uuid)
+                .thenApply(storedPlayTime -> storedPlayTime != null ? storedPlayTime.getPlayTime(timeCategory) : null);
+    }
+
+    /**
+     * Gets the play time in seconds of multiple players for the provided {@link TimeCategory}, whether they are online or not.
+     * Online players are served from memory while all offline players are read together through the {@link OfflinePlayTimeManager}.
+     * Offline players always have a {@link TimeCategory#SESSION} play time of 0.
+     * This should be called on the main thread.
+     * @param uuids The {@link UUID}s of the players.
+     * @param timeCategory The {@link TimeCategory} to get play time for.
+     * @return A {@link CompletableFuture} containing the {@link PlayTimes}. Players who have never joined are not included.
+     */
+    public @NotNull CompletableFuture<@NotNull PlayTimes> getPlayTimesAsync(@NotNull Collection<@NotNull UUID> uuids, @NotNull TimeCategory timeCategory) {
+        PlayTimes.Builder builder = new PlayTimes.Builder(uuids.size());
+        List<UUID> offlineUuids = new ArrayList<>();
+
+        for(UUID uuid : uuids) {
+            @Nullable PlayerData playerData = playerDataManager.getPlayerData(uuid);
+            if(playerData != null) {
+                builder.add(uuid, playerData.getPlayTime(timeCategory));
+            } else {
+                offlineUuids.add(uuid);
+            }
+        }
+
+        if(offlineUuids.isEmpty()) return CompletableFuture.completedFuture(builder.build());
+
+        return offlinePlayTimeManager.getStoredPlayTimes(offlineUuids).thenApply(storedPlayTimes -> {
+            storedPlayTimes.forEach((uuid, storedPlayTime) -> builder.add(uuid, storedPlayTime.getPlayTime(timeCategory)));
+            return builder.build();
+        });
+    }
+
     /**
      * Adds the play time in seconds provided to the player's play time for the provided {@link TimeCategory}.
      * @param uuid The {@link UUID} of the player.
@@ -89,6 +143,7 @@ public class TimeManager {
         if(playerData == null) throw new RuntimeException("No player data found for UUID " + uuid);
 
         playerData.addPlayTime(timeCategory, playTimeSeconds);
+        leaderboardManager.updatePlayer(uuid, playerData);
     }
 
     /**
@@ -103,6 +158,7 @@ public class TimeManager {
         if(playerData == null) throw new RuntimeException("No player data found for UUID " + uuid);
 
         playerData.removePlayTime(timeCategory, playTimeSeconds);
+        leaderboardManager.updatePlayer(uuid, playerData);
     }
 
     /**
@@ -117,6 +173,7 @@ public class TimeManager {
         if(playerData == null) throw new RuntimeException("No player data found for UUID " + uuid);
 
         playerData.setPlayTime(timeCategory, playTimeSeconds);
+        leaderboardManager.updatePlayer(uuid, playerData);
     }
 
     /**
@@ -164,6 +221,7 @@ public class TimeManager {
         if(yearly) playerData.setDailyPlayTime(0);
         if(total) playerData.setDailyPlayTime(0);
 
+        leaderboardManager.updatePlayer(uuid, playerData);
         playerDataManager.savePlayerData(uuid);
 
         return true;
@@ -200,9 +258,9 @@ public class TimeManager {
 
         // Save Player Data
         return playerDataManager.savePlayerData()
-                .thenCompose(list -> {
+                .thenCompose(saveResult -> {
                     // If an error occurred while saving player data, abort the reset.
-                    if(list.contains(false)) {
+                    if(!saveResult.isSuccessful()) {
                         logger.error(AdventureUtil.deserialize("Unable to reset play time due to an error while saving player data."));
                         return CompletableFuture.completedFuture(false);
                     }
@@ -265,22 +323,55 @@ public class TimeManager {
             boolean total) {
         // Perform backup if configured
         if(settings.backupOnReset()) {
-            return databaseManager.backupDatabase()
-                    .thenCompose(backupResult -> {
-                        if(!backupResult) {
+            return databaseManager.backupDatabase().getFuture()
+                    .handle((backupResult, throwable) -> throwable == null)
+                    .thenCompose(backupSucceeded -> {
+                        if(!backupSucceeded) {
                             logger.error(AdventureUtil.deserialize("Unable to reset play time due to an error during backup."));
                             return CompletableFuture.completedFuture(false);
                         }
 
-                        resetOnlinePlayTime(session, daily, weekly, monthly, yearly, total);
-
-                        return resetDatabasePlayTime(daily, weekly, monthly, yearly, total);
+                        return resetOnMainThread(session, daily, weekly, monthly, yearly, total);
                     });
         } else {
+            return resetOnMainThread(session, daily, weekly, monthly, yearly, total);
+        }
+    }
+
+    /**
+     * Reset play time for online players, the leaderboards, and the database on the main thread according to the time category booleans.
+     * Player data is captured for saves on the main thread, so saves captured before the reset are queued before it and saves captured after it use the new periods.
+     * @param session Should session play time be reset?
+     * @param daily Should daily play time be reset?
+     * @param weekly Should weekly play time be reset?
+     * @param monthly Should monthly play time be reset?
+     * @param yearly Should yearly play time be reset?
+     * @param total Should total play time be reset?
+     * @return A {@link CompletableFuture} of type {@link Boolean}. true if successful, otherwise false.
+     */
+    private @NotNull CompletableFuture<@NotNull Boolean> resetOnMainThread(
+            boolean session,
+            boolean daily,
+            boolean weekly,
+            boolean monthly,
+            boolean yearly,
+            boolean total) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        skyPlayTime.getServer().getScheduler().runTask(skyPlayTime, () -> {
             resetOnlinePlayTime(session, daily, weekly, monthly, yearly, total);
+            leaderboardManager.resetLeaderboards(session, daily, weekly, monthly, yearly, total);
+
+            resetDatabasePlayTime(daily, weekly, monthly, yearly, total).whenComplete((result, throwable) -> {
+                if(throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(result);
+                }
+            });
+        });
 
-            return resetDatabasePlayTime(daily, weekly, monthly, yearly, total);
-        }
+        return future;
     }
 
     /**
@@ -302,11 +393,26 @@ public class TimeManager {
         @NotNull Map<@NotNull UUID, @NotNull PlayerData> playerDataMap = playerDataManager.getPlayerDataMap();
 
         if (session) playerDataMap.values().forEach(data -> data.setSessionPlayTime(0));
-        if (daily) playerDataMap.values().forEach(data -> data.setDailyPlayTime(0));
-        if (weekly) playerDataMap.values().forEach(data -> data.setWeeklyPlayTime(0));
-        if (monthly) playerDataMap.values().forEach(data -> data.setMonthlyPlayTime(0));
-        if (yearly) playerDataMap.values().forEach(data -> data.setYearlyPlayTime(0));
-        if (total) playerDataMap.values().forEach(data -> data.setTotalPlayTime(0));
+        if (daily) playerDataMap.values().forEach(data -> {
+            data.setDailyPlayTime(0);
+            data.resetFlushedPlayTime(TimeCategory.DAILY);
+        });
+        if (weekly) playerDataMap.values().forEach(data -> {
+            data.setWeeklyPlayTime(0);
+            data.resetFlushedPlayTime(TimeCategory.WEEKLY);
+        });
+        if (monthly) playerDataMap.values().forEach(data -> {
+            data.setMonthlyPlayTime(0);
+            data.resetFlushedPlayTime(TimeCategory.MONTHLY);
+        });
+        if (yearly) playerDataMap.values().forEach(data -> {
+            data.setYearlyPlayTime(0);
+            data.resetFlushedPlayTime(TimeCategory.YEARLY);
+        });
+        if (total) playerDataMap.values().forEach(data -> {
+            data.setTotalPlayTime(0);
+            data.resetFlushedPlayTime(TimeCategory.TOTAL);
+        });
     }
 
     /**
@@ -324,6 +430,7 @@ public class TimeManager {
             boolean monthly,
             boolean yearly,
             boolean total) {
-        return databaseManager.getPlayTimeTable().resetPlayTime(daily, weekly, monthly, yearly, total);
+        return databaseManager.getPlayTimeTable().resetPlayTime(daily, weekly, monthly, yearly, total)
+                .whenComplete((result, throwable) -> offlinePlayTimeManager.invalidateAll());
     }
 }
\ No newline at end of file
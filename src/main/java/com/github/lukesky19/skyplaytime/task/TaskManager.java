@@ -20,8 +20,12 @@ package com.github.lukesky19.skyplaytime.task;
 import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
 import com.github.lukesky19.skyplaytime.SkyPlayTime;
 import com.github.lukesky19.skyplaytime.config.data.settings.Settings;
+import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.database.journal.PlayTimeJournal;
 import com.github.lukesky19.skyplaytime.leaderboard.manager.LeaderboardManager;
 import com.github.lukesky19.skyplaytime.player.manager.AFKManager;
+import com.github.lukesky19.skyplaytime.player.manager.DailyPlayTimeManager;
+import com.github.lukesky19.skyplaytime.player.manager.SessionManager;
 import com.github.lukesky19.skyplaytime.config.manager.settings.SettingsManager;
 import com.github.lukesky19.skyplaytime.player.manager.TimeManager;
 import com.github.lukesky19.skyplaytime.player.manager.PlayerDataManager;
@@ -41,43 +45,63 @@ public class TaskManager {
     private final @NotNull SkyPlayTime skyPlayTime;
     private final @NotNull ComponentLogger logger;
     private final @NotNull SettingsManager settingsManager;
+    private final @NotNull DatabaseManager databaseManager;
     private final @NotNull PlayerDataManager playerDataManager;
     private final @NotNull TimeManager timeManager;
     private final @NotNull AFKManager afkManager;
     private final @NotNull LeaderboardManager leaderboardManager;
+    private final @NotNull PlayTimeJournal playTimeJournal;
+    private final @NotNull DailyPlayTimeManager dailyPlayTimeManager;
+    private final @NotNull SessionManager sessionManager;
 
     // Tasks
     private @Nullable BukkitTask activityTask;
+    private @Nullable BukkitTask backupTask;
     private @Nullable BukkitTask cacheTopTenTask;
-    private @Nullable BukkitTask calculateTopTenTask;
+    private @Nullable BukkitTask checkpointTask;
     private @Nullable BukkitTask cleanupTask;
+    private @Nullable BukkitTask optimizeTask;
     private @Nullable BukkitTask playTimeTask;
+    private @Nullable BukkitTask publishLeaderboardTask;
     private @Nullable BukkitTask resetTask;
+    private @Nullable BukkitTask rollupTask;
     private @Nullable BukkitTask saveTask;
 
     /**
      * Constructor
      * @param skyPlayTime The plugin's main instance.
      * @param settingsManager A {@link SettingsManager} instance.
+     * @param databaseManager A {@link DatabaseManager} instance.
      * @param playerDataManager A {@link PlayerDataManager} instance.
      * @param timeManager A {@link TimeManager} instance.
      * @param afkManager An {@link AFKManager} instance.
      * @param leaderboardManager A {@link LeaderboardManager} instance.
+     * @param playTimeJournal A {@link PlayTimeJournal} instance.
+     * @param dailyPlayTimeManager A {@link DailyPlayTimeManager} instance.
+     * @param sessionManager A {@link SessionManager} instance.
      */
     public TaskManager(
             @NotNull SkyPlayTime skyPlayTime,
             @NotNull SettingsManager settingsManager,
+            @NotNull DatabaseManager databaseManager,
             @NotNull PlayerDataManager playerDataManager,
             @NotNull TimeManager timeManager,
             @NotNull AFKManager afkManager,
-            @NotNull LeaderboardManager leaderboardManager) {
+            @NotNull LeaderboardManager leaderboardManager,
+            @NotNull PlayTimeJournal playTimeJournal,
+            @NotNull DailyPlayTimeManager dailyPlayTimeManager,
+            @NotNull SessionManager sessionManager) {
         this.skyPlayTime = skyPlayTime;
         this.logger = skyPlayTime.getComponentLogger();
         this.settingsManager = settingsManager;
+        this.databaseManager = databaseManager;
         this.playerDataManager = playerDataManager;
         this.timeManager = timeManager;
         this.afkManager = afkManager;
         this.leaderboardManager = leaderboardManager;
+        this.playTimeJournal = playTimeJournal;
+        this.dailyPlayTimeManager = dailyPlayTimeManager;
+        this.sessionManager = sessionManager;
     }
 
     /**
@@ -95,11 +119,15 @@ public class TaskManager {
         stopTasks();
 
         startActivityTask();
+        startBackupTask();
         startCacheTopTenTask();
-        startCalculateTopTenTask();
+        startCheckpointTask();
         startCleanupTask();
+        startOptimizeTask();
         startPlayTimeTask();
+        startPublishLeaderboardTask();
         startResetTask();
+        startRollupTask();
         startSaveTask();
     }
 
@@ -108,11 +136,15 @@ public class TaskManager {
      */
     public void stopTasks() {
         stopActivityTask();
+        stopBackupTask();
         stopCacheTopTenTask();
-        stopCalculateTopTenTask();
+        stopCheckpointTask();
         stopCleanupTask();
+        stopOptimizeTask();
         stopPlayTimeTask();
+        stopPublishLeaderboardTask();
         stopResetTask();
+        stopRollupTask();
         stopSaveTask();
     }
 
@@ -136,6 +168,30 @@ public class TaskManager {
         }
     }
 
+    /**
+     * Start the {@link BackupTask} if backups are enabled.
+     */
+    private void startBackupTask() {
+        Settings settings = settingsManager.getSettings();
+        if(settings == null || settings.backupIntervalSeconds() <= 0) return;
+
+        long ticks = settings.backupIntervalSeconds() * 20L;
+        backupTask = new BackupTask(skyPlayTime, databaseManager).runTaskTimer(skyPlayTime, ticks, ticks);
+    }
+
+    /**
+     * Stop the {@link BackupTask}.
+     */
+    private void stopBackupTask() {
+        if(backupTask != null) {
+            if(!backupTask.isCancelled()) {
+                backupTask.cancel();
+            }
+
+            backupTask = null;
+        }
+    }
+
     /**
      * Start the {@link CacheTopTenTask}.
      */
@@ -158,23 +214,26 @@ public class TaskManager {
     }
 
     /**
-     * Start the {@link CalculateTopTenTask}.
+     * Start the {@link CheckpointTask} if the database uses a write-ahead log.
      */
-    private void startCalculateTopTenTask() {
-        long ticks = 60 * 15 * 20L;
-        calculateTopTenTask = new CalculateTopTenTask(leaderboardManager).runTaskTimer(skyPlayTime, ticks, ticks);
+    private void startCheckpointTask() {
+        Settings.SqliteSettings sqliteSettings = settingsManager.getSqliteSettings();
+        if(sqliteSettings.checkpointIntervalSeconds() <= 0 || !"WAL".equalsIgnoreCase(sqliteSettings.journalMode())) return;
+
+        long ticks = sqliteSettings.checkpointIntervalSeconds() * 20L;
+        checkpointTask = new CheckpointTask(skyPlayTime, databaseManager).runTaskTimer(skyPlayTime, ticks, ticks);
     }
 
     /**
-     * Stop the {@link CalculateTopTenTask}.
+     * Stop the {@link CheckpointTask}.
      */
-    private void stopCalculateTopTenTask() {
-        if(calculateTopTenTask != null) {
-            if(!calculateTopTenTask.isCancelled()) {
-                calculateTopTenTask.cancel();
+    private void stopCheckpointTask() {
+        if(checkpointTask != null) {
+            if(!checkpointTask.isCancelled()) {
+                checkpointTask.cancel();
             }
 
-            calculateTopTenTask = null;
+            checkpointTask = null;
         }
     }
 
@@ -183,7 +242,7 @@ public class TaskManager {
      */
     private void startCleanupTask() {
         long ticks = 60 * 60 * 20L;
-        cleanupTask = new CleanupTask(skyPlayTime, settingsManager).runTaskTimer(skyPlayTime, 10 * 20L, ticks);
+        cleanupTask = new CleanupTask(skyPlayTime, settingsManager, databaseManager, sessionManager).runTaskTimer(skyPlayTime, 10 * 20L, ticks);
     }
 
     /**
@@ -199,11 +258,35 @@ public class TaskManager {
         }
     }
 
+    /**
+     * Start the {@link OptimizeTask}.
+     */
+    private void startOptimizeTask() {
+        Settings.SqliteSettings sqliteSettings = settingsManager.getSqliteSettings();
+        if(sqliteSettings.optimizeIntervalSeconds() <= 0) return;
+
+        long ticks = sqliteSettings.optimizeIntervalSeconds() * 20L;
+        optimizeTask = new OptimizeTask(skyPlayTime, databaseManager).runTaskTimer(skyPlayTime, ticks, ticks);
+    }
+
+    /**
+     * Stop the {@link OptimizeTask}.
+     */
+    private void stopOptimizeTask() {
+        if(optimizeTask != null) {
+            if(!optimizeTask.isCancelled()) {
+                optimizeTask.cancel();
+            }
+
+            optimizeTask = null;
+        }
+    }
+
     /**
      * Start the {@link PlayTimeTask}.
      */
     private void startPlayTimeTask() {
-        playTimeTask = new PlayTimeTask(skyPlayTime, playerDataManager).runTaskTimer(skyPlayTime, 20L, 20L);
+        playTimeTask = new PlayTimeTask(skyPlayTime, playerDataManager, playTimeJournal, dailyPlayTimeManager, leaderboardManager).runTaskTimer(skyPlayTime, 20L, 20L);
     }
 
     /**
@@ -219,6 +302,26 @@ public class TaskManager {
         }
     }
 
+    /**
+     * Start the {@link PublishLeaderboardTask}.
+     */
+    private void startPublishLeaderboardTask() {
+        publishLeaderboardTask = new PublishLeaderboardTask(leaderboardManager).runTaskTimerAsynchronously(skyPlayTime, 20L, 20L);
+    }
+
+    /**
+     * Stop the {@link PublishLeaderboardTask}.
+     */
+    private void stopPublishLeaderboardTask() {
+        if(publishLeaderboardTask != null) {
+            if(!publishLeaderboardTask.isCancelled()) {
+                publishLeaderboardTask.cancel();
+            }
+
+            publishLeaderboardTask = null;
+        }
+    }
+
     /**
      * Start the {@link ResetTask}.
      */
@@ -242,6 +345,27 @@ public class TaskManager {
         }
     }
 
+    /**
+     * Start the {@link RollupTask}.
+     */
+    private void startRollupTask() {
+        long ticks = 60 * 60 * 20L;
+        rollupTask = new RollupTask(dailyPlayTimeManager).runTaskTimer(skyPlayTime, 60 * 20L, ticks);
+    }
+
+    /**
+     * Stop the {@link RollupTask}.
+     */
+    private void stopRollupTask() {
+        if(rollupTask != null) {
+            if(!rollupTask.isCancelled()) {
+                rollupTask.cancel();
+            }
+
+            rollupTask = null;
+        }
+    }
+
     /**
      * Start the {@link SaveTask}.
      */
@@ -252,8 +376,8 @@ public class TaskManager {
             return;
         }
 
-        long ticks = settings.saveIntervalSeconds() * 20L;
-        saveTask = new SaveTask(playerDataManager).runTaskTimer(skyPlayTime, ticks, ticks);
+        // The task saves one slot of players each second.
+        saveTask = new SaveTask(playerDataManager, dailyPlayTimeManager, sessionManager, settings.saveIntervalSeconds()).runTaskTimer(skyPlayTime, 20L, 20L);
     }
 
     /**
@@ -23,7 +23,7 @@ import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * This task refreshes the cached top 10 play time for each {@link TimeCategory} (excluding {@link TimeCategory#ALL}) stored in {@link LeaderboardManager}.
+ * This task refreshes the top offline players for each {@link TimeCategory} (excluding {@link TimeCategory#ALL}) in the live standings stored in {@link LeaderboardManager}.
  */
 public class CacheTopTenTask extends BukkitRunnable {
     private final @NotNull LeaderboardManager leaderboardManager;
@@ -37,10 +37,10 @@ public class CacheTopTenTask extends BukkitRunnable {
     }
 
     /**
-     * Update the top 10 players for each {@link TimeCategory} (excluding {@link TimeCategory#ALL}) stored in {@link LeaderboardManager}.
+     * Refresh the top offline players for each {@link TimeCategory} (excluding {@link TimeCategory#ALL}) stored in {@link LeaderboardManager}.
      */
     @Override
     public void run() {
-        leaderboardManager.updateDatabaseTopTen();
+        leaderboardManager.updateDatabaseTopPositions();
     }
 }
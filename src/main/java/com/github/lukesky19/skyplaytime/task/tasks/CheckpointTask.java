@@ -0,0 +1,58 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.task.tasks;
+
+import com.github.lukesky19.skylib.api.adventure.AdventureUtil;
+import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This task regularly checkpoints the database's write-ahead log so that it does not grow unbounded.
+ */
+public class CheckpointTask extends BukkitRunnable {
+    private final @NotNull ComponentLogger logger;
+    private final @NotNull DatabaseManager databaseManager;
+
+    /**
+     * Constructor
+     * @param skyPlayTime A {@link SkyPlayTime} instance.
+     * @param databaseManager A {@link DatabaseManager} instance.
+     */
+    public CheckpointTask(@NotNull SkyPlayTime skyPlayTime, @NotNull DatabaseManager databaseManager) {
+        this.logger = skyPlayTime.getComponentLogger();
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Checkpoints and truncates the write-ahead log.
+     */
+    @Override
+    public void run() {
+        databaseManager.checkpointDatabase().thenAccept(result -> {
+            if(!result) {
+                logger.warn(AdventureUtil.deserialize("Unable to fully checkpoint the database as it was busy. It will be retried on the next checkpoint."));
+            }
+        }).exceptionally(ex -> {
+            logger.error(AdventureUtil.deserialize("Failed to checkpoint the database: " + ex.getMessage()));
+            return null;
+        });
+    }
+}
@@ -22,6 +22,8 @@ import com.github.lukesky19.skylib.api.time.TimeUtil;
 import com.github.lukesky19.skyplaytime.SkyPlayTime;
 import com.github.lukesky19.skyplaytime.config.data.settings.Settings;
 import com.github.lukesky19.skyplaytime.config.manager.settings.SettingsManager;
+import com.github.lukesky19.skyplaytime.database.DatabaseManager;
+import com.github.lukesky19.skyplaytime.player.manager.SessionManager;
 import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
@@ -36,11 +38,13 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.stream.Stream;
 
 /**
- * This task removes old database backups and leaderboard snapshots.
+ * This task removes old database backups, leaderboard snapshots, and player sessions.
  */
 public class CleanupTask extends BukkitRunnable {
     private final @NotNull ComponentLogger logger;
     private final @NotNull SettingsManager settingsManager;
+    private final @NotNull DatabaseManager databaseManager;
+    private final @NotNull SessionManager sessionManager;
     private final @NotNull Path databaseBackupDirectory;
     private final @NotNull Path leaderboardDirectory;
 
@@ -48,17 +52,21 @@ public class CleanupTask extends BukkitRunnable {
      * Constructor
      * @param skyPlayTime A {@link SkyPlayTime} instance.
      * @param settingsManager A {@link SettingsManager} instance.
+     * @param databaseManager A {@link DatabaseManager} instance.
+     * @param sessionManager A {@link SessionManager} instance.
      */
-    public CleanupTask(@NotNull SkyPlayTime skyPlayTime, @NotNull SettingsManager settingsManager) {
+    public CleanupTask(@NotNull SkyPlayTime skyPlayTime, @NotNull SettingsManager settingsManager, @NotNull DatabaseManager databaseManager, @NotNull SessionManager sessionManager) {
         this.logger = skyPlayTime.getComponentLogger();
         this.settingsManager = settingsManager;
+        this.databaseManager = databaseManager;
+        this.sessionManager = sessionManager;
 
         databaseBackupDirectory = Path.of(skyPlayTime.getDataFolder() + File.separator + "database_backups");
         leaderboardDirectory = Path.of(skyPlayTime.getDataFolder() + File.separator + "leaderboards");
     }
 
     /**
-     * Removes old database backups and leaderboard snapshots.
+     * Removes old database backups, leaderboard snapshots, and player sessions.
      */
     @Override
     public void run() {
@@ -73,7 +81,13 @@ public class CleanupTask extends BukkitRunnable {
             if(olderThanMillis > 0) {
                 long cutoffMillis = System.currentTimeMillis() - olderThanMillis;
 
+                // Full copies made by earlier versions of the plugin.
                 deleteOlderThan(databaseBackupDirectory, cutoffMillis);
+
+                databaseManager.deleteBackupsOlderThan(cutoffMillis).exceptionally(ex -> {
+                    logger.error(AdventureUtil.deserialize("Failed to delete old database backups: " + ex.getMessage()));
+                    return null;
+                });
             }
         }
 
@@ -85,6 +99,11 @@ public class CleanupTask extends BukkitRunnable {
                 deleteOlderThan(leaderboardDirectory, cutoffMillis);
             }
         }
+
+        Settings.SessionSettings sessionSettings = settingsManager.getSessionSettings();
+        long removeOlderThanMillis = sessionSettings.removeOlderThan() != null ? TimeUtil.stringToMillis(sessionSettings.removeOlderThan()) : 0;
+        long compactOlderThanMillis = sessionSettings.compactOlderThan() != null ? TimeUtil.stringToMillis(sessionSettings.compactOlderThan()) : 0;
+        sessionManager.cleanup(removeOlderThanMillis, compactOlderThanMillis);
     }
 
     /**
@@ -18,7 +18,10 @@
 package com.github.lukesky19.skyplaytime.task.tasks;
 
 import com.github.lukesky19.skyplaytime.SkyPlayTime;
+import com.github.lukesky19.skyplaytime.database.journal.PlayTimeJournal;
 import com.github.lukesky19.skyplaytime.event.PlayTimeGainedEvent;
+import com.github.lukesky19.skyplaytime.leaderboard.manager.LeaderboardManager;
+import com.github.lukesky19.skyplaytime.player.manager.DailyPlayTimeManager;
 import com.github.lukesky19.skyplaytime.player.manager.PlayerDataManager;
 import org.bukkit.Server;
 import org.bukkit.entity.Player;
@@ -34,26 +37,43 @@ public class PlayTimeTask extends BukkitRunnable {
     private final @NotNull Server server;
     private final @NotNull PluginManager pluginManager;
     private final @NotNull PlayerDataManager playerDataManager;
+    private final @NotNull PlayTimeJournal playTimeJournal;
+    private final @NotNull DailyPlayTimeManager dailyPlayTimeManager;
+    private final @NotNull LeaderboardManager leaderboardManager;
 
     /**
      * Constructor
      * @param skyPlayTime A {@link SkyPlayTime} instance.
      * @param playerDataManager A {@link PlayerDataManager} instance.
+     * @param playTimeJournal A {@link PlayTimeJournal} instance.
+     * @param dailyPlayTimeManager A {@link DailyPlayTimeManager} instance.
+     * @param leaderboardManager A {@link LeaderboardManager} instance.
      */
-    public PlayTimeTask(@NotNull SkyPlayTime skyPlayTime, @NotNull PlayerDataManager playerDataManager) {
+    public PlayTimeTask(
+            @NotNull SkyPlayTime skyPlayTime,
+            @NotNull PlayerDataManager playerDataManager,
+            @NotNull PlayTimeJournal playTimeJournal,
+            @NotNull DailyPlayTimeManager dailyPlayTimeManager,
+            @NotNull LeaderboardManager leaderboardManager) {
         this.server = skyPlayTime.getServer();
         this.pluginManager = server.getPluginManager();
         this.playerDataManager = playerDataManager;
+        this.playTimeJournal = playTimeJournal;
+        this.dailyPlayTimeManager = dailyPlayTimeManager;
+        this.leaderboardManager = leaderboardManager;
     }
 
     /**
-     * Add 1 second of play time to all active players.
+     * Add 1 second of play time to all active players, record it in the {@link PlayTimeJournal}, add it to the current day's play time, and update their leaderboard positions.
      */
     @Override
     public void run() {
         playerDataManager.getActivePlayerData()
                 .forEach((uuid, playerData) -> {
                     playerData.addPlayTime(1);
+                    playTimeJournal.appendPlayTime(uuid, 1);
+                    dailyPlayTimeManager.addPlayTime(uuid, 1);
+                    leaderboardManager.updatePlayer(uuid, playerData);
 
                     @Nullable Player player = server.getPlayer(uuid);
                     if(player != null && player.isOnline() && player.isConnected()) {
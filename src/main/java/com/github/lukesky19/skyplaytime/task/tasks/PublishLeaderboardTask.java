@@ -17,29 +17,31 @@
 */
 package com.github.lukesky19.skyplaytime.task.tasks;
 
+import com.github.lukesky19.skyplaytime.leaderboard.data.LeaderboardState;
 import com.github.lukesky19.skyplaytime.leaderboard.manager.LeaderboardManager;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * This task updates the top players for all play time categories except ALL.
+ * This task publishes a new {@link LeaderboardState} in {@link LeaderboardManager} when the live standings have changed.
+ * It runs asynchronously, so the state is built off the main thread.
  */
-public class CalculateTopTenTask extends BukkitRunnable {
+public class PublishLeaderboardTask extends BukkitRunnable {
     private final @NotNull LeaderboardManager leaderboardManager;
 
     /**
      * Constructor
      * @param leaderboardManager A {@link LeaderboardManager} instance.
      */
-    public CalculateTopTenTask(@NotNull LeaderboardManager leaderboardManager) {
+    public PublishLeaderboardTask(@NotNull LeaderboardManager leaderboardManager) {
         this.leaderboardManager = leaderboardManager;
     }
 
     /**
-     * Updates the top players for all play time categories except ALL.
+     * Publish a new {@link LeaderboardState} if the live standings have changed.
      */
     @Override
     public void run() {
-        leaderboardManager.updateTopTenAllCategories();
+        leaderboardManager.publishLeaderboardStateIfChanged();
     }
-}
\ No newline at end of file
+}
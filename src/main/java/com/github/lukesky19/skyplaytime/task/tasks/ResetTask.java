@@ -110,11 +110,14 @@ public class ResetTask extends BukkitRunnable {
                     settings.locale(),
                     settings.saveIntervalSeconds(),
                     settings.backupOnReset(),
+                    settings.backupIntervalSeconds(),
                     settings.leaderboardSnapshotOnReset(),
                     settings.backupsRemoveOlderThan(),
                     settings.leaderboardRemoveOlderThan(),
                     settings.afkSettings(),
                     settings.resetSettings(),
+                    settings.leaderboardSettings(),
+                    settings.databaseSettings(),
                     lastResetTimesRecord);
             settingsManager.saveSettings(updatedSettings);
         });
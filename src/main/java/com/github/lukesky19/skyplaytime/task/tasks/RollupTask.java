@@ -0,0 +1,45 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.task.tasks;
+
+import com.github.lukesky19.skyplaytime.player.manager.DailyPlayTimeManager;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This task rolls up daily play time into weekly and monthly play time.
+ */
+public class RollupTask extends BukkitRunnable {
+    private final @NotNull DailyPlayTimeManager dailyPlayTimeManager;
+
+    /**
+     * Constructor
+     * @param dailyPlayTimeManager A {@link DailyPlayTimeManager} instance.
+     */
+    public RollupTask(@NotNull DailyPlayTimeManager dailyPlayTimeManager) {
+        this.dailyPlayTimeManager = dailyPlayTimeManager;
+    }
+
+    /**
+     * Rolls up all complete weeks and months.
+     */
+    @Override
+    public void run() {
+        dailyPlayTimeManager.rollUp();
+    }
+}
@@ -17,29 +17,49 @@
 */
 package com.github.lukesky19.skyplaytime.task.tasks;
 
+import com.github.lukesky19.skyplaytime.player.manager.DailyPlayTimeManager;
 import com.github.lukesky19.skyplaytime.player.manager.PlayerDataManager;
+import com.github.lukesky19.skyplaytime.player.manager.SessionManager;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * This task regularly saves player data to the database.
+ * Players are spread across one slot per second of the save interval and one slot is saved each second, so each player is still saved once per interval without every player being written at once.
  */
 public class SaveTask  extends BukkitRunnable {
     private final @NotNull PlayerDataManager playerDataManager;
+    private final @NotNull DailyPlayTimeManager dailyPlayTimeManager;
+    private final @NotNull SessionManager sessionManager;
+    private final int slotCount;
+    private int slot = 0;
 
     /**
      * Constructor
      * @param playerDataManager A {@link PlayerDataManager} instance.
+     * @param dailyPlayTimeManager A {@link DailyPlayTimeManager} instance.
+     * @param sessionManager A {@link SessionManager} instance.
+     * @param saveIntervalSeconds How often each player is saved in seconds. The task must run once per second.
      */
-    public SaveTask(@NotNull PlayerDataManager playerDataManager) {
+    public SaveTask(@NotNull PlayerDataManager playerDataManager, @NotNull DailyPlayTimeManager dailyPlayTimeManager, @NotNull SessionManager sessionManager, int saveIntervalSeconds) {
         this.playerDataManager = playerDataManager;
+        this.dailyPlayTimeManager = dailyPlayTimeManager;
+        this.sessionManager = sessionManager;
+        this.slotCount = Math.max(1, saveIntervalSeconds);
     }
 
     /**
-     * Regularly saves player data to the database.
+     * Saves the player data in the next slot. Daily play time and finished sessions are saved once per interval.
      */
     @Override
     public void run() {
-        playerDataManager.savePlayerData();
+        playerDataManager.savePlayerData(slot, slotCount);
+
+        if(slot == 0) {
+            dailyPlayTimeManager.flush();
+            sessionManager.flush();
+        }
+
+        slot = (slot + 1) % slotCount;
     }
 }
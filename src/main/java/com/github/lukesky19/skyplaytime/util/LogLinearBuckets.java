@@ -0,0 +1,97 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.util;
+
+/**
+ * This class maps values of 0 or more to the buckets of a log-linear histogram, similar to HdrHistogram.
+ * Values below 2 to the power of the first exponent are counted in a bucket each.
+ * Larger values are counted in 2 to the power of the sub-bucket bits buckets per power of two, so a bucket is never wider than 1 / 2^subBucketBits of its values.
+ * Mapping a value is a few bit operations, with no allocation.
+ */
+public final class LogLinearBuckets {
+    private final int subBucketBits;
+    private final int subBuckets;
+    private final int firstExponent;
+    private final int linearBuckets;
+    private final int bucketCount;
+
+    /**
+     * Constructor
+     * @param subBucketBits The number of bits used to split each power of two into buckets.
+     * @param firstExponent The exponent of the first power of two that is split into buckets. Must be at least the sub-bucket bits.
+     * @throws IllegalArgumentException if the first exponent is less than the sub-bucket bits.
+     */
+    public LogLinearBuckets(int subBucketBits, int firstExponent) {
+        if(firstExponent < subBucketBits) throw new IllegalArgumentException("The first exponent must be at least the sub-bucket bits.");
+
+        this.subBucketBits = subBucketBits;
+        this.subBuckets = 1 << subBucketBits;
+        this.firstExponent = firstExponent;
+        this.linearBuckets = 1 << firstExponent;
+        this.bucketCount = linearBuckets + (Long.SIZE - 1 - firstExponent) * subBuckets;
+    }
+
+    /**
+     * Get the number of buckets needed to count every value of 0 or more.
+     * @return The number of buckets.
+     */
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * Get the index of the bucket the value is counted in.
+     * @param value The value, 0 or more.
+     * @return The index of the bucket.
+     */
+    public int getIndex(long value) {
+        if(value < linearBuckets) return (int) value;
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) ((value >>> (exponent - subBucketBits)) & (subBuckets - 1));
+        return linearBuckets + (exponent - firstExponent) * subBuckets + subBucket;
+    }
+
+    /**
+     * Get the lowest value that is counted in the bucket.
+     * @param index The index of the bucket.
+     * @return The lowest value counted in the bucket.
+     */
+    public long getLowerBound(int index) {
+        if(index < linearBuckets) return index;
+
+        int exponent = (index - linearBuckets) / subBuckets + firstExponent;
+        int subBucket = (index - linearBuckets) % subBuckets;
+        long bucketWidth = 1L << (exponent - subBucketBits);
+        return (1L << exponent) + subBucket * bucketWidth;
+    }
+
+    /**
+     * Get the highest value that is counted in the bucket.
+     * @param index The index of the bucket.
+     * @return The highest value counted in the bucket.
+     */
+    public long getUpperBound(int index) {
+        if(index < linearBuckets) return index;
+
+        int exponent = (index - linearBuckets) / subBuckets + firstExponent;
+        int subBucket = (index - linearBuckets) % subBuckets;
+        long bucketWidth = 1L << (exponent - subBucketBits);
+        return (1L << exponent) + (subBucket + 1) * bucketWidth - 1;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+    SkyPlayTime tracks play time with options to not track play time for inactive (AFK) players.
+    Copyright (C) 2025 lukeskywlker19
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package com.github.lukesky19.skyplaytime.util;
+
+/**
+ * This enum is used to identify how play time is written to the database.
+ */
+public enum SaveMode {
+    /**
+     * Play time stored in memory is written to the database, replacing the stored value.
+     */
+    ABSOLUTE,
+    /**
+     * Only the play time gained since the last save is added to the stored value.
+     * This allows multiple servers to share the same database without overwriting each other's play time.
+     */
+    DELTA
+}